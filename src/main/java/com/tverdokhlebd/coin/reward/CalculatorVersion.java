@@ -0,0 +1,137 @@
+package com.tverdokhlebd.coin.reward;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+/**
+ * Version of coin reward calculator: last updated timestamp of source data and content hash of its base values.
+ *
+ * Versions are ordered by timestamp, so they grow with every update of source. Hash is 64-bit FNV-1a of plain strings of
+ * base values without trailing zeros, it does not depend on JVM, so nodes, which have fetched the same source data, get
+ * the same version and can compare versions by their strings.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class CalculatorVersion implements Comparable<CalculatorVersion> {
+
+    /** Offset basis of FNV-1a hash. */
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    /** Prime of FNV-1a hash. */
+    private static final long FNV_PRIME = 0x100000001b3L;
+    /** Separator of timestamp and hash in string. */
+    private static final char SEPARATOR = '-';
+    /** Last updated timestamp of source data in milliseconds, or 0 if it is unknown. */
+    private final long timestamp;
+    /** Content hash of base values. */
+    private final long contentHash;
+
+    /**
+     * Creates instance.
+     *
+     * @param timestamp last updated timestamp of source data in milliseconds, or 0 if it is unknown
+     * @param contentHash content hash of base values
+     */
+    public CalculatorVersion(long timestamp, long contentHash) {
+        super();
+        this.timestamp = timestamp;
+        this.contentHash = contentHash;
+    }
+
+    /**
+     * Creates version of base values.
+     *
+     * @param lastUpdated last updated date of source data, or null if it is unknown
+     * @param baseHashrate base hashrate in H/s
+     * @param baseRewardPerDay base reward per day
+     * @return version
+     */
+    public static CalculatorVersion of(Date lastUpdated, BigDecimal baseHashrate, BigDecimal baseRewardPerDay) {
+        long contentHash = hash(FNV_OFFSET_BASIS, baseRewardPerDay);
+        contentHash = hash(contentHash, baseHashrate);
+        return new CalculatorVersion(lastUpdated == null ? 0 : lastUpdated.getTime(), contentHash);
+    }
+
+    /**
+     * Parses version from its string, see {@link #toString()}.
+     *
+     * @param version string of version
+     * @return version
+     */
+    public static CalculatorVersion parse(String version) {
+        int separatorIndex = version.indexOf(SEPARATOR);
+        if (separatorIndex <= 0) {
+            throw new IllegalArgumentException("Invalid version " + version);
+        }
+        try {
+            return new CalculatorVersion(Long.parseLong(version.substring(0, separatorIndex)),
+                                         Long.parseUnsignedLong(version.substring(separatorIndex + 1), 16));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid version " + version, e);
+        }
+    }
+
+    /**
+     * Gets last updated timestamp of source data.
+     *
+     * @return timestamp in milliseconds, or 0 if it is unknown
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Gets content hash of base values.
+     *
+     * @return content hash
+     */
+    public long getContentHash() {
+        return contentHash;
+    }
+
+    @Override
+    public int compareTo(CalculatorVersion other) {
+        int result = Long.compare(timestamp, other.timestamp);
+        return result != 0 ? result : Long.compareUnsigned(contentHash, other.contentHash);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CalculatorVersion)) {
+            return false;
+        }
+        CalculatorVersion other = (CalculatorVersion) obj;
+        return timestamp == other.timestamp && contentHash == other.contentHash;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(timestamp) + Long.hashCode(contentHash);
+    }
+
+    @Override
+    public String toString() {
+        return timestamp + String.valueOf(SEPARATOR) + Long.toHexString(contentHash);
+    }
+
+    /**
+     * Continues hash with decimal.
+     *
+     * @param hash current hash
+     * @param decimal decimal, or null
+     * @return new hash
+     */
+    private static long hash(long hash, BigDecimal decimal) {
+        String string = decimal == null ? "null" : decimal.stripTrailingZeros().toPlainString();
+        for (byte b : (string + ';').getBytes(StandardCharsets.US_ASCII)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+}
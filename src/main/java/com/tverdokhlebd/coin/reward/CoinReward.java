@@ -1,12 +1,19 @@
 package com.tverdokhlebd.coin.reward;
 
 import java.math.BigDecimal;
+import java.util.Objects;
 
 import com.tverdokhlebd.mining.commons.coin.CoinType;
 
 /**
  * Estimated rewards for coin according to reported hashrate.
  *
+ * Rewards, which are calculated by {@link CoinRewardCalculator}, keep only reward per day and reference to calculator, and
+ * derive rewards of other periods from it on demand with precision policy of calculator, optionally memoizing them, see
+ * {@link DerivedCoinReward}. Rewards of all periods, which are set explicitly, are kept in a separate object, so calculated
+ * rewards do not pay for their slots. Rewards are equal if their coins, hashrates and rewards of all periods are equal,
+ * whatever representation and version of calculator are.
+ *
  * @author Dmitry Tverdokhleb
  *
  */
@@ -16,16 +23,10 @@ public class CoinReward {
     private final CoinType coinType;
     /** Reported hashrate in H/s. */
     private final BigDecimal reportedHashrate;
-    /** Reward per hour. */
-    private final BigDecimal rewardPerHour;
     /** Reward per day. */
     private final BigDecimal rewardPerDay;
-    /** Reward per week. */
-    private final BigDecimal rewardPerWeek;
-    /** Reward per month. */
-    private final BigDecimal rewardPerMonth;
-    /** Reward per year. */
-    private final BigDecimal rewardPerYear;
+    /** Explicitly set rewards of other periods, or null if they are derived. */
+    private final PeriodRewards periodRewards;
 
     /**
      * Creates instance.
@@ -41,14 +42,43 @@ public class CoinReward {
     public CoinReward(CoinType coinType, BigDecimal reportedHashrate, BigDecimal rewardPerHour, BigDecimal rewardPerDay,
             BigDecimal rewardPerWeek,
             BigDecimal rewardPerMonth, BigDecimal rewardPerYear) {
+        this(coinType, reportedHashrate, rewardPerHour, rewardPerDay, rewardPerWeek, rewardPerMonth, rewardPerYear, null);
+    }
+
+    /**
+     * Creates instance.
+     *
+     * @param coinType type of coin
+     * @param reportedHashrate reported hashrate in H/s
+     * @param rewardPerHour reward per hour
+     * @param rewardPerDay reward per day
+     * @param rewardPerWeek reward per week
+     * @param rewardPerMonth reward per month
+     * @param rewardPerYear reward per year
+     * @param calculatorVersion version of calculator, or null if it is unknown
+     */
+    public CoinReward(CoinType coinType, BigDecimal reportedHashrate, BigDecimal rewardPerHour, BigDecimal rewardPerDay,
+            BigDecimal rewardPerWeek, BigDecimal rewardPerMonth, BigDecimal rewardPerYear, CalculatorVersion calculatorVersion) {
+        super();
+        this.coinType = coinType;
+        this.reportedHashrate = reportedHashrate;
+        this.rewardPerDay = rewardPerDay;
+        this.periodRewards = new PeriodRewards(rewardPerHour, rewardPerWeek, rewardPerMonth, rewardPerYear, calculatorVersion);
+    }
+
+    /**
+     * Creates instance, which derives rewards of other periods from reward per day.
+     *
+     * @param coinType type of coin
+     * @param reportedHashrate reported hashrate in H/s
+     * @param rewardPerDay reward per day
+     */
+    CoinReward(CoinType coinType, BigDecimal reportedHashrate, BigDecimal rewardPerDay) {
         super();
         this.coinType = coinType;
         this.reportedHashrate = reportedHashrate;
-        this.rewardPerHour = rewardPerHour;
         this.rewardPerDay = rewardPerDay;
-        this.rewardPerWeek = rewardPerWeek;
-        this.rewardPerMonth = rewardPerMonth;
-        this.rewardPerYear = rewardPerYear;
+        this.periodRewards = null;
     }
 
     /**
@@ -75,7 +105,7 @@ public class CoinReward {
      * @return reward per hour
      */
     public BigDecimal getRewardPerHour() {
-        return rewardPerHour;
+        return periodRewards.rewardPerHour;
     }
 
     /**
@@ -93,7 +123,7 @@ public class CoinReward {
      * @return reward per week
      */
     public BigDecimal getRewardPerWeek() {
-        return rewardPerWeek;
+        return periodRewards.rewardPerWeek;
     }
 
     /**
@@ -102,7 +132,7 @@ public class CoinReward {
      * @return reward per month
      */
     public BigDecimal getRewardPerMonth() {
-        return rewardPerMonth;
+        return periodRewards.rewardPerMonth;
     }
 
     /**
@@ -111,7 +141,78 @@ public class CoinReward {
      * @return reward per year
      */
     public BigDecimal getRewardPerYear() {
-        return rewardPerYear;
+        return periodRewards.rewardPerYear;
+    }
+
+    /**
+     * Gets version of calculator, which has calculated reward.
+     *
+     * @return version of calculator, or null if it is unknown
+     */
+    public CalculatorVersion getCalculatorVersion() {
+        return periodRewards.calculatorVersion;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CoinReward)) {
+            return false;
+        }
+        CoinReward other = (CoinReward) obj;
+        return coinType == other.coinType
+                && Objects.equals(reportedHashrate, other.reportedHashrate)
+                && Objects.equals(rewardPerDay, other.rewardPerDay)
+                && Objects.equals(getRewardPerHour(), other.getRewardPerHour())
+                && Objects.equals(getRewardPerWeek(), other.getRewardPerWeek())
+                && Objects.equals(getRewardPerMonth(), other.getRewardPerMonth())
+                && Objects.equals(getRewardPerYear(), other.getRewardPerYear());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(coinType, reportedHashrate, rewardPerDay);
+    }
+
+    /**
+     * Explicitly set rewards of periods other than day.
+     *
+     * @author Dmitry Tverdokhleb
+     *
+     */
+    private static class PeriodRewards {
+
+        /** Reward per hour. */
+        private final BigDecimal rewardPerHour;
+        /** Reward per week. */
+        private final BigDecimal rewardPerWeek;
+        /** Reward per month. */
+        private final BigDecimal rewardPerMonth;
+        /** Reward per year. */
+        private final BigDecimal rewardPerYear;
+        /** Version of calculator, or null if it is unknown. */
+        private final CalculatorVersion calculatorVersion;
+
+        /**
+         * Creates instance.
+         *
+         * @param rewardPerHour reward per hour
+         * @param rewardPerWeek reward per week
+         * @param rewardPerMonth reward per month
+         * @param rewardPerYear reward per year
+         * @param calculatorVersion version of calculator, or null if it is unknown
+         */
+        PeriodRewards(BigDecimal rewardPerHour, BigDecimal rewardPerWeek, BigDecimal rewardPerMonth, BigDecimal rewardPerYear,
+                CalculatorVersion calculatorVersion) {
+            this.rewardPerHour = rewardPerHour;
+            this.rewardPerWeek = rewardPerWeek;
+            this.rewardPerMonth = rewardPerMonth;
+            this.rewardPerYear = rewardPerYear;
+            this.calculatorVersion = calculatorVersion;
+        }
+
     }
 
     /**
@@ -136,6 +237,8 @@ public class CoinReward {
         private BigDecimal rewardPerMonth;
         /** Reward per year. */
         private BigDecimal rewardPerYear;
+        /** Version of calculator. */
+        private CalculatorVersion calculatorVersion;
 
         /**
          * Creates instance.
@@ -221,13 +324,31 @@ public class CoinReward {
             return this;
         }
 
+        /**
+         * Sets version of calculator.
+         *
+         * @param calculatorVersion new version of calculator
+         * @return builder
+         */
+        public Builder setCalculatorVersion(CalculatorVersion calculatorVersion) {
+            this.calculatorVersion = calculatorVersion;
+            return this;
+        }
+
         /**
          * Builds coin reward.
          *
          * @return coin reward
          */
         public CoinReward build() {
-            return new CoinReward(coinType, reportedHashrate, rewardPerHour, rewardPerDay, rewardPerWeek, rewardPerMonth, rewardPerYear);
+            return new CoinReward(coinType,
+                                  reportedHashrate,
+                                  rewardPerHour,
+                                  rewardPerDay,
+                                  rewardPerWeek,
+                                  rewardPerMonth,
+                                  rewardPerYear,
+                                  calculatorVersion);
         }
 
     }
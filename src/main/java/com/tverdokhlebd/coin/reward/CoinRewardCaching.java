@@ -1,6 +1,7 @@
 package com.tverdokhlebd.coin.reward;
 
 import java.util.Date;
+import java.util.List;
 
 import com.tverdokhlebd.mining.commons.coin.CoinType;
 
@@ -24,7 +25,7 @@ public interface CoinRewardCaching {
      * Gets cached coin reward calculator.
      *
      * @param coinType type of coin
-     * @return cached coin reward calculator
+     * @return cached coin reward calculator, or null if there is no cached calculator
      */
     CoinRewardCalculator getCachedCoinRewardCalculator(CoinType coinType);
 
@@ -36,4 +37,11 @@ public interface CoinRewardCaching {
      */
     void setCachedCoinRewardCalculator(CoinType coinType, CoinRewardCalculator coinRewardCalculator);
 
+    /**
+     * Sets cached coin reward calculators atomically, so readers see either all of them or none.
+     *
+     * @param coinRewardCalculatorList list of coin reward calculators
+     */
+    void setCachedCoinRewardCalculators(List<CoinRewardCalculator> coinRewardCalculatorList);
+
 }
@@ -4,9 +4,9 @@ import static com.tverdokhlebd.mining.commons.utils.TimeUtils.DAYS_IN_MONTH;
 import static com.tverdokhlebd.mining.commons.utils.TimeUtils.DAYS_IN_WEEK;
 import static com.tverdokhlebd.mining.commons.utils.TimeUtils.DAYS_IN_YEAR;
 import static com.tverdokhlebd.mining.commons.utils.TimeUtils.HOURS_IN_DAY;
-import static java.math.RoundingMode.DOWN;
 
 import java.math.BigDecimal;
+import java.util.Date;
 
 import com.tverdokhlebd.mining.commons.coin.CoinType;
 
@@ -18,12 +18,53 @@ import com.tverdokhlebd.mining.commons.coin.CoinType;
  */
 public class CoinRewardCalculator {
 
+    /** Index of reward per hour in array of primitive rewards. */
+    public static final int REWARD_PER_HOUR = 0;
+    /** Index of reward per day in array of primitive rewards. */
+    public static final int REWARD_PER_DAY = 1;
+    /** Index of reward per week in array of primitive rewards. */
+    public static final int REWARD_PER_WEEK = 2;
+    /** Index of reward per month in array of primitive rewards. */
+    public static final int REWARD_PER_MONTH = 3;
+    /** Index of reward per year in array of primitive rewards. */
+    public static final int REWARD_PER_YEAR = 4;
+    /** Length of array of primitive rewards. */
+    public static final int REWARD_PERIODS = 5;
+    /** Hashrate units. */
+    private static final HashrateUnit[] HASHRATE_UNITS = HashrateUnit.values();
+    /** Hours in day as primitive. */
+    private static final double HOURS_IN_DAY_FACTOR = HOURS_IN_DAY.doubleValue();
+    /** Days in week as primitive. */
+    private static final double DAYS_IN_WEEK_FACTOR = DAYS_IN_WEEK.doubleValue();
+    /** Days in month as primitive. */
+    private static final double DAYS_IN_MONTH_FACTOR = DAYS_IN_MONTH.doubleValue();
+    /** Days in year as primitive. */
+    private static final double DAYS_IN_YEAR_FACTOR = DAYS_IN_YEAR.doubleValue();
+
     /** Type of coin. */
     private final CoinType coinType;
     /** Base hashrate in H/s. */
     private final BigDecimal baseHashrate;
     /** Base reward per day. */
     private final BigDecimal baseRewardPerDay;
+    /** Last updated date of source data. */
+    private final Date lastUpdated;
+    /** Network difficulty. */
+    private final BigDecimal difficulty;
+    /** Average network difficulty for the last 7 days. */
+    private final BigDecimal weekAverageDifficulty;
+    /** Network hashrate in H/s. */
+    private final BigDecimal networkHashrate;
+    /** Reward per block. */
+    private final BigDecimal blockReward;
+    /** Average block time in seconds. */
+    private final BigDecimal blockTime;
+    /** Precision of calculating rewards. */
+    private final PrecisionPolicy precisionPolicy;
+    /** Version of calculator. */
+    private final CalculatorVersion version;
+    /** Rewards per day for one unit of hashrate, by ordinal of unit, or null if base values are unknown. */
+    private final double[] unitRewardFactors;
 
     /**
      * Creates instance.
@@ -33,29 +74,203 @@ public class CoinRewardCalculator {
      * @param baseRewardPerDay base reward per day
      */
     public CoinRewardCalculator(CoinType coinType, BigDecimal baseHashrate, BigDecimal baseRewardPerDay) {
+        this(new Builder().setCoinType(coinType).setBaseHashrate(baseHashrate).setBaseRewardPerDay(baseRewardPerDay));
+    }
+
+    /**
+     * Creates instance.
+     *
+     * @param builder builder of coin reward calculator
+     */
+    private CoinRewardCalculator(Builder builder) {
         super();
-        this.coinType = coinType;
-        this.baseHashrate = baseHashrate;
-        this.baseRewardPerDay = baseRewardPerDay;
+        this.coinType = builder.coinType;
+        this.baseHashrate = builder.baseHashrate;
+        this.baseRewardPerDay = builder.baseRewardPerDay;
+        this.lastUpdated = builder.lastUpdated;
+        this.difficulty = builder.difficulty;
+        this.weekAverageDifficulty = builder.weekAverageDifficulty;
+        this.networkHashrate = builder.networkHashrate;
+        this.blockReward = builder.blockReward;
+        this.blockTime = builder.blockTime;
+        this.precisionPolicy = builder.precisionPolicy == null ? PrecisionPolicy.LEGACY : builder.precisionPolicy;
+        this.version = CalculatorVersion.of(lastUpdated, baseHashrate, baseRewardPerDay);
+        this.unitRewardFactors = createUnitRewardFactors(baseHashrate, baseRewardPerDay);
+    }
+
+    /**
+     * Gets coin type.
+     *
+     * @return coin type
+     */
+    public CoinType getCoinType() {
+        return coinType;
     }
 
     /**
-     * Calculates estimated coin rewards according to reported hashrate.
+     * Gets base hashrate in H/s.
+     *
+     * @return base hashrate in H/s
+     */
+    public BigDecimal getBaseHashrate() {
+        return baseHashrate;
+    }
+
+    /**
+     * Gets base reward per day.
+     *
+     * @return base reward per day
+     */
+    public BigDecimal getBaseRewardPerDay() {
+        return baseRewardPerDay;
+    }
+
+    /**
+     * Gets last updated date of source data.
+     *
+     * @return last updated date of source data, or null if it is unknown
+     */
+    public Date getLastUpdated() {
+        return lastUpdated;
+    }
+
+    /**
+     * Gets network difficulty.
+     *
+     * @return network difficulty, or null if it is unknown
+     */
+    public BigDecimal getDifficulty() {
+        return difficulty;
+    }
+
+    /**
+     * Gets average network difficulty for the last 7 days.
+     *
+     * @return average network difficulty for the last 7 days, or null if it is unknown
+     */
+    public BigDecimal getWeekAverageDifficulty() {
+        return weekAverageDifficulty;
+    }
+
+    /**
+     * Gets network hashrate in H/s.
+     *
+     * @return network hashrate in H/s, or null if it is unknown
+     */
+    public BigDecimal getNetworkHashrate() {
+        return networkHashrate;
+    }
+
+    /**
+     * Gets reward per block.
+     *
+     * @return reward per block, or null if it is unknown
+     */
+    public BigDecimal getBlockReward() {
+        return blockReward;
+    }
+
+    /**
+     * Gets average block time in seconds.
+     *
+     * @return average block time in seconds, or null if it is unknown
+     */
+    public BigDecimal getBlockTime() {
+        return blockTime;
+    }
+
+    /**
+     * Gets precision of calculating rewards.
+     *
+     * @return precision of calculating rewards
+     */
+    public PrecisionPolicy getPrecisionPolicy() {
+        return precisionPolicy;
+    }
+
+    /**
+     * Gets version of calculator.
+     *
+     * @return version of calculator
+     */
+    public CalculatorVersion getVersion() {
+        return version;
+    }
+
+    /**
+     * Calculates estimated coin rewards according to reported hashrate with precision of calculator. Reward keeps only
+     * reward per day, rewards of other periods are derived from it on every demand and are not memoized, so reward stays
+     * compact whatever getters are read.
      *
      * @param reportedHashrate reported hashrate in H/s
      * @return coin reward
      */
     public CoinReward calculateRewards(BigDecimal reportedHashrate) {
-        CoinReward.Builder builder = new CoinReward.Builder();
-        BigDecimal calculatedRewardPerDay = reportedHashrate.multiply(baseRewardPerDay).divide(baseHashrate, DOWN);
-        builder.setCoinType(coinType)
-               .setReportedHashrate(reportedHashrate)
-               .setRewardPerHour(calculatedRewardPerDay.divide(HOURS_IN_DAY, DOWN))
-               .setRewardPerDay(calculatedRewardPerDay)
-               .setRewardPerWeek(calculatedRewardPerDay.multiply(DAYS_IN_WEEK))
-               .setRewardPerMonth(calculatedRewardPerDay.multiply(DAYS_IN_MONTH))
-               .setRewardPerYear(calculatedRewardPerDay.multiply(DAYS_IN_YEAR));
-        return builder.build();
+        return calculateRewards(reportedHashrate, false);
+    }
+
+    /**
+     * Calculates estimated coin rewards according to reported hashrate with precision of calculator. Reward keeps only
+     * reward per day, rewards of other periods are derived from it on demand.
+     *
+     * @param reportedHashrate reported hashrate in H/s
+     * @param memoized true, if derived rewards are kept after the first deriving, e.g. for rewards, whose derived rewards
+     *        are read many times, at cost of memory
+     * @return coin reward
+     */
+    public CoinReward calculateRewards(BigDecimal reportedHashrate, boolean memoized) {
+        BigDecimal calculatedRewardPerDay = precisionPolicy.multiplyAndDivide(reportedHashrate, baseRewardPerDay, baseHashrate);
+        return memoized ? new MemoizedCoinReward(this, reportedHashrate, calculatedRewardPerDay)
+                : new DerivedCoinReward(this, reportedHashrate, calculatedRewardPerDay);
+    }
+
+    /**
+     * Calculates estimated coin reward per day according to reported hashrate in given unit. Nothing is allocated, unit
+     * scale is folded into precomputed reward factor.
+     *
+     * @param reportedHashrate reported hashrate
+     * @param hashrateUnit unit of reported hashrate
+     * @return coin reward per day
+     */
+    public double calculateRewardPerDay(double reportedHashrate, HashrateUnit hashrateUnit) {
+        return reportedHashrate * unitRewardFactors[hashrateUnit.ordinal()];
+    }
+
+    /**
+     * Calculates estimated coin rewards according to reported hashrate in given unit into array of primitive rewards,
+     * indexed by {@link #REWARD_PER_HOUR}, {@link #REWARD_PER_DAY}, {@link #REWARD_PER_WEEK}, {@link #REWARD_PER_MONTH}
+     * and {@link #REWARD_PER_YEAR}. Nothing is allocated.
+     *
+     * @param reportedHashrate reported hashrate
+     * @param hashrateUnit unit of reported hashrate
+     * @param rewards array of at least {@link #REWARD_PERIODS} length for calculated rewards
+     */
+    public void calculateRewards(double reportedHashrate, HashrateUnit hashrateUnit, double[] rewards) {
+        double rewardPerDay = calculateRewardPerDay(reportedHashrate, hashrateUnit);
+        rewards[REWARD_PER_HOUR] = rewardPerDay / HOURS_IN_DAY_FACTOR;
+        rewards[REWARD_PER_DAY] = rewardPerDay;
+        rewards[REWARD_PER_WEEK] = rewardPerDay * DAYS_IN_WEEK_FACTOR;
+        rewards[REWARD_PER_MONTH] = rewardPerDay * DAYS_IN_MONTH_FACTOR;
+        rewards[REWARD_PER_YEAR] = rewardPerDay * DAYS_IN_YEAR_FACTOR;
+    }
+
+    /**
+     * Creates rewards per day for one unit of hashrate.
+     *
+     * @param baseHashrate base hashrate in H/s
+     * @param baseRewardPerDay base reward per day
+     * @return rewards per day by ordinal of unit, or null if base values are unknown
+     */
+    private static double[] createUnitRewardFactors(BigDecimal baseHashrate, BigDecimal baseRewardPerDay) {
+        if (baseHashrate == null || baseRewardPerDay == null) {
+            return null;
+        }
+        double rewardPerHash = baseRewardPerDay.doubleValue() / baseHashrate.doubleValue();
+        double[] unitRewardFactors = new double[HASHRATE_UNITS.length];
+        for (HashrateUnit hashrateUnit : HASHRATE_UNITS) {
+            unitRewardFactors[hashrateUnit.ordinal()] = rewardPerHash * hashrateUnit.getFactor();
+        }
+        return unitRewardFactors;
     }
 
     /**
@@ -72,6 +287,20 @@ public class CoinRewardCalculator {
         private BigDecimal baseHashrate;
         /** Base reward per day. */
         private BigDecimal baseRewardPerDay;
+        /** Last updated date of source data. */
+        private Date lastUpdated;
+        /** Network difficulty. */
+        private BigDecimal difficulty;
+        /** Average network difficulty for the last 7 days. */
+        private BigDecimal weekAverageDifficulty;
+        /** Network hashrate in H/s. */
+        private BigDecimal networkHashrate;
+        /** Reward per block. */
+        private BigDecimal blockReward;
+        /** Average block time in seconds. */
+        private BigDecimal blockTime;
+        /** Precision of calculating rewards. */
+        private PrecisionPolicy precisionPolicy;
 
         /**
          * Creates instance.
@@ -113,13 +342,90 @@ public class CoinRewardCalculator {
             return this;
         }
 
+        /**
+         * Sets last updated date of source data.
+         *
+         * @param lastUpdated new last updated date of source data
+         * @return builder
+         */
+        public Builder setLastUpdated(Date lastUpdated) {
+            this.lastUpdated = lastUpdated;
+            return this;
+        }
+
+        /**
+         * Sets network difficulty.
+         *
+         * @param difficulty new network difficulty
+         * @return builder
+         */
+        public Builder setDifficulty(BigDecimal difficulty) {
+            this.difficulty = difficulty;
+            return this;
+        }
+
+        /**
+         * Sets average network difficulty for the last 7 days.
+         *
+         * @param weekAverageDifficulty new average network difficulty for the last 7 days
+         * @return builder
+         */
+        public Builder setWeekAverageDifficulty(BigDecimal weekAverageDifficulty) {
+            this.weekAverageDifficulty = weekAverageDifficulty;
+            return this;
+        }
+
+        /**
+         * Sets network hashrate.
+         *
+         * @param networkHashrate new network hashrate in H/s
+         * @return builder
+         */
+        public Builder setNetworkHashrate(BigDecimal networkHashrate) {
+            this.networkHashrate = networkHashrate;
+            return this;
+        }
+
+        /**
+         * Sets reward per block.
+         *
+         * @param blockReward new reward per block
+         * @return builder
+         */
+        public Builder setBlockReward(BigDecimal blockReward) {
+            this.blockReward = blockReward;
+            return this;
+        }
+
+        /**
+         * Sets average block time.
+         *
+         * @param blockTime new average block time in seconds
+         * @return builder
+         */
+        public Builder setBlockTime(BigDecimal blockTime) {
+            this.blockTime = blockTime;
+            return this;
+        }
+
+        /**
+         * Sets precision of calculating rewards.
+         *
+         * @param precisionPolicy new precision of calculating rewards, or null for {@link PrecisionPolicy#LEGACY}
+         * @return builder
+         */
+        public Builder setPrecisionPolicy(PrecisionPolicy precisionPolicy) {
+            this.precisionPolicy = precisionPolicy;
+            return this;
+        }
+
         /**
          * Builds coin reward calculator.
          *
          * @return coin reward calculator
          */
         public CoinRewardCalculator build() {
-            return new CoinRewardCalculator(coinType, baseHashrate, baseRewardPerDay);
+            return new CoinRewardCalculator(this);
         }
 
     }
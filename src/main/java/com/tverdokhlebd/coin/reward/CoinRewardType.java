@@ -1,14 +1,9 @@
 package com.tverdokhlebd.coin.reward;
 
-import static com.tverdokhlebd.mining.commons.coin.CoinType.BTC;
-import static com.tverdokhlebd.mining.commons.coin.CoinType.ETC;
-import static com.tverdokhlebd.mining.commons.coin.CoinType.ETH;
-import static com.tverdokhlebd.mining.commons.coin.CoinType.XMR;
-import static com.tverdokhlebd.mining.commons.coin.CoinType.ZEC;
-
-import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
 
+import com.tverdokhlebd.coin.reward.whattomine.EndpointRegistry;
 import com.tverdokhlebd.mining.commons.coin.CoinType;
 
 /**
@@ -19,18 +14,18 @@ import com.tverdokhlebd.mining.commons.coin.CoinType;
  */
 public enum CoinRewardType {
 
-    WHAT_TO_MINE(Arrays.asList(BTC, ETH, ETC, XMR, ZEC));
+    WHAT_TO_MINE(() -> EndpointRegistry.getDefault().getCoinTypeList());
 
-    /** Supported list of coin types. */
-    private final List<CoinType> coinTypeList;
+    /** Supplier of supported list of coin types. */
+    private final Supplier<List<CoinType>> coinTypeListSupplier;
 
     /**
      * Creates instance.
      *
-     * @param coinTypeList supported list of coin types
+     * @param coinTypeListSupplier supplier of supported list of coin types
      */
-    private CoinRewardType(List<CoinType> coinTypeList) {
-        this.coinTypeList = coinTypeList;
+    private CoinRewardType(Supplier<List<CoinType>> coinTypeListSupplier) {
+        this.coinTypeListSupplier = coinTypeListSupplier;
     }
 
     /**
@@ -39,7 +34,7 @@ public enum CoinRewardType {
      * @return coin type list
      */
     public List<CoinType> getCoinTypeList() {
-        return coinTypeList;
+        return coinTypeListSupplier.get();
     }
 
 }
@@ -0,0 +1,60 @@
+package com.tverdokhlebd.coin.reward;
+
+import static com.tverdokhlebd.mining.commons.utils.TimeUtils.DAYS_IN_MONTH;
+import static com.tverdokhlebd.mining.commons.utils.TimeUtils.DAYS_IN_WEEK;
+import static com.tverdokhlebd.mining.commons.utils.TimeUtils.DAYS_IN_YEAR;
+import static com.tverdokhlebd.mining.commons.utils.TimeUtils.HOURS_IN_DAY;
+
+import java.math.BigDecimal;
+
+/**
+ * Coin reward, which derives rewards of periods other than day from reward per day with precision policy of calculator on
+ * every demand. Precision policy and version are read from calculator, which is shared by all its rewards, so reward keeps
+ * no slots for derived rewards.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+class DerivedCoinReward extends CoinReward {
+
+    /** Coin reward calculator, which has calculated reward. */
+    private final CoinRewardCalculator coinRewardCalculator;
+
+    /**
+     * Creates instance.
+     *
+     * @param coinRewardCalculator coin reward calculator, which has calculated reward
+     * @param reportedHashrate reported hashrate in H/s
+     * @param rewardPerDay reward per day
+     */
+    DerivedCoinReward(CoinRewardCalculator coinRewardCalculator, BigDecimal reportedHashrate, BigDecimal rewardPerDay) {
+        super(coinRewardCalculator.getCoinType(), reportedHashrate, rewardPerDay);
+        this.coinRewardCalculator = coinRewardCalculator;
+    }
+
+    @Override
+    public BigDecimal getRewardPerHour() {
+        return coinRewardCalculator.getPrecisionPolicy().divide(getRewardPerDay(), HOURS_IN_DAY);
+    }
+
+    @Override
+    public BigDecimal getRewardPerWeek() {
+        return coinRewardCalculator.getPrecisionPolicy().multiply(getRewardPerDay(), DAYS_IN_WEEK);
+    }
+
+    @Override
+    public BigDecimal getRewardPerMonth() {
+        return coinRewardCalculator.getPrecisionPolicy().multiply(getRewardPerDay(), DAYS_IN_MONTH);
+    }
+
+    @Override
+    public BigDecimal getRewardPerYear() {
+        return coinRewardCalculator.getPrecisionPolicy().multiply(getRewardPerDay(), DAYS_IN_YEAR);
+    }
+
+    @Override
+    public CalculatorVersion getCalculatorVersion() {
+        return coinRewardCalculator.getVersion();
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.tverdokhlebd.coin.reward;
+
+import java.math.BigDecimal;
+
+import com.tverdokhlebd.mining.commons.utils.HashrateUtils;
+
+/**
+ * Units of hashrate with scales from {@link HashrateUtils}.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public enum HashrateUnit {
+
+    H_S(BigDecimal.ONE),
+    KH_S(HashrateUtils.KH_S),
+    MH_S(HashrateUtils.MH_S),
+    GH_S(HashrateUtils.GH_S),
+    TH_S(HashrateUtils.TH_S),
+    PH_S(HashrateUtils.PH_S),
+    EH_S(HashrateUtils.EH_S);
+
+    /** Hashes per second in one unit. */
+    private final BigDecimal hashes;
+    /** Hashes per second in one unit as primitive. */
+    private final double factor;
+
+    /**
+     * Creates instance.
+     *
+     * @param hashes hashes per second in one unit
+     */
+    HashrateUnit(BigDecimal hashes) {
+        this.hashes = hashes;
+        this.factor = hashes.doubleValue();
+    }
+
+    /**
+     * Gets hashes per second in one unit.
+     *
+     * @return hashes per second in one unit
+     */
+    public BigDecimal getHashes() {
+        return hashes;
+    }
+
+    /**
+     * Gets hashes per second in one unit as primitive.
+     *
+     * @return hashes per second in one unit
+     */
+    public double getFactor() {
+        return factor;
+    }
+
+    /**
+     * Converts hashrate in this unit to H/s.
+     *
+     * @param hashrate hashrate in this unit
+     * @return hashrate in H/s
+     */
+    public double toHashes(double hashrate) {
+        return hashrate * factor;
+    }
+
+}
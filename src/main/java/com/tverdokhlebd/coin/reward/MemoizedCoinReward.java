@@ -0,0 +1,74 @@
+package com.tverdokhlebd.coin.reward;
+
+import java.math.BigDecimal;
+
+/**
+ * Coin reward, which keeps derived rewards after the first deriving. Memoizing needs no locking like hash of string:
+ * derived rewards are immutable and every thread derives the same ones.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+class MemoizedCoinReward extends DerivedCoinReward {
+
+    /** Reward per hour, or null if it is not derived yet. */
+    private BigDecimal rewardPerHour;
+    /** Reward per week, or null if it is not derived yet. */
+    private BigDecimal rewardPerWeek;
+    /** Reward per month, or null if it is not derived yet. */
+    private BigDecimal rewardPerMonth;
+    /** Reward per year, or null if it is not derived yet. */
+    private BigDecimal rewardPerYear;
+
+    /**
+     * Creates instance.
+     *
+     * @param coinRewardCalculator coin reward calculator, which has calculated reward
+     * @param reportedHashrate reported hashrate in H/s
+     * @param rewardPerDay reward per day
+     */
+    MemoizedCoinReward(CoinRewardCalculator coinRewardCalculator, BigDecimal reportedHashrate, BigDecimal rewardPerDay) {
+        super(coinRewardCalculator, reportedHashrate, rewardPerDay);
+    }
+
+    @Override
+    public BigDecimal getRewardPerHour() {
+        BigDecimal reward = rewardPerHour;
+        if (reward == null) {
+            reward = super.getRewardPerHour();
+            rewardPerHour = reward;
+        }
+        return reward;
+    }
+
+    @Override
+    public BigDecimal getRewardPerWeek() {
+        BigDecimal reward = rewardPerWeek;
+        if (reward == null) {
+            reward = super.getRewardPerWeek();
+            rewardPerWeek = reward;
+        }
+        return reward;
+    }
+
+    @Override
+    public BigDecimal getRewardPerMonth() {
+        BigDecimal reward = rewardPerMonth;
+        if (reward == null) {
+            reward = super.getRewardPerMonth();
+            rewardPerMonth = reward;
+        }
+        return reward;
+    }
+
+    @Override
+    public BigDecimal getRewardPerYear() {
+        BigDecimal reward = rewardPerYear;
+        if (reward == null) {
+            reward = super.getRewardPerYear();
+            rewardPerYear = reward;
+        }
+        return reward;
+    }
+
+}
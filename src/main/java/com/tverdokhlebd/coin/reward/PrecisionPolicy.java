@@ -0,0 +1,134 @@
+package com.tverdokhlebd.coin.reward;
+
+import static java.math.RoundingMode.DOWN;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Precision of calculating coin rewards: fixed scale of rewards and math context of intermediate arithmetic.
+ *
+ * {@link #LEGACY} policy keeps exact products and truncates quotients to scale of dividend, so scales of rewards depend on
+ * scales of inputs. Other policies bound both precision of arithmetic and scale of rewards.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class PrecisionPolicy {
+
+    /** Policy, which keeps legacy arithmetic without bounds. */
+    public static final PrecisionPolicy LEGACY = new PrecisionPolicy(0, null);
+
+    /** Scale of rewards. */
+    private final int scale;
+    /** Math context of arithmetic, or null for legacy arithmetic. */
+    private final MathContext mathContext;
+
+    /**
+     * Creates instance.
+     *
+     * @param scale scale of rewards
+     * @param mathContext math context of arithmetic, its rounding mode is used for rounding to scale of rewards
+     */
+    public PrecisionPolicy(int scale, MathContext mathContext) {
+        super();
+        this.scale = scale;
+        this.mathContext = mathContext;
+    }
+
+    /**
+     * Gets scale of rewards.
+     *
+     * @return scale of rewards
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * Gets math context of arithmetic.
+     *
+     * @return math context of arithmetic, or null for legacy arithmetic
+     */
+    public MathContext getMathContext() {
+        return mathContext;
+    }
+
+    /**
+     * Checks if policy keeps legacy arithmetic.
+     *
+     * @return true, if policy keeps legacy arithmetic
+     */
+    public boolean isLegacy() {
+        return mathContext == null;
+    }
+
+    /**
+     * Multiplies values and rounds product to scale of rewards.
+     *
+     * @param multiplicand multiplicand
+     * @param multiplier multiplier
+     * @return product
+     */
+    public BigDecimal multiply(BigDecimal multiplicand, BigDecimal multiplier) {
+        if (mathContext == null) {
+            return multiplicand.multiply(multiplier);
+        }
+        return multiplicand.multiply(multiplier, mathContext).setScale(scale, mathContext.getRoundingMode());
+    }
+
+    /**
+     * Divides values and rounds quotient to scale of rewards.
+     *
+     * @param dividend dividend
+     * @param divisor divisor
+     * @return quotient
+     */
+    public BigDecimal divide(BigDecimal dividend, BigDecimal divisor) {
+        if (mathContext == null) {
+            return dividend.divide(divisor, DOWN);
+        }
+        return dividend.divide(divisor, mathContext).setScale(scale, mathContext.getRoundingMode());
+    }
+
+    /**
+     * Multiplies and divides values with one rounding to scale of rewards.
+     *
+     * @param multiplicand multiplicand
+     * @param multiplier multiplier
+     * @param divisor divisor
+     * @return quotient of product
+     */
+    public BigDecimal multiplyAndDivide(BigDecimal multiplicand, BigDecimal multiplier, BigDecimal divisor) {
+        if (mathContext == null) {
+            return multiplicand.multiply(multiplier).divide(divisor, DOWN);
+        }
+        return divide(multiplicand.multiply(multiplier, mathContext), divisor);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof PrecisionPolicy)) {
+            return false;
+        }
+        PrecisionPolicy other = (PrecisionPolicy) obj;
+        if (mathContext == null || other.mathContext == null) {
+            return mathContext == other.mathContext;
+        }
+        return scale == other.scale && mathContext.equals(other.mathContext);
+    }
+
+    @Override
+    public int hashCode() {
+        return mathContext == null ? 0 : 31 * scale + mathContext.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return mathContext == null ? "LEGACY" : "scale=" + scale + " " + mathContext;
+    }
+
+}
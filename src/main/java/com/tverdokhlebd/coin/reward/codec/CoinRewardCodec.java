@@ -0,0 +1,512 @@
+package com.tverdokhlebd.coin.reward.codec;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import com.tverdokhlebd.coin.reward.CalculatorVersion;
+import com.tverdokhlebd.coin.reward.CoinReward;
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.coin.reward.PrecisionPolicy;
+import com.tverdokhlebd.mining.commons.coin.CoinType;
+
+/**
+ * Compact binary codec of coin rewards and coin reward calculators.
+ *
+ * Every decimal is written as tag byte, zigzag varint scale and zigzag varint unscaled value. Unscaled values, which do
+ * not fit into long, are written as length-prefixed two's-complement bytes. Type of coin is written as length-prefixed
+ * ASCII name, so written data stays valid if coins are reordered or added to {@link CoinType}, precision policy of
+ * calculator as tag, scale, digits and rounding mode, version of calculator as tag, zigzag varint timestamp and fixed-width
+ * long hash. Batch is varint count of frames, every frame is fixed-width int length and record, so frames can
+ * be sliced out of batch without decoding and copying, see {@link #readFrames(ByteBuffer)}.
+ *
+ * Buffers are read and written from their current position, both heap and direct buffers are supported. Writing into
+ * buffer without enough space throws {@link java.nio.BufferOverflowException}, reading of truncated data throws
+ * {@link java.nio.BufferUnderflowException}.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class CoinRewardCodec {
+
+    /** Tag of absent value. */
+    private static final byte NULL_TAG = 0;
+    /** Tag of decimal with unscaled value in long. */
+    private static final byte LONG_TAG = 1;
+    /** Tag of decimal with unscaled value in bytes. */
+    private static final byte BIG_TAG = 2;
+    /** Tag of present value. */
+    private static final byte PRESENT_TAG = 1;
+    /** Names of types of coin in ASCII by ordinal of type of coin. */
+    private static final byte[][] COIN_TYPE_NAMES = createCoinTypeNames();
+    /** Rounding modes. */
+    private static final RoundingMode[] ROUNDING_MODES = RoundingMode.values();
+    /** Bit length of unscaled value, which fits into long. */
+    private static final int LONG_BIT_LENGTH = 63;
+
+    /**
+     * Writes coin reward.
+     *
+     * @param buffer buffer for writing
+     * @param coinReward coin reward
+     */
+    public static void writeCoinReward(ByteBuffer buffer, CoinReward coinReward) {
+        writeCoinType(buffer, coinReward.getCoinType());
+        writeDecimal(buffer, coinReward.getReportedHashrate());
+        writeDecimal(buffer, coinReward.getRewardPerHour());
+        writeDecimal(buffer, coinReward.getRewardPerDay());
+        writeDecimal(buffer, coinReward.getRewardPerWeek());
+        writeDecimal(buffer, coinReward.getRewardPerMonth());
+        writeDecimal(buffer, coinReward.getRewardPerYear());
+        writeCalculatorVersion(buffer, coinReward.getCalculatorVersion());
+    }
+
+    /**
+     * Reads coin reward.
+     *
+     * @param buffer buffer for reading
+     * @return coin reward
+     */
+    public static CoinReward readCoinReward(ByteBuffer buffer) {
+        CoinReward.Builder builder = new CoinReward.Builder();
+        builder.setCoinType(readCoinType(buffer))
+               .setReportedHashrate(readDecimal(buffer))
+               .setRewardPerHour(readDecimal(buffer))
+               .setRewardPerDay(readDecimal(buffer))
+               .setRewardPerWeek(readDecimal(buffer))
+               .setRewardPerMonth(readDecimal(buffer))
+               .setRewardPerYear(readDecimal(buffer))
+               .setCalculatorVersion(readCalculatorVersion(buffer));
+        return builder.build();
+    }
+
+    /**
+     * Writes coin reward calculator.
+     *
+     * @param buffer buffer for writing
+     * @param coinRewardCalculator coin reward calculator
+     */
+    public static void writeCoinRewardCalculator(ByteBuffer buffer, CoinRewardCalculator coinRewardCalculator) {
+        writeCoinType(buffer, coinRewardCalculator.getCoinType());
+        writeDecimal(buffer, coinRewardCalculator.getBaseHashrate());
+        writeDecimal(buffer, coinRewardCalculator.getBaseRewardPerDay());
+        writeDate(buffer, coinRewardCalculator.getLastUpdated());
+        writeDecimal(buffer, coinRewardCalculator.getDifficulty());
+        writeDecimal(buffer, coinRewardCalculator.getWeekAverageDifficulty());
+        writeDecimal(buffer, coinRewardCalculator.getNetworkHashrate());
+        writeDecimal(buffer, coinRewardCalculator.getBlockReward());
+        writeDecimal(buffer, coinRewardCalculator.getBlockTime());
+        writePrecisionPolicy(buffer, coinRewardCalculator.getPrecisionPolicy());
+    }
+
+    /**
+     * Reads coin reward calculator.
+     *
+     * @param buffer buffer for reading
+     * @return coin reward calculator
+     */
+    public static CoinRewardCalculator readCoinRewardCalculator(ByteBuffer buffer) {
+        CoinRewardCalculator.Builder builder = new CoinRewardCalculator.Builder();
+        builder.setCoinType(readCoinType(buffer))
+               .setBaseHashrate(readDecimal(buffer))
+               .setBaseRewardPerDay(readDecimal(buffer))
+               .setLastUpdated(readDate(buffer))
+               .setDifficulty(readDecimal(buffer))
+               .setWeekAverageDifficulty(readDecimal(buffer))
+               .setNetworkHashrate(readDecimal(buffer))
+               .setBlockReward(readDecimal(buffer))
+               .setBlockTime(readDecimal(buffer))
+               .setPrecisionPolicy(readPrecisionPolicy(buffer));
+        return builder.build();
+    }
+
+    /**
+     * Writes batch of coin rewards.
+     *
+     * @param buffer buffer for writing
+     * @param coinRewardList list of coin rewards
+     */
+    public static void writeCoinRewards(ByteBuffer buffer, List<CoinReward> coinRewardList) {
+        writeBatch(buffer, coinRewardList, CoinRewardCodec::writeCoinReward);
+    }
+
+    /**
+     * Reads batch of coin rewards.
+     *
+     * @param buffer buffer for reading
+     * @return list of coin rewards
+     */
+    public static List<CoinReward> readCoinRewards(ByteBuffer buffer) {
+        return readBatch(buffer, CoinRewardCodec::readCoinReward);
+    }
+
+    /**
+     * Writes batch of coin reward calculators.
+     *
+     * @param buffer buffer for writing
+     * @param coinRewardCalculatorList list of coin reward calculators
+     */
+    public static void writeCoinRewardCalculators(ByteBuffer buffer, List<CoinRewardCalculator> coinRewardCalculatorList) {
+        writeBatch(buffer, coinRewardCalculatorList, CoinRewardCodec::writeCoinRewardCalculator);
+    }
+
+    /**
+     * Reads batch of coin reward calculators.
+     *
+     * @param buffer buffer for reading
+     * @return list of coin reward calculators
+     */
+    public static List<CoinRewardCalculator> readCoinRewardCalculators(ByteBuffer buffer) {
+        return readBatch(buffer, CoinRewardCodec::readCoinRewardCalculator);
+    }
+
+    /**
+     * Reads frames of batch without copying. Every frame is read-only view of record in batch, which can be decoded
+     * later or forwarded as is.
+     *
+     * @param buffer buffer for reading
+     * @return list of frames
+     */
+    public static List<ByteBuffer> readFrames(ByteBuffer buffer) {
+        int count = readCount(buffer);
+        List<ByteBuffer> frameList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = buffer.getInt();
+            ByteBuffer frame = buffer.asReadOnlyBuffer();
+            frame.limit(frame.position() + length);
+            frameList.add(frame.slice());
+            buffer.position(buffer.position() + length);
+        }
+        return frameList;
+    }
+
+    /**
+     * Writes batch of records.
+     *
+     * @param buffer buffer for writing
+     * @param recordList list of records
+     * @param recordWriter writer of record
+     */
+    private static <T> void writeBatch(ByteBuffer buffer, List<T> recordList, BiConsumer<ByteBuffer, T> recordWriter) {
+        writeVarint(buffer, recordList.size());
+        for (T record : recordList) {
+            int lengthPosition = buffer.position();
+            buffer.putInt(0);
+            recordWriter.accept(buffer, record);
+            buffer.putInt(lengthPosition, buffer.position() - lengthPosition - Integer.BYTES);
+        }
+    }
+
+    /**
+     * Reads batch of records.
+     *
+     * @param buffer buffer for reading
+     * @param recordReader reader of record
+     * @return list of records
+     */
+    private static <T> List<T> readBatch(ByteBuffer buffer, Function<ByteBuffer, T> recordReader) {
+        int count = readCount(buffer);
+        List<T> recordList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int length = buffer.getInt();
+            int end = buffer.position() + length;
+            recordList.add(recordReader.apply(buffer));
+            if (buffer.position() != end) {
+                throw new IllegalArgumentException("Frame " + i + " has wrong length " + length);
+            }
+        }
+        return recordList;
+    }
+
+    /**
+     * Reads count of frames of batch.
+     *
+     * @param buffer buffer for reading
+     * @return count of frames
+     */
+    private static int readCount(ByteBuffer buffer) {
+        long count = readVarint(buffer);
+        if (count > buffer.remaining() / Integer.BYTES) {
+            throw new IllegalArgumentException("Batch is truncated, count of frames is " + count);
+        }
+        return (int) count;
+    }
+
+    /**
+     * Writes type of coin.
+     *
+     * @param buffer buffer for writing
+     * @param coinType type of coin, or null
+     */
+    private static void writeCoinType(ByteBuffer buffer, CoinType coinType) {
+        if (coinType == null) {
+            buffer.put(NULL_TAG);
+            return;
+        }
+        byte[] name = COIN_TYPE_NAMES[coinType.ordinal()];
+        writeVarint(buffer, name.length);
+        buffer.put(name);
+    }
+
+    /**
+     * Reads type of coin.
+     *
+     * @param buffer buffer for reading
+     * @return type of coin, or null
+     */
+    private static CoinType readCoinType(ByteBuffer buffer) {
+        long length = readVarint(buffer);
+        if (length == 0) {
+            return null;
+        }
+        if (length > buffer.remaining()) {
+            throw new IllegalArgumentException("Coin type is truncated, length is " + length);
+        }
+        byte[] name = new byte[(int) length];
+        buffer.get(name);
+        String coinTypeName = new String(name, US_ASCII);
+        try {
+            return CoinType.valueOf(coinTypeName);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown coin type " + coinTypeName, e);
+        }
+    }
+
+    /**
+     * Creates names of types of coin in ASCII.
+     *
+     * @return names by ordinal of type of coin
+     */
+    private static byte[][] createCoinTypeNames() {
+        CoinType[] coinTypes = CoinType.values();
+        byte[][] coinTypeNames = new byte[coinTypes.length][];
+        for (CoinType coinType : coinTypes) {
+            coinTypeNames[coinType.ordinal()] = coinType.name().getBytes(US_ASCII);
+        }
+        return coinTypeNames;
+    }
+
+    /**
+     * Writes date.
+     *
+     * @param buffer buffer for writing
+     * @param date date, or null
+     */
+    private static void writeDate(ByteBuffer buffer, Date date) {
+        if (date == null) {
+            buffer.put(NULL_TAG);
+            return;
+        }
+        buffer.put(PRESENT_TAG);
+        writeVarint(buffer, zigzag(date.getTime()));
+    }
+
+    /**
+     * Reads date.
+     *
+     * @param buffer buffer for reading
+     * @return date, or null
+     */
+    private static Date readDate(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        if (tag == NULL_TAG) {
+            return null;
+        }
+        if (tag != PRESENT_TAG) {
+            throw new IllegalArgumentException("Unknown date tag " + tag);
+        }
+        return new Date(unzigzag(readVarint(buffer)));
+    }
+
+    /**
+     * Writes version of calculator.
+     *
+     * @param buffer buffer for writing
+     * @param calculatorVersion version of calculator, or null
+     */
+    private static void writeCalculatorVersion(ByteBuffer buffer, CalculatorVersion calculatorVersion) {
+        if (calculatorVersion == null) {
+            buffer.put(NULL_TAG);
+            return;
+        }
+        buffer.put(PRESENT_TAG);
+        writeVarint(buffer, zigzag(calculatorVersion.getTimestamp()));
+        buffer.putLong(calculatorVersion.getContentHash());
+    }
+
+    /**
+     * Reads version of calculator.
+     *
+     * @param buffer buffer for reading
+     * @return version of calculator, or null
+     */
+    private static CalculatorVersion readCalculatorVersion(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        if (tag == NULL_TAG) {
+            return null;
+        }
+        if (tag != PRESENT_TAG) {
+            throw new IllegalArgumentException("Unknown version tag " + tag);
+        }
+        long timestamp = unzigzag(readVarint(buffer));
+        return new CalculatorVersion(timestamp, buffer.getLong());
+    }
+
+    /**
+     * Writes precision policy.
+     *
+     * @param buffer buffer for writing
+     * @param precisionPolicy precision policy
+     */
+    private static void writePrecisionPolicy(ByteBuffer buffer, PrecisionPolicy precisionPolicy) {
+        if (precisionPolicy.isLegacy()) {
+            buffer.put(NULL_TAG);
+            return;
+        }
+        MathContext mathContext = precisionPolicy.getMathContext();
+        buffer.put(PRESENT_TAG);
+        writeVarint(buffer, zigzag(precisionPolicy.getScale()));
+        writeVarint(buffer, mathContext.getPrecision());
+        buffer.put((byte) mathContext.getRoundingMode().ordinal());
+    }
+
+    /**
+     * Reads precision policy.
+     *
+     * @param buffer buffer for reading
+     * @return precision policy
+     */
+    private static PrecisionPolicy readPrecisionPolicy(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        if (tag == NULL_TAG) {
+            return PrecisionPolicy.LEGACY;
+        }
+        if (tag != PRESENT_TAG) {
+            throw new IllegalArgumentException("Unknown precision policy tag " + tag);
+        }
+        int scale = (int) unzigzag(readVarint(buffer));
+        int precision = (int) readVarint(buffer);
+        int roundingMode = buffer.get();
+        if (roundingMode < 0 || roundingMode >= ROUNDING_MODES.length) {
+            throw new IllegalArgumentException("Unknown rounding mode " + roundingMode);
+        }
+        return new PrecisionPolicy(scale, new MathContext(precision, ROUNDING_MODES[roundingMode]));
+    }
+
+    /**
+     * Writes decimal.
+     *
+     * @param buffer buffer for writing
+     * @param decimal decimal, or null
+     */
+    private static void writeDecimal(ByteBuffer buffer, BigDecimal decimal) {
+        if (decimal == null) {
+            buffer.put(NULL_TAG);
+            return;
+        }
+        BigInteger unscaledValue = decimal.unscaledValue();
+        if (unscaledValue.bitLength() <= LONG_BIT_LENGTH) {
+            buffer.put(LONG_TAG);
+            writeVarint(buffer, zigzag(decimal.scale()));
+            writeVarint(buffer, zigzag(unscaledValue.longValue()));
+        } else {
+            byte[] bytes = unscaledValue.toByteArray();
+            buffer.put(BIG_TAG);
+            writeVarint(buffer, zigzag(decimal.scale()));
+            writeVarint(buffer, bytes.length);
+            buffer.put(bytes);
+        }
+    }
+
+    /**
+     * Reads decimal.
+     *
+     * @param buffer buffer for reading
+     * @return decimal, or null
+     */
+    private static BigDecimal readDecimal(ByteBuffer buffer) {
+        byte tag = buffer.get();
+        switch (tag) {
+        case NULL_TAG:
+            return null;
+        case LONG_TAG: {
+            int scale = (int) unzigzag(readVarint(buffer));
+            return BigDecimal.valueOf(unzigzag(readVarint(buffer)), scale);
+        }
+        case BIG_TAG: {
+            int scale = (int) unzigzag(readVarint(buffer));
+            long length = readVarint(buffer);
+            if (length > buffer.remaining()) {
+                throw new IllegalArgumentException("Decimal is truncated, length is " + length);
+            }
+            byte[] bytes = new byte[(int) length];
+            buffer.get(bytes);
+            return new BigDecimal(new BigInteger(bytes), scale);
+        }
+        default:
+            throw new IllegalArgumentException("Unknown decimal tag " + tag);
+        }
+    }
+
+    /**
+     * Writes unsigned varint.
+     *
+     * @param buffer buffer for writing
+     * @param value unsigned value
+     */
+    private static void writeVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /**
+     * Reads unsigned varint.
+     *
+     * @param buffer buffer for reading
+     * @return unsigned value
+     */
+    private static long readVarint(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint is too long");
+    }
+
+    /**
+     * Encodes signed value, so small negative values have short varint.
+     *
+     * @param value signed value
+     * @return unsigned value
+     */
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Decodes signed value encoded by {@link #zigzag(long)}.
+     *
+     * @param value unsigned value
+     * @return signed value
+     */
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
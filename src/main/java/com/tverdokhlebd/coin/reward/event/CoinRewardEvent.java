@@ -0,0 +1,121 @@
+package com.tverdokhlebd.coin.reward.event;
+
+import static java.math.RoundingMode.HALF_UP;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.mining.commons.coin.CoinType;
+
+/**
+ * Event of replacing cached coin reward calculator.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class CoinRewardEvent {
+
+    /** Scale of percentage delta. */
+    private static final int DELTA_PERCENT_SCALE = 4;
+    /** One hundred percents. */
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+    /** Type of coin. */
+    private final CoinType coinType;
+    /** Old base reward per day. */
+    private final BigDecimal oldBaseRewardPerDay;
+    /** New base reward per day. */
+    private final BigDecimal newBaseRewardPerDay;
+    /** Percentage delta between old and new base reward per day. */
+    private final BigDecimal deltaPercent;
+    /** New coin reward calculator. */
+    private final CoinRewardCalculator coinRewardCalculator;
+    /** Timestamp of replacing. */
+    private final Date timestamp;
+
+    /**
+     * Creates instance.
+     *
+     * @param oldCoinRewardCalculator old coin reward calculator, or null if there was no cached calculator
+     * @param newCoinRewardCalculator new coin reward calculator
+     * @param timestamp timestamp of replacing
+     */
+    public CoinRewardEvent(CoinRewardCalculator oldCoinRewardCalculator, CoinRewardCalculator newCoinRewardCalculator, Date timestamp) {
+        super();
+        this.coinType = newCoinRewardCalculator.getCoinType();
+        this.oldBaseRewardPerDay = oldCoinRewardCalculator == null ? null : oldCoinRewardCalculator.getBaseRewardPerDay();
+        this.newBaseRewardPerDay = newCoinRewardCalculator.getBaseRewardPerDay();
+        this.deltaPercent = calculateDeltaPercent(oldBaseRewardPerDay, newBaseRewardPerDay);
+        this.coinRewardCalculator = newCoinRewardCalculator;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * Gets coin type.
+     *
+     * @return coin type
+     */
+    public CoinType getCoinType() {
+        return coinType;
+    }
+
+    /**
+     * Gets old base reward per day.
+     *
+     * @return old base reward per day, or null if there was no cached calculator
+     */
+    public BigDecimal getOldBaseRewardPerDay() {
+        return oldBaseRewardPerDay;
+    }
+
+    /**
+     * Gets new base reward per day.
+     *
+     * @return new base reward per day
+     */
+    public BigDecimal getNewBaseRewardPerDay() {
+        return newBaseRewardPerDay;
+    }
+
+    /**
+     * Gets percentage delta between old and new base reward per day.
+     *
+     * @return percentage delta, or null if old base reward per day is absent or zero
+     */
+    public BigDecimal getDeltaPercent() {
+        return deltaPercent;
+    }
+
+    /**
+     * Gets new coin reward calculator.
+     *
+     * @return new coin reward calculator
+     */
+    public CoinRewardCalculator getCoinRewardCalculator() {
+        return coinRewardCalculator;
+    }
+
+    /**
+     * Gets timestamp of replacing.
+     *
+     * @return timestamp of replacing
+     */
+    public Date getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Calculates percentage delta.
+     *
+     * @param oldValue old value
+     * @param newValue new value
+     * @return percentage delta, or null if old value is absent or zero
+     */
+    private static BigDecimal calculateDeltaPercent(BigDecimal oldValue, BigDecimal newValue) {
+        if (oldValue == null || oldValue.signum() == 0) {
+            return null;
+        }
+        return newValue.subtract(oldValue).multiply(ONE_HUNDRED).divide(oldValue, DELTA_PERCENT_SCALE, HALF_UP);
+    }
+
+}
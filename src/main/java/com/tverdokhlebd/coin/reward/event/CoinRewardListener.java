@@ -0,0 +1,19 @@
+package com.tverdokhlebd.coin.reward.event;
+
+/**
+ * Interface for listening coin reward events.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+@FunctionalInterface
+public interface CoinRewardListener {
+
+    /**
+     * Handles replacing of cached coin reward calculator.
+     *
+     * @param coinRewardEvent coin reward event
+     */
+    void onCoinRewardChanged(CoinRewardEvent coinRewardEvent);
+
+}
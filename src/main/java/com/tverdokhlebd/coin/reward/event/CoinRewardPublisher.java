@@ -0,0 +1,97 @@
+package com.tverdokhlebd.coin.reward.event;
+
+import java.util.Date;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+
+/**
+ * Publisher of coin reward events.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class CoinRewardPublisher {
+
+    /** Default capacity of subscription buffer. */
+    public static final int DEFAULT_BUFFER_SIZE = 16;
+    /** Default executor for delivering events. */
+    private static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "coin-reward-events");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /** Executor for delivering events. */
+    private final Executor executor;
+    /** List of subscriptions. */
+    private final CopyOnWriteArrayList<CoinRewardSubscription> subscriptionList = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates instance.
+     */
+    public CoinRewardPublisher() {
+        this(DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Creates instance.
+     *
+     * @param executor executor for delivering events
+     */
+    public CoinRewardPublisher(Executor executor) {
+        super();
+        this.executor = executor;
+    }
+
+    /**
+     * Subscribes listener with default buffer size.
+     *
+     * @param coinRewardListener listener of events
+     * @return subscription
+     */
+    public CoinRewardSubscription subscribe(CoinRewardListener coinRewardListener) {
+        return subscribe(coinRewardListener, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Subscribes listener.
+     *
+     * @param coinRewardListener listener of events
+     * @param bufferSize capacity of subscription buffer
+     * @return subscription
+     */
+    public CoinRewardSubscription subscribe(CoinRewardListener coinRewardListener, int bufferSize) {
+        CoinRewardSubscription subscription = new CoinRewardSubscription(this, coinRewardListener, executor, bufferSize);
+        subscriptionList.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Publishes event of replacing coin reward calculator to all subscribers. Never blocks on subscribers.
+     *
+     * @param oldCoinRewardCalculator old coin reward calculator, or null if there was no cached calculator
+     * @param newCoinRewardCalculator new coin reward calculator
+     */
+    public void publish(CoinRewardCalculator oldCoinRewardCalculator, CoinRewardCalculator newCoinRewardCalculator) {
+        if (subscriptionList.isEmpty()) {
+            return;
+        }
+        CoinRewardEvent coinRewardEvent = new CoinRewardEvent(oldCoinRewardCalculator, newCoinRewardCalculator, new Date());
+        for (CoinRewardSubscription subscription : subscriptionList) {
+            subscription.offer(coinRewardEvent);
+        }
+    }
+
+    /**
+     * Removes subscription.
+     *
+     * @param subscription subscription
+     */
+    void unsubscribe(CoinRewardSubscription subscription) {
+        subscriptionList.remove(subscription);
+    }
+
+}
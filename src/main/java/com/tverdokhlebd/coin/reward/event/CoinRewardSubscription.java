@@ -0,0 +1,150 @@
+package com.tverdokhlebd.coin.reward.event;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Subscription of listener to coin reward events.
+ *
+ * Events are kept in a bounded buffer and delivered on executor of publisher. If listener does not keep up, the oldest
+ * buffered event is dropped, so publishing never waits for listener.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class CoinRewardSubscription {
+
+    /** Publisher of events. */
+    private final CoinRewardPublisher coinRewardPublisher;
+    /** Listener of events. */
+    private final CoinRewardListener coinRewardListener;
+    /** Executor for delivering events. */
+    private final Executor executor;
+    /** Capacity of buffer. */
+    private final int bufferSize;
+    /** Buffer of undelivered events. */
+    private final ArrayDeque<CoinRewardEvent> buffer;
+    /** Count of dropped events. */
+    private final AtomicLong droppedCount = new AtomicLong();
+    /** Count of deliveries rejected by executor. */
+    private final AtomicLong rejectedCount = new AtomicLong();
+    /** Flag of scheduled delivery. */
+    private boolean deliveryScheduled;
+    /** Flag of cancelled subscription. */
+    private volatile boolean cancelled;
+
+    /**
+     * Creates instance.
+     *
+     * @param coinRewardPublisher publisher of events
+     * @param coinRewardListener listener of events
+     * @param executor executor for delivering events
+     * @param bufferSize capacity of buffer
+     */
+    CoinRewardSubscription(CoinRewardPublisher coinRewardPublisher, CoinRewardListener coinRewardListener, Executor executor,
+            int bufferSize) {
+        super();
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        this.coinRewardPublisher = coinRewardPublisher;
+        this.coinRewardListener = coinRewardListener;
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.buffer = new ArrayDeque<>(bufferSize);
+    }
+
+    /**
+     * Cancels subscription. Buffered events are discarded.
+     */
+    public void cancel() {
+        cancelled = true;
+        coinRewardPublisher.unsubscribe(this);
+        synchronized (buffer) {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Checks if subscription is cancelled.
+     *
+     * @return true, if subscription is cancelled
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Gets count of events dropped because of buffer overflow.
+     *
+     * @return count of dropped events
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Gets count of deliveries rejected by executor. Events of rejected delivery stay buffered and are delivered with the
+     * next event.
+     *
+     * @return count of rejected deliveries
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * Offers event to buffer, dropping the oldest one if buffer is full.
+     *
+     * @param coinRewardEvent coin reward event
+     */
+    void offer(CoinRewardEvent coinRewardEvent) {
+        if (cancelled) {
+            return;
+        }
+        boolean scheduleDelivery;
+        synchronized (buffer) {
+            if (buffer.size() == bufferSize) {
+                buffer.pollFirst();
+                droppedCount.incrementAndGet();
+            }
+            buffer.addLast(coinRewardEvent);
+            scheduleDelivery = !deliveryScheduled;
+            deliveryScheduled = true;
+        }
+        if (scheduleDelivery) {
+            try {
+                executor.execute(this::deliver);
+            } catch (RuntimeException e) {
+                // E.g. executor is shut down or saturated, next event schedules delivery again
+                synchronized (buffer) {
+                    deliveryScheduled = false;
+                }
+                rejectedCount.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Delivers buffered events to listener.
+     */
+    private void deliver() {
+        while (true) {
+            CoinRewardEvent coinRewardEvent;
+            synchronized (buffer) {
+                coinRewardEvent = buffer.pollFirst();
+                if (coinRewardEvent == null || cancelled) {
+                    deliveryScheduled = false;
+                    return;
+                }
+            }
+            try {
+                coinRewardListener.onCoinRewardChanged(coinRewardEvent);
+            } catch (RuntimeException e) {
+                // Failure of one listener must not break delivery of next events
+            }
+        }
+    }
+
+}
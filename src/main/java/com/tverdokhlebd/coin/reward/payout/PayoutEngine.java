@@ -0,0 +1,162 @@
+package com.tverdokhlebd.coin.reward.payout;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.coin.reward.HashrateUnit;
+
+/**
+ * Engine of expected payouts of pool workers for a period of continuous mining.
+ *
+ * Expected payout of every scheme is proportional to hashrate of worker, so payout of the whole pool is one factor per
+ * hash, see {@link #getPayoutPerHash(CoinRewardCalculator, double, double)}, applied to primitive array of hashrates of
+ * workers. The factor is gross reward of calculator, reduced by fee of pool, increased by transaction fees for
+ * {@link PayoutScheme#FPPS} and {@link PayoutScheme#PPLNS}.
+ *
+ * {@link PayoutScheme#PPLNS} is modelled from cold start by default: worker starts mining at the beginning of period and
+ * only payouts of blocks found within period are counted. Worker, which has mined for time t, owns {@code min(t, W) / W}
+ * of its full share of block found at that moment, where W is duration of window, so the factor is reduced by filling of
+ * window: {@code 1 - W / (2 * T)} for period T not shorter than window, {@code T / (2 * W)} for shorter one. Payouts of
+ * blocks found after period for shares of its last window are not counted, so short periods look worse than
+ * {@link PayoutScheme#PPS}, e.g. twice worse for period equal to window. In steady state, see
+ * {@link PoolParameters#isSteadyState()}, worker has mined before period and continues after it, so window is always full
+ * and the factor is 1.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class PayoutEngine {
+
+    /** Count of workers processed by one parallel task. */
+    private static final int CHUNK_SIZE = 1 << 16;
+    /** Seconds in day. */
+    private static final double SECONDS_IN_DAY = 24 * 60 * 60;
+    /** Parameters of pool. */
+    private final PoolParameters poolParameters;
+
+    /**
+     * Creates instance.
+     *
+     * @param poolParameters parameters of pool
+     */
+    public PayoutEngine(PoolParameters poolParameters) {
+        super();
+        this.poolParameters = poolParameters;
+    }
+
+    /**
+     * Gets parameters of pool.
+     *
+     * @return parameters of pool
+     */
+    public PoolParameters getPoolParameters() {
+        return poolParameters;
+    }
+
+    /**
+     * Calculates expected payouts of workers, whose total hashrate is hashrate of pool.
+     *
+     * @param coinRewardCalculator cached coin reward calculator, it must have network hashrate and block time for
+     *        {@link PayoutScheme#PPLNS}
+     * @param workerHashrates hashrates of workers in H/s
+     * @param days period of mining in days
+     * @param payouts array of at least length of hashrates for expected payouts
+     */
+    public void calculatePayouts(CoinRewardCalculator coinRewardCalculator, double[] workerHashrates, double days, double[] payouts) {
+        double poolHashrate = poolParameters.getPayoutScheme() == PayoutScheme.PPLNS ? Arrays.stream(workerHashrates).sum() : 0;
+        multiply(workerHashrates, getPayoutPerHash(coinRewardCalculator, poolHashrate, days), payouts, 0, workerHashrates.length);
+    }
+
+    /**
+     * Calculates expected payouts of workers, whose total hashrate is hashrate of pool, splitting array into chunks,
+     * which are processed in parallel.
+     *
+     * @param coinRewardCalculator cached coin reward calculator, it must have network hashrate and block time for
+     *        {@link PayoutScheme#PPLNS}
+     * @param workerHashrates hashrates of workers in H/s
+     * @param days period of mining in days
+     * @param payouts array of at least length of hashrates for expected payouts
+     */
+    public void calculatePayoutsInParallel(CoinRewardCalculator coinRewardCalculator, double[] workerHashrates, double days,
+            double[] payouts) {
+        double poolHashrate =
+                poolParameters.getPayoutScheme() == PayoutScheme.PPLNS ? Arrays.stream(workerHashrates).parallel().sum() : 0;
+        double payoutPerHash = getPayoutPerHash(coinRewardCalculator, poolHashrate, days);
+        int length = workerHashrates.length;
+        IntStream.range(0, (length + CHUNK_SIZE - 1) / CHUNK_SIZE).parallel().forEach(chunk -> {
+            int from = chunk * CHUNK_SIZE;
+            multiply(workerHashrates, payoutPerHash, payouts, from, Math.min(from + CHUNK_SIZE, length));
+        });
+    }
+
+    /**
+     * Gets expected payout of one H/s for period of mining.
+     *
+     * @param coinRewardCalculator coin reward calculator, it must have network hashrate and block time for
+     *        {@link PayoutScheme#PPLNS}
+     * @param poolHashrate hashrate of pool in H/s, it is used only by {@link PayoutScheme#PPLNS} from cold start
+     * @param days period of mining in days
+     * @return expected payout per H/s
+     */
+    public double getPayoutPerHash(CoinRewardCalculator coinRewardCalculator, double poolHashrate, double days) {
+        if (coinRewardCalculator.getBaseHashrate() == null || coinRewardCalculator.getBaseRewardPerDay() == null) {
+            throw new IllegalArgumentException("Base values of " + coinRewardCalculator.getCoinType().name() + " are unknown");
+        }
+        if (!(days > 0)) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        double payoutPerHash = coinRewardCalculator.calculateRewardPerDay(1, HashrateUnit.H_S) * days * (1 - poolParameters.getFee());
+        switch (poolParameters.getPayoutScheme()) {
+        case PPS:
+            return payoutPerHash;
+        case FPPS:
+            return payoutPerHash * (1 + poolParameters.getTransactionFeeShare());
+        case PPLNS:
+            if (poolParameters.isSteadyState()) {
+                return payoutPerHash * (1 + poolParameters.getTransactionFeeShare());
+            }
+            double windowDays = getWindowDays(coinRewardCalculator, poolHashrate);
+            double windowFactor = days >= windowDays ? 1 - windowDays / (2 * days) : days / (2 * windowDays);
+            return payoutPerHash * (1 + poolParameters.getTransactionFeeShare()) * windowFactor;
+        default:
+            throw new IllegalStateException("Unknown payout scheme " + poolParameters.getPayoutScheme());
+        }
+    }
+
+    /**
+     * Gets duration of share window of PPLNS.
+     *
+     * @param coinRewardCalculator coin reward calculator
+     * @param poolHashrate hashrate of pool in H/s
+     * @return duration of share window in days
+     */
+    private double getWindowDays(CoinRewardCalculator coinRewardCalculator, double poolHashrate) {
+        if (coinRewardCalculator.getNetworkHashrate() == null || coinRewardCalculator.getBlockTime() == null) {
+            throw new IllegalArgumentException("Network hashrate and block time of " + coinRewardCalculator.getCoinType().name()
+                    + " are unknown");
+        }
+        if (!(poolHashrate > 0)) {
+            throw new IllegalArgumentException("Hashrate of pool must be positive");
+        }
+        double poolBlockTime = coinRewardCalculator.getBlockTime().doubleValue() * coinRewardCalculator.getNetworkHashrate().doubleValue()
+                / poolHashrate;
+        return poolParameters.getShareWindow() * poolBlockTime / SECONDS_IN_DAY;
+    }
+
+    /**
+     * Multiplies range of hashrates by payout per hash.
+     *
+     * @param workerHashrates hashrates of workers in H/s
+     * @param payoutPerHash expected payout per H/s
+     * @param payouts array for expected payouts
+     * @param from the first index of range, inclusive
+     * @param to the last index of range, exclusive
+     */
+    private static void multiply(double[] workerHashrates, double payoutPerHash, double[] payouts, int from, int to) {
+        for (int i = from; i < to; i++) {
+            payouts[i] = workerHashrates[i] * payoutPerHash;
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.tverdokhlebd.coin.reward.payout;
+
+/**
+ * Payout schemes of mining pools.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public enum PayoutScheme {
+
+    /** Pay per share: pool pays expected block reward of every share, without transaction fees. */
+    PPS,
+    /** Pay per last N shares: every found block is split among shares of window, which precede it. */
+    PPLNS,
+    /** Full pay per share: pool pays expected block reward and expected transaction fees of every share. */
+    FPPS
+
+}
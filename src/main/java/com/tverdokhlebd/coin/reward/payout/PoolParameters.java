@@ -0,0 +1,204 @@
+package com.tverdokhlebd.coin.reward.payout;
+
+/**
+ * Parameters of mining pool.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class PoolParameters {
+
+    /** Payout scheme. */
+    private final PayoutScheme payoutScheme;
+    /** Fee of pool. */
+    private final double fee;
+    /** Share window of PPLNS in multiples of shares per block of pool. */
+    private final double shareWindow;
+    /** Average transaction fees per block relative to block reward. */
+    private final double transactionFeeShare;
+    /** Flag of modelling PPLNS in steady state instead of cold start. */
+    private final boolean steadyState;
+
+    /**
+     * Creates instance.
+     *
+     * @param payoutScheme payout scheme
+     * @param fee fee of pool, e.g. 0.01 for 1%
+     * @param shareWindow share window of PPLNS in multiples of shares per block of pool, e.g. 2 for N = 2 * difficulty
+     * @param transactionFeeShare average transaction fees per block relative to block reward, e.g. 0.05 for 5%
+     */
+    public PoolParameters(PayoutScheme payoutScheme, double fee, double shareWindow, double transactionFeeShare) {
+        this(new Builder().setPayoutScheme(payoutScheme)
+                          .setFee(fee)
+                          .setShareWindow(shareWindow)
+                          .setTransactionFeeShare(transactionFeeShare));
+    }
+
+    /**
+     * Creates instance.
+     *
+     * @param builder builder of pool parameters
+     */
+    private PoolParameters(Builder builder) {
+        super();
+        PayoutScheme payoutScheme = builder.payoutScheme;
+        double fee = builder.fee;
+        double shareWindow = builder.shareWindow;
+        double transactionFeeShare = builder.transactionFeeShare;
+        if (payoutScheme == null) {
+            throw new IllegalArgumentException("Payout scheme must be set");
+        }
+        if (!(fee >= 0 && fee < 1)) {
+            throw new IllegalArgumentException("Fee must be in range [0, 1)");
+        }
+        if (payoutScheme == PayoutScheme.PPLNS && !(shareWindow > 0)) {
+            throw new IllegalArgumentException("Share window of PPLNS must be positive");
+        }
+        if (!(transactionFeeShare >= 0)) {
+            throw new IllegalArgumentException("Share of transaction fees must be non-negative");
+        }
+        this.payoutScheme = payoutScheme;
+        this.fee = fee;
+        this.shareWindow = shareWindow;
+        this.transactionFeeShare = transactionFeeShare;
+        this.steadyState = builder.steadyState;
+    }
+
+    /**
+     * Gets payout scheme.
+     *
+     * @return payout scheme
+     */
+    public PayoutScheme getPayoutScheme() {
+        return payoutScheme;
+    }
+
+    /**
+     * Gets fee of pool.
+     *
+     * @return fee of pool
+     */
+    public double getFee() {
+        return fee;
+    }
+
+    /**
+     * Gets share window of PPLNS in multiples of shares per block of pool.
+     *
+     * @return share window
+     */
+    public double getShareWindow() {
+        return shareWindow;
+    }
+
+    /**
+     * Gets average transaction fees per block relative to block reward.
+     *
+     * @return share of transaction fees
+     */
+    public double getTransactionFeeShare() {
+        return transactionFeeShare;
+    }
+
+    /**
+     * Checks if PPLNS is modelled in steady state, see {@link PayoutEngine}.
+     *
+     * @return true, if worker is modelled in steady state, false, if it is modelled from cold start
+     */
+    public boolean isSteadyState() {
+        return steadyState;
+    }
+
+    /**
+     * Builder of pool parameters.
+     *
+     * @author Dmitry Tverdokhleb
+     *
+     */
+    public static class Builder {
+
+        /** Payout scheme. */
+        private PayoutScheme payoutScheme;
+        /** Fee of pool. */
+        private double fee;
+        /** Share window of PPLNS in multiples of shares per block of pool. */
+        private double shareWindow;
+        /** Average transaction fees per block relative to block reward. */
+        private double transactionFeeShare;
+        /** Flag of modelling PPLNS in steady state instead of cold start. */
+        private boolean steadyState;
+
+        /**
+         * Creates instance.
+         */
+        public Builder() {
+            super();
+        }
+
+        /**
+         * Sets payout scheme.
+         *
+         * @param payoutScheme new payout scheme
+         * @return builder
+         */
+        public Builder setPayoutScheme(PayoutScheme payoutScheme) {
+            this.payoutScheme = payoutScheme;
+            return this;
+        }
+
+        /**
+         * Sets fee of pool.
+         *
+         * @param fee new fee of pool
+         * @return builder
+         */
+        public Builder setFee(double fee) {
+            this.fee = fee;
+            return this;
+        }
+
+        /**
+         * Sets share window of PPLNS.
+         *
+         * @param shareWindow new share window in multiples of shares per block of pool
+         * @return builder
+         */
+        public Builder setShareWindow(double shareWindow) {
+            this.shareWindow = shareWindow;
+            return this;
+        }
+
+        /**
+         * Sets average transaction fees per block relative to block reward.
+         *
+         * @param transactionFeeShare new share of transaction fees
+         * @return builder
+         */
+        public Builder setTransactionFeeShare(double transactionFeeShare) {
+            this.transactionFeeShare = transactionFeeShare;
+            return this;
+        }
+
+        /**
+         * Sets flag of modelling PPLNS in steady state instead of cold start, see {@link PayoutEngine}.
+         *
+         * @param steadyState new flag of modelling PPLNS in steady state
+         * @return builder
+         */
+        public Builder setSteadyState(boolean steadyState) {
+            this.steadyState = steadyState;
+            return this;
+        }
+
+        /**
+         * Builds pool parameters.
+         *
+         * @return pool parameters
+         */
+        public PoolParameters build() {
+            return new PoolParameters(this);
+        }
+
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.tverdokhlebd.coin.reward.projection;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.coin.reward.event.CoinRewardEvent;
+import com.tverdokhlebd.coin.reward.event.CoinRewardListener;
+import com.tverdokhlebd.mining.commons.coin.CoinType;
+
+/**
+ * Bounded history of network difficulty, recorded from coin reward events.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class DifficultyHistory implements CoinRewardListener {
+
+    /** Default count of samples per coin (two days of 4-minutes updates). */
+    public static final int DEFAULT_CAPACITY = 720;
+    /** Minimal time span of samples for fitting growth rate, in days. */
+    public static final double MIN_FIT_SPAN_DAYS = 1;
+    /** Milliseconds in day. */
+    private static final double MILLIS_IN_DAY = 24 * 60 * 60 * 1000;
+    /** Count of samples per coin. */
+    private final int capacity;
+    /** Map of samples. */
+    private final Map<CoinType, Samples> sampleMap = new ConcurrentHashMap<>();
+
+    /**
+     * Creates instance.
+     */
+    public DifficultyHistory() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates instance.
+     *
+     * @param capacity count of samples per coin, the oldest samples are overwritten
+     */
+    public DifficultyHistory(int capacity) {
+        super();
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacity must be at least 2");
+        }
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void onCoinRewardChanged(CoinRewardEvent coinRewardEvent) {
+        CoinRewardCalculator coinRewardCalculator = coinRewardEvent.getCoinRewardCalculator();
+        if (coinRewardCalculator.getDifficulty() != null && coinRewardCalculator.getLastUpdated() != null) {
+            record(coinRewardCalculator.getCoinType(),
+                   coinRewardCalculator.getLastUpdated().getTime(),
+                   coinRewardCalculator.getDifficulty().doubleValue());
+        }
+    }
+
+    /**
+     * Records sample of network difficulty. Sample with the same time as the last one is ignored.
+     *
+     * @param coinType type of coin
+     * @param timeMillis time of sample in milliseconds
+     * @param difficulty network difficulty
+     */
+    public void record(CoinType coinType, long timeMillis, double difficulty) {
+        if (!(difficulty > 0)) {
+            return;
+        }
+        sampleMap.computeIfAbsent(coinType, k -> new Samples(capacity)).add(timeMillis, Math.log(difficulty));
+    }
+
+    /**
+     * Gets count of recorded samples.
+     *
+     * @param coinType type of coin
+     * @return count of recorded samples
+     */
+    public int getSampleCount(CoinType coinType) {
+        Samples samples = sampleMap.get(coinType);
+        return samples == null ? 0 : samples.getCount();
+    }
+
+    /**
+     * Fits daily growth rate of network difficulty by least squares regression of logarithm of difficulty over time.
+     *
+     * @param coinType type of coin
+     * @return daily growth rate, e.g. 0.01 for 1% per day, or NaN if recorded samples span less than
+     *         {@link #MIN_FIT_SPAN_DAYS}
+     */
+    public double fitDailyGrowthRate(CoinType coinType) {
+        Samples samples = sampleMap.get(coinType);
+        return samples == null ? Double.NaN : samples.fitDailyGrowthRate();
+    }
+
+    /**
+     * Ring buffer of samples of one coin.
+     */
+    private static class Samples {
+
+        /** Times of samples in milliseconds. */
+        private final long[] times;
+        /** Logarithms of difficulty. */
+        private final double[] logDifficulties;
+        /** Index of the next sample. */
+        private int next;
+        /** Count of samples. */
+        private int count;
+
+        /**
+         * Creates instance.
+         *
+         * @param capacity count of samples
+         */
+        Samples(int capacity) {
+            times = new long[capacity];
+            logDifficulties = new double[capacity];
+        }
+
+        /**
+         * Adds sample.
+         *
+         * @param timeMillis time of sample in milliseconds
+         * @param logDifficulty logarithm of difficulty
+         */
+        synchronized void add(long timeMillis, double logDifficulty) {
+            int last = (next + times.length - 1) % times.length;
+            if (count > 0 && times[last] == timeMillis) {
+                return;
+            }
+            times[next] = timeMillis;
+            logDifficulties[next] = logDifficulty;
+            next = (next + 1) % times.length;
+            count = Math.min(count + 1, times.length);
+        }
+
+        /**
+         * Gets count of samples.
+         *
+         * @return count of samples
+         */
+        synchronized int getCount() {
+            return count;
+        }
+
+        /**
+         * Fits daily growth rate.
+         *
+         * @return daily growth rate, or NaN if samples span is too short
+         */
+        synchronized double fitDailyGrowthRate() {
+            if (count < 2) {
+                return Double.NaN;
+            }
+            long minTime = Long.MAX_VALUE;
+            long maxTime = Long.MIN_VALUE;
+            for (int i = 0; i < count; i++) {
+                minTime = Math.min(minTime, times[i]);
+                maxTime = Math.max(maxTime, times[i]);
+            }
+            if ((maxTime - minTime) / MILLIS_IN_DAY < MIN_FIT_SPAN_DAYS) {
+                return Double.NaN;
+            }
+            double meanDay = 0;
+            double meanLog = 0;
+            for (int i = 0; i < count; i++) {
+                meanDay += (times[i] - minTime) / MILLIS_IN_DAY;
+                meanLog += logDifficulties[i];
+            }
+            meanDay /= count;
+            meanLog /= count;
+            double covariance = 0;
+            double variance = 0;
+            for (int i = 0; i < count; i++) {
+                double day = (times[i] - minTime) / MILLIS_IN_DAY - meanDay;
+                covariance += day * (logDifficulties[i] - meanLog);
+                variance += day * day;
+            }
+            return Math.expm1(covariance / variance);
+        }
+
+    }
+
+}
@@ -0,0 +1,179 @@
+package com.tverdokhlebd.coin.reward.projection;
+
+import static com.tverdokhlebd.mining.commons.utils.TimeUtils.DAYS_IN_MONTH;
+import static com.tverdokhlebd.mining.commons.utils.TimeUtils.DAYS_IN_WEEK;
+import static com.tverdokhlebd.mining.commons.utils.TimeUtils.DAYS_IN_YEAR;
+import static java.math.RoundingMode.DOWN;
+
+import java.math.BigDecimal;
+
+import com.tverdokhlebd.coin.reward.CoinReward;
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.coin.reward.PrecisionPolicy;
+
+/**
+ * Projection of cumulative rewards of coin, taking into account growth of network difficulty and discounting.
+ *
+ * Reward of day k is reward of the first day multiplied by ((1 + g) * (1 + r))^-k, where g is daily growth rate of
+ * difficulty and r is daily discount rate. Cumulative factors of all days are precomputed once, so projecting any
+ * hashrate over any horizon costs one table lookup and one multiplication.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class RewardProjection {
+
+    /** Coin reward calculator. */
+    private final CoinRewardCalculator coinRewardCalculator;
+    /** Daily growth rate of network difficulty. */
+    private final double dailyGrowthRate;
+    /** Daily discount rate. */
+    private final double dailyDiscountRate;
+    /** Reward per day of 1 H/s. */
+    private final double rewardPerHashPerDay;
+    /** Cumulative factors, where factor of n days is sum of daily factors of days from 0 to n - 1. */
+    private final double[] cumulativeFactors;
+
+    /**
+     * Creates instance.
+     *
+     * @param coinRewardCalculator coin reward calculator
+     * @param dailyGrowthRate daily growth rate of network difficulty, e.g. 0.01 for 1% per day
+     * @param dailyDiscountRate daily discount rate, e.g. 0.0002 for 0.02% per day
+     * @param maxDays maximal horizon of projection in days, at least one year
+     */
+    public RewardProjection(CoinRewardCalculator coinRewardCalculator, double dailyGrowthRate, double dailyDiscountRate, int maxDays) {
+        super();
+        if (!(dailyGrowthRate > -1) || !(dailyDiscountRate > -1)) {
+            throw new IllegalArgumentException("Rates must be greater than -1");
+        }
+        if (maxDays < DAYS_IN_YEAR.intValue()) {
+            throw new IllegalArgumentException("Maximal horizon must be at least " + DAYS_IN_YEAR.intValue() + " days");
+        }
+        this.coinRewardCalculator = coinRewardCalculator;
+        this.dailyGrowthRate = dailyGrowthRate;
+        this.dailyDiscountRate = dailyDiscountRate;
+        this.rewardPerHashPerDay = coinRewardCalculator.getBaseRewardPerDay().doubleValue()
+                / coinRewardCalculator.getBaseHashrate().doubleValue();
+        this.cumulativeFactors = new double[maxDays + 1];
+        double dailyFactor = 1 / ((1 + dailyGrowthRate) * (1 + dailyDiscountRate));
+        double factor = 1;
+        for (int day = 1; day <= maxDays; day++) {
+            cumulativeFactors[day] = cumulativeFactors[day - 1] + factor;
+            factor *= dailyFactor;
+        }
+    }
+
+    /**
+     * Gets coin reward calculator.
+     *
+     * @return coin reward calculator
+     */
+    public CoinRewardCalculator getCoinRewardCalculator() {
+        return coinRewardCalculator;
+    }
+
+    /**
+     * Gets daily growth rate of network difficulty.
+     *
+     * @return daily growth rate of network difficulty
+     */
+    public double getDailyGrowthRate() {
+        return dailyGrowthRate;
+    }
+
+    /**
+     * Gets daily discount rate.
+     *
+     * @return daily discount rate
+     */
+    public double getDailyDiscountRate() {
+        return dailyDiscountRate;
+    }
+
+    /**
+     * Gets maximal horizon of projection in days.
+     *
+     * @return maximal horizon of projection in days
+     */
+    public int getMaxDays() {
+        return cumulativeFactors.length - 1;
+    }
+
+    /**
+     * Gets cumulative factor, i.e. projected reward for horizon in terms of reward of the first day.
+     *
+     * @param days horizon in days
+     * @return cumulative factor
+     */
+    public double getCumulativeFactor(int days) {
+        return cumulativeFactors[days];
+    }
+
+    /**
+     * Projects cumulative reward.
+     *
+     * @param reportedHashrate reported hashrate in H/s
+     * @param days horizon in days
+     * @return projected cumulative reward
+     */
+    public double projectReward(double reportedHashrate, int days) {
+        return reportedHashrate * rewardPerHashPerDay * cumulativeFactors[days];
+    }
+
+    /**
+     * Projects cumulative rewards of many hashrates over many horizons.
+     *
+     * @param reportedHashrates reported hashrates in H/s
+     * @param days horizons in days
+     * @param result projected cumulative rewards, where result[i][j] is reward of days[i] and reportedHashrates[j]
+     */
+    public void projectRewards(double[] reportedHashrates, int[] days, double[][] result) {
+        for (int i = 0; i < days.length; i++) {
+            double factor = rewardPerHashPerDay * cumulativeFactors[days[i]];
+            double[] row = result[i];
+            for (int j = 0; j < reportedHashrates.length; j++) {
+                row[j] = reportedHashrates[j] * factor;
+            }
+        }
+    }
+
+    /**
+     * Calculates coin rewards with projected week, month and year rewards. Hour and day rewards are the same as in
+     * {@link CoinRewardCalculator#calculateRewards(BigDecimal)}.
+     *
+     * @param reportedHashrate reported hashrate in H/s
+     * @return coin reward
+     */
+    public CoinReward projectCoinReward(BigDecimal reportedHashrate) {
+        CoinReward coinReward = coinRewardCalculator.calculateRewards(reportedHashrate);
+        BigDecimal rewardPerDay = coinReward.getRewardPerDay();
+        return new CoinReward.Builder().setCoinType(coinReward.getCoinType())
+                                       .setReportedHashrate(reportedHashrate)
+                                       .setRewardPerHour(coinReward.getRewardPerHour())
+                                       .setRewardPerDay(rewardPerDay)
+                                       .setRewardPerWeek(project(rewardPerDay, DAYS_IN_WEEK))
+                                       .setRewardPerMonth(project(rewardPerDay, DAYS_IN_MONTH))
+                                       .setRewardPerYear(project(rewardPerDay, DAYS_IN_YEAR))
+                                       .setCalculatorVersion(coinReward.getCalculatorVersion())
+                                       .build();
+    }
+
+    /**
+     * Projects cumulative reward from reward of the first day with precision of calculator. Legacy precision keeps scale
+     * of reward of the first day.
+     *
+     * @param rewardPerDay reward of the first day
+     * @param days horizon in days
+     * @return projected cumulative reward
+     */
+    private BigDecimal project(BigDecimal rewardPerDay, BigDecimal days) {
+        BigDecimal factor = BigDecimal.valueOf(cumulativeFactors[days.intValue()]);
+        PrecisionPolicy precisionPolicy = coinRewardCalculator.getPrecisionPolicy();
+        if (precisionPolicy.isLegacy()) {
+            return rewardPerDay.multiply(factor).setScale(rewardPerDay.scale(), DOWN);
+        }
+        return precisionPolicy.multiply(rewardPerDay, factor);
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.tverdokhlebd.coin.reward.projection;
+
+import static com.tverdokhlebd.mining.commons.utils.TimeUtils.DAYS_IN_YEAR;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.mining.commons.coin.CoinType;
+
+/**
+ * Projector of rewards, which keeps one projection per coin and rebuilds it when coin reward calculator is replaced.
+ *
+ * Growth rate is fitted from difficulty history. Until history is long enough, it is estimated from current and 7-days
+ * average difficulties: average of exponential growth over the last 7 days equals the value of 3.5 days ago.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class RewardProjector {
+
+    /** Age of 7-days average difficulty in days. */
+    private static final double WEEK_AVERAGE_AGE_DAYS = 3.5;
+    /** History of network difficulty. */
+    private final DifficultyHistory difficultyHistory;
+    /** Daily discount rate. */
+    private final double dailyDiscountRate;
+    /** Maximal horizon of projections in days. */
+    private final int maxDays;
+    /** Map of projections. */
+    private final Map<CoinType, RewardProjection> projectionMap = new ConcurrentHashMap<>();
+
+    /**
+     * Creates instance without discounting and with horizon of one year.
+     *
+     * @param difficultyHistory history of network difficulty
+     */
+    public RewardProjector(DifficultyHistory difficultyHistory) {
+        this(difficultyHistory, 0, DAYS_IN_YEAR.intValue());
+    }
+
+    /**
+     * Creates instance.
+     *
+     * @param difficultyHistory history of network difficulty
+     * @param dailyDiscountRate daily discount rate
+     * @param maxDays maximal horizon of projections in days, at least one year
+     */
+    public RewardProjector(DifficultyHistory difficultyHistory, double dailyDiscountRate, int maxDays) {
+        super();
+        if (maxDays < DAYS_IN_YEAR.intValue()) {
+            throw new IllegalArgumentException("Maximal horizon must be at least " + DAYS_IN_YEAR.intValue() + " days");
+        }
+        this.difficultyHistory = difficultyHistory;
+        this.dailyDiscountRate = dailyDiscountRate;
+        this.maxDays = maxDays;
+    }
+
+    /**
+     * Gets projection for coin reward calculator. Projection is reused while calculator is the same.
+     *
+     * @param coinRewardCalculator coin reward calculator
+     * @return projection
+     */
+    public RewardProjection getProjection(CoinRewardCalculator coinRewardCalculator) {
+        RewardProjection projection = projectionMap.get(coinRewardCalculator.getCoinType());
+        if (projection == null || projection.getCoinRewardCalculator() != coinRewardCalculator) {
+            projection = new RewardProjection(coinRewardCalculator,
+                                              estimateDailyGrowthRate(coinRewardCalculator),
+                                              dailyDiscountRate,
+                                              maxDays);
+            projectionMap.put(coinRewardCalculator.getCoinType(), projection);
+        }
+        return projection;
+    }
+
+    /**
+     * Estimates daily growth rate of network difficulty.
+     *
+     * @param coinRewardCalculator coin reward calculator
+     * @return daily growth rate, or 0 if there is no data for estimating
+     */
+    public double estimateDailyGrowthRate(CoinRewardCalculator coinRewardCalculator) {
+        double dailyGrowthRate = difficultyHistory.fitDailyGrowthRate(coinRewardCalculator.getCoinType());
+        if (!Double.isNaN(dailyGrowthRate)) {
+            return dailyGrowthRate;
+        }
+        if (coinRewardCalculator.getDifficulty() == null || coinRewardCalculator.getWeekAverageDifficulty() == null
+                || coinRewardCalculator.getWeekAverageDifficulty().signum() <= 0) {
+            return 0;
+        }
+        double ratio = coinRewardCalculator.getDifficulty().doubleValue() / coinRewardCalculator.getWeekAverageDifficulty().doubleValue();
+        return ratio > 0 ? Math.expm1(Math.log(ratio) / WEEK_AVERAGE_AGE_DAYS) : 0;
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.tverdokhlebd.coin.reward.requestor;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import com.tverdokhlebd.coin.reward.CalculatorVersion;
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.mining.commons.coin.CoinType;
+
+/**
+ * Bounded ring of recent versions of coin reward calculators by type of coin. When ring of coin is full, the oldest
+ * retained calculator is dropped. Calculator with already retained version is not retained twice.
+ *
+ * Requestors, which share cache of calculators, must share ring too.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class CalculatorVersionRing {
+
+    /** Default count of retained versions of every coin. */
+    public static final int DEFAULT_CAPACITY = 8;
+    /** Count of retained versions of every coin. */
+    private final int capacity;
+    /** Map of retained calculators by type of coin, the most recently retained first. */
+    private final Map<CoinType, ArrayDeque<CoinRewardCalculator>> ringMap = new EnumMap<>(CoinType.class);
+
+    /**
+     * Creates instance with {@link #DEFAULT_CAPACITY}.
+     */
+    public CalculatorVersionRing() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates instance.
+     *
+     * @param capacity count of retained versions of every coin
+     */
+    public CalculatorVersionRing(int capacity) {
+        super();
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Retains coin reward calculator.
+     *
+     * @param coinRewardCalculator coin reward calculator
+     */
+    public synchronized void retain(CoinRewardCalculator coinRewardCalculator) {
+        ArrayDeque<CoinRewardCalculator> ring = ringMap.computeIfAbsent(coinRewardCalculator.getCoinType(),
+                                                                        k -> new ArrayDeque<>(capacity));
+        for (CoinRewardCalculator retainedCoinRewardCalculator : ring) {
+            if (retainedCoinRewardCalculator.getVersion().equals(coinRewardCalculator.getVersion())) {
+                return;
+            }
+        }
+        if (ring.size() == capacity) {
+            ring.pollLast();
+        }
+        ring.addFirst(coinRewardCalculator);
+    }
+
+    /**
+     * Gets retained coin reward calculator of version.
+     *
+     * @param coinType type of coin
+     * @param version version of calculator
+     * @return coin reward calculator, or null if version is not retained
+     */
+    public synchronized CoinRewardCalculator get(CoinType coinType, CalculatorVersion version) {
+        ArrayDeque<CoinRewardCalculator> ring = ringMap.get(coinType);
+        if (ring == null) {
+            return null;
+        }
+        for (CoinRewardCalculator coinRewardCalculator : ring) {
+            if (coinRewardCalculator.getVersion().equals(version)) {
+                return coinRewardCalculator;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets retained versions of coin.
+     *
+     * @param coinType type of coin
+     * @return list of versions, the newest first
+     */
+    public synchronized List<CalculatorVersion> getVersions(CoinType coinType) {
+        ArrayDeque<CoinRewardCalculator> ring = ringMap.get(coinType);
+        if (ring == null) {
+            return Collections.emptyList();
+        }
+        List<CalculatorVersion> versionList = new ArrayList<>(ring.size());
+        for (CoinRewardCalculator coinRewardCalculator : ring) {
+            versionList.add(coinRewardCalculator.getVersion());
+        }
+        versionList.sort(Collections.reverseOrder());
+        return versionList;
+    }
+
+}
@@ -2,16 +2,29 @@ package com.tverdokhlebd.coin.reward.requestor;
 
 import java.math.BigDecimal;
 import java.util.AbstractMap.SimpleEntry;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
+import com.tverdokhlebd.coin.reward.CalculatorVersion;
 import com.tverdokhlebd.coin.reward.CoinReward;
 import com.tverdokhlebd.coin.reward.CoinRewardCaching;
 import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
 import com.tverdokhlebd.coin.reward.CoinRewardCalculator.Builder;
 import com.tverdokhlebd.coin.reward.CoinRewardType;
+import com.tverdokhlebd.coin.reward.HashrateUnit;
+import com.tverdokhlebd.coin.reward.event.CoinRewardListener;
+import com.tverdokhlebd.coin.reward.event.CoinRewardPublisher;
+import com.tverdokhlebd.coin.reward.event.CoinRewardSubscription;
 import com.tverdokhlebd.mining.commons.coin.CoinType;
 import com.tverdokhlebd.mining.commons.http.BaseRequestor;
+import com.tverdokhlebd.mining.commons.http.ErrorCode;
 import com.tverdokhlebd.mining.commons.http.RequestException;
 
 import okhttp3.OkHttpClient;
@@ -25,40 +38,317 @@ import okhttp3.OkHttpClient;
 public abstract class CoinRewardBaseRequestor extends BaseRequestor<CoinRewardCalculator.Builder>
         implements CoinRewardRequestor, CoinRewardCaching {
 
+    /** HTTP client. */
+    private final OkHttpClient httpClient;
+    /** Executor for refreshing and parallel requesting. */
+    private final Executor executor;
+    /** Budget of upstream requests, or null if requests are not limited. */
+    private final RequestBudget requestBudget;
+    /** Tracer of refreshes, or null if refreshes are not traced. */
+    private final RefreshTracer refreshTracer;
+
     /**
-     * Creates instance.
+     * Creates instance with default executor, see {@link RefreshExecutors#getDefault()}.
      *
      * @param httpClient HTTP client
      */
     protected CoinRewardBaseRequestor(OkHttpClient httpClient) {
+        this(httpClient, RefreshExecutors.getDefault(), null, null);
+    }
+
+    /**
+     * Creates instance.
+     *
+     * @param httpClient HTTP client
+     * @param executor executor for refreshing and parallel requesting
+     * @param requestBudget budget of upstream requests, or null if requests are not limited
+     * @param refreshTracer tracer of refreshes, or null if refreshes are not traced
+     */
+    protected CoinRewardBaseRequestor(OkHttpClient httpClient, Executor executor, RequestBudget requestBudget,
+            RefreshTracer refreshTracer) {
+        this(refreshTracer, refreshTracer == null ? httpClient : refreshTracer.instrument(httpClient), executor, requestBudget);
+    }
+
+    /**
+     * Creates instance.
+     *
+     * @param refreshTracer tracer of refreshes, or null if refreshes are not traced
+     * @param httpClient HTTP client, which is instrumented by tracer if it is set
+     * @param executor executor for refreshing and parallel requesting
+     * @param requestBudget budget of upstream requests, or null if requests are not limited
+     */
+    private CoinRewardBaseRequestor(RefreshTracer refreshTracer, OkHttpClient httpClient, Executor executor,
+            RequestBudget requestBudget) {
         super(httpClient);
+        this.httpClient = httpClient;
+        this.executor = executor;
+        this.requestBudget = requestBudget;
+        this.refreshTracer = refreshTracer;
     }
 
     @Override
     public CoinReward requestCoinReward(CoinType coinType, BigDecimal reportedHashrate) throws CoinRewardRequestorException {
-        if (geCoinRewardType().getCoinTypeList().indexOf(coinType) == -1) {
+        return requestCoinRewardCalculator(coinType).calculateRewards(reportedHashrate);
+    }
+
+    @Override
+    public CoinReward requestCoinReward(CoinType coinType, BigDecimal reportedHashrate, CalculatorVersion version) {
+        if (!isSupported(coinType)) {
             throw new IllegalArgumentException(coinType.name() + " is not supported");
         }
+        CoinRewardCalculator coinRewardCalculator = getCalculatorVersionRing().get(coinType, version);
+        if (coinRewardCalculator == null) {
+            throw new IllegalArgumentException("Version " + version + " of " + coinType.name() + " is not retained");
+        }
+        return coinRewardCalculator.calculateRewards(reportedHashrate);
+    }
+
+    @Override
+    public List<CalculatorVersion> getRetainedVersions(CoinType coinType) {
+        return getCalculatorVersionRing().getVersions(coinType);
+    }
+
+    @Override
+    public CalculatorVersion getCachedVersion(CoinType coinType) {
+        CoinRewardCalculator coinRewardCalculator = getCachedCoinRewardCalculator(coinType);
+        return coinRewardCalculator == null ? null : coinRewardCalculator.getVersion();
+    }
+
+    @Override
+    public void requestCoinReward(CoinType coinType, double reportedHashrate, HashrateUnit hashrateUnit, double[] rewards)
+            throws CoinRewardRequestorException {
+        requestCoinRewardCalculator(coinType).calculateRewards(reportedHashrate, hashrateUnit, rewards);
+    }
+
+    @Override
+    public CompletableFuture<CoinReward> requestCoinRewardAsync(CoinType coinType, BigDecimal reportedHashrate) {
+        CompletableFuture<CoinReward> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                future.complete(requestCoinReward(coinType, reportedHashrate));
+            } catch (CoinRewardRequestorException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    @Override
+    public Map<CoinType, CoinReward> requestCoinRewards(Map<CoinType, BigDecimal> reportedHashrateMap)
+            throws CoinRewardRequestorException {
+        Map<CoinType, CompletableFuture<CoinReward>> futureMap = new EnumMap<>(CoinType.class);
+        for (Entry<CoinType, BigDecimal> reportedHashrateEntry : reportedHashrateMap.entrySet()) {
+            futureMap.put(reportedHashrateEntry.getKey(),
+                          requestCoinRewardAsync(reportedHashrateEntry.getKey(), reportedHashrateEntry.getValue()));
+        }
+        Map<CoinType, CoinReward> coinRewardMap = new EnumMap<>(CoinType.class);
         try {
-            if (new Date().after(getCachedNextUpdate(coinType))) {
-                CoinRewardCalculator.Builder coinRewardCalculatorBuilder = new Builder();
-                coinRewardCalculatorBuilder.setCoinType(coinType);
-                List<SimpleEntry<String, String>> urlList = getUrlList(coinType);
-                for (int i = 0; i < urlList.size(); i++) {
-                    SimpleEntry<String, String> urlEntry = urlList.get(i);
-                    String requestName = urlEntry.getKey();
-                    String preparedUrl = urlEntry.getValue();
-                    super.request(preparedUrl, requestName, coinRewardCalculatorBuilder);
+            for (Entry<CoinType, CompletableFuture<CoinReward>> futureEntry : futureMap.entrySet()) {
+                coinRewardMap.put(futureEntry.getKey(), futureEntry.getValue().join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof CoinRewardRequestorException) {
+                throw (CoinRewardRequestorException) e.getCause();
+            }
+            throw (RuntimeException) e.getCause();
+        }
+        return coinRewardMap;
+    }
+
+    @Override
+    public CoinRewardSubscription subscribe(CoinRewardListener coinRewardListener) {
+        return getCoinRewardPublisher().subscribe(coinRewardListener);
+    }
+
+    @Override
+    public CoinRewardSubscription subscribe(CoinRewardListener coinRewardListener, int bufferSize) {
+        return getCoinRewardPublisher().subscribe(coinRewardListener, bufferSize);
+    }
+
+    /**
+     * Requests coin reward calculator. It is refreshed if cached one is stale.
+     *
+     * @param coinType type of coin
+     * @return coin reward calculator
+     * @throws CoinRewardRequestorException if there is any error in coin reward requesting
+     */
+    private CoinRewardCalculator requestCoinRewardCalculator(CoinType coinType) throws CoinRewardRequestorException {
+        if (!isSupported(coinType)) {
+            throw new IllegalArgumentException(coinType.name() + " is not supported");
+        }
+        if (requestBudget != null) {
+            // Every lookup counts, so coins with the most traffic are refreshed first when budget is exhausted
+            requestBudget.recordTraffic(coinType.name());
+        }
+        try {
+            if (isStale(coinType)) {
+                // Concurrent misses of all requestors sharing cache wait for one refresh
+                getRefreshFlights().refresh(getRefreshKey(coinType), () -> {
+                    if (isStale(coinType)) {
+                        refreshWithinBudget(coinType);
+                    }
+                });
+                if (getCachedCoinRewardCalculator(coinType) == null) {
+                    // Shared refresh of another coin has not brought this one
+                    getRefreshFlights().refresh(coinType.name(), () -> refreshWithinBudget(coinType));
                 }
-                setCachedCoinRewardCalculator(coinType, coinRewardCalculatorBuilder.build());
             }
-            CoinRewardCalculator coinRewardCalculator = getCachedCoinRewardCalculator(coinType);
-            return coinRewardCalculator.calculateRewards(reportedHashrate);
+            return getCachedCoinRewardCalculator(coinType);
+        } catch (CoinRewardRequestorException e) {
+            throw e;
         } catch (RequestException e) {
             throw new CoinRewardRequestorException(e);
         }
     }
 
+    /**
+     * Checks if cached coin reward calculator is stale according to next update of this requestor.
+     *
+     * @param coinType type of coin
+     * @return true, if cached calculator is stale or absent
+     */
+    private boolean isStale(CoinType coinType) {
+        return System.currentTimeMillis() > getCachedNextUpdate(coinType).getTime();
+    }
+
+    /**
+     * Refreshes cached coin reward calculator if budget of upstream requests allows it. Otherwise cached calculator is
+     * kept, even though it is stale.
+     *
+     * @param coinType type of coin
+     * @throws RequestBudgetExhaustedException if budget is exhausted and there is no cached calculator
+     * @throws RequestException if there is any error in requesting
+     */
+    private void refreshWithinBudget(CoinType coinType) throws RequestException {
+        if (requestBudget == null) {
+            tracedRefresh(coinType);
+            return;
+        }
+        if (requestBudget.tryAcquire(coinType.name())) {
+            tracedRefresh(coinType);
+        } else if (getCachedCoinRewardCalculator(coinType) == null) {
+            throw new RequestBudgetExhaustedException("Request budget is exhausted and " + coinType.name() + " is not cached");
+        }
+    }
+
+    /**
+     * Refreshes cached coin reward calculator and traces it if tracer is set.
+     *
+     * @param coinType type of coin
+     * @throws RequestException if there is any error in requesting
+     */
+    private void tracedRefresh(CoinType coinType) throws RequestException {
+        if (refreshTracer == null) {
+            refresh(coinType);
+            return;
+        }
+        RefreshTrace refreshTrace = refreshTracer.start(coinType);
+        ErrorCode errorCode = null;
+        try {
+            refresh(coinType);
+        } catch (RequestException e) {
+            errorCode = e.getErrorCode();
+            throw e;
+        } finally {
+            refreshTracer.finish(refreshTrace, errorCode);
+        }
+    }
+
+    /**
+     * Refreshes cached coin reward calculator by requesting all urls of coin.
+     *
+     * @param coinType type of coin
+     * @throws RequestException if there is any error in requesting
+     */
+    protected void refresh(CoinType coinType) throws RequestException {
+        CoinRewardCalculator.Builder coinRewardCalculatorBuilder = new Builder();
+        coinRewardCalculatorBuilder.setCoinType(coinType);
+        List<SimpleEntry<String, String>> urlList = getUrlList(coinType);
+        for (int i = 0; i < urlList.size(); i++) {
+            SimpleEntry<String, String> urlEntry = urlList.get(i);
+            String requestName = urlEntry.getKey();
+            String preparedUrl = urlEntry.getValue();
+            super.request(preparedUrl, requestName, coinRewardCalculatorBuilder);
+        }
+        publish(Collections.singletonList(coinRewardCalculatorBuilder.build()));
+    }
+
+    /**
+     * Caches coin reward calculators atomically, retains their versions and publishes events of replacing them.
+     *
+     * @param coinRewardCalculatorList list of new coin reward calculators
+     */
+    protected void publish(List<CoinRewardCalculator> coinRewardCalculatorList) {
+        List<CoinRewardCalculator> previousCoinRewardCalculatorList = new ArrayList<>(coinRewardCalculatorList.size());
+        for (CoinRewardCalculator coinRewardCalculator : coinRewardCalculatorList) {
+            previousCoinRewardCalculatorList.add(getCachedCoinRewardCalculator(coinRewardCalculator.getCoinType()));
+        }
+        RefreshTrace refreshTrace = getRefreshTrace();
+        long startNanos = refreshTrace == null ? 0 : System.nanoTime();
+        setCachedCoinRewardCalculators(coinRewardCalculatorList);
+        CalculatorVersionRing calculatorVersionRing = getCalculatorVersionRing();
+        for (CoinRewardCalculator coinRewardCalculator : coinRewardCalculatorList) {
+            calculatorVersionRing.retain(coinRewardCalculator);
+        }
+        CoinRewardPublisher coinRewardPublisher = getCoinRewardPublisher();
+        for (int i = 0; i < coinRewardCalculatorList.size(); i++) {
+            coinRewardPublisher.publish(previousCoinRewardCalculatorList.get(i), coinRewardCalculatorList.get(i));
+        }
+        if (refreshTrace != null) {
+            refreshTrace.addPhase(RefreshPhase.PUBLISH, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Gets trace of refresh, which is running on current thread.
+     *
+     * @return trace of refresh, or null if refresh is not traced
+     */
+    protected RefreshTrace getRefreshTrace() {
+        return refreshTracer == null ? null : refreshTracer.getCurrentRefreshTrace();
+    }
+
+    /**
+     * Gets HTTP client, which is instrumented by tracer if it is set.
+     *
+     * @return HTTP client
+     */
+    protected OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Gets publisher of coin reward events.
+     *
+     * @return publisher of coin reward events
+     */
+    protected abstract CoinRewardPublisher getCoinRewardPublisher();
+
+    /**
+     * Gets refreshes in progress, which are shared by all requestors sharing cache.
+     *
+     * @return refreshes in progress
+     */
+    protected abstract RefreshFlights getRefreshFlights();
+
+    /**
+     * Gets ring of recent versions of calculators, which is shared by all requestors sharing cache.
+     *
+     * @return ring of versions
+     */
+    protected abstract CalculatorVersionRing getCalculatorVersionRing();
+
+    /**
+     * Gets key of refresh of coin. Concurrent refreshes with the same key are collapsed into one, so coins, which are
+     * refreshed by one upstream request, must share key.
+     *
+     * @param coinType type of coin
+     * @return key of refresh, name of coin by default
+     */
+    protected String getRefreshKey(CoinType coinType) {
+        return coinType.name();
+    }
+
     /**
      * Gets coin reward type.
      *
@@ -66,6 +356,16 @@ public abstract class CoinRewardBaseRequestor extends BaseRequestor<CoinRewardCa
      */
     protected abstract CoinRewardType geCoinRewardType();
 
+    /**
+     * Checks if coin is supported.
+     *
+     * @param coinType type of coin
+     * @return true, if coin is supported
+     */
+    protected boolean isSupported(CoinType coinType) {
+        return geCoinRewardType().getCoinTypeList().contains(coinType);
+    }
+
     /**
      * Gets list of urls.
      *
@@ -74,4 +374,13 @@ public abstract class CoinRewardBaseRequestor extends BaseRequestor<CoinRewardCa
      */
     protected abstract List<SimpleEntry<String, String>> getUrlList(CoinType coinType);
 
+    /**
+     * Gets executor for refreshing and parallel requesting.
+     *
+     * @return executor
+     */
+    protected Executor getExecutor() {
+        return executor;
+    }
+
 }
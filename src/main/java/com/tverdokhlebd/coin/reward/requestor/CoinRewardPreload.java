@@ -0,0 +1,160 @@
+package com.tverdokhlebd.coin.reward.requestor;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.tverdokhlebd.mining.commons.coin.CoinType;
+
+/**
+ * Eager preloading of coin reward calculators of requestor.
+ *
+ * Every coin is requested in parallel on refresh executor of requestor, so DNS lookups, TLS handshakes and connections of
+ * connection pool are established and configuration errors are reported before the first request of user. Readiness is
+ * updated as soon as coins are priced, even after deadline of {@link #await(long)} is passed, so it can be polled by
+ * health checks.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class CoinRewardPreload {
+
+    /** Coin reward requestor. */
+    private final CoinRewardRequestor coinRewardRequestor;
+    /** List of preloaded coins. */
+    private final List<CoinType> coinTypeList;
+    /** Set of priced coins. */
+    private final Set<CoinType> pricedCoinTypeSet = ConcurrentHashMap.newKeySet();
+    /** Map of errors of failed coins. */
+    private final Map<CoinType, Throwable> errorMap = new ConcurrentHashMap<>();
+    /** Future, which is completed when all coins are priced or failed. */
+    private final CompletableFuture<Void> future;
+
+    /**
+     * Creates instance and starts preloading.
+     *
+     * @param coinRewardRequestor coin reward requestor
+     * @param coinTypeList list of preloaded coins
+     */
+    public CoinRewardPreload(CoinRewardRequestor coinRewardRequestor, List<CoinType> coinTypeList) {
+        super();
+        this.coinRewardRequestor = coinRewardRequestor;
+        this.coinTypeList = Collections.unmodifiableList(new ArrayList<>(coinTypeList));
+        List<CompletableFuture<Void>> futureList = new ArrayList<>(coinTypeList.size());
+        for (CoinType coinType : this.coinTypeList) {
+            futureList.add(coinRewardRequestor.requestCoinRewardAsync(coinType, BigDecimal.ZERO).handle((coinReward, e) -> {
+                if (e == null) {
+                    pricedCoinTypeSet.add(coinType);
+                } else {
+                    errorMap.put(coinType, e instanceof CompletionException ? e.getCause() : e);
+                }
+                return null;
+            }));
+        }
+        this.future = CompletableFuture.allOf(futureList.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * Gets coin reward requestor.
+     *
+     * @return coin reward requestor
+     */
+    public CoinRewardRequestor getCoinRewardRequestor() {
+        return coinRewardRequestor;
+    }
+
+    /**
+     * Gets list of preloaded coins.
+     *
+     * @return list of preloaded coins
+     */
+    public List<CoinType> getCoinTypeList() {
+        return coinTypeList;
+    }
+
+    /**
+     * Waits until all coins are priced or failed, but not longer than timeout.
+     *
+     * @param timeoutMillis timeout in milliseconds
+     * @return true, if all coins are priced
+     * @throws InterruptedException if current thread is interrupted while waiting
+     */
+    public boolean await(long timeoutMillis) throws InterruptedException {
+        try {
+            future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // Outcome of every coin is kept separately
+        }
+        return isReady();
+    }
+
+    /**
+     * Checks if all coins are priced.
+     *
+     * @return true, if all coins are priced
+     */
+    public boolean isReady() {
+        return pricedCoinTypeSet.size() == coinTypeList.size();
+    }
+
+    /**
+     * Checks if all coins are priced or failed.
+     *
+     * @return true, if preloading is done
+     */
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Gets list of priced coins.
+     *
+     * @return list of priced coins
+     */
+    public List<CoinType> getPricedCoinTypeList() {
+        List<CoinType> pricedCoinTypeList = new ArrayList<>();
+        for (CoinType coinType : coinTypeList) {
+            if (pricedCoinTypeSet.contains(coinType)) {
+                pricedCoinTypeList.add(coinType);
+            }
+        }
+        return pricedCoinTypeList;
+    }
+
+    /**
+     * Gets list of coins, which are neither priced nor failed yet.
+     *
+     * @return list of pending coins
+     */
+    public List<CoinType> getPendingCoinTypeList() {
+        List<CoinType> pendingCoinTypeList = new ArrayList<>();
+        for (CoinType coinType : coinTypeList) {
+            if (!pricedCoinTypeSet.contains(coinType) && !errorMap.containsKey(coinType)) {
+                pendingCoinTypeList.add(coinType);
+            }
+        }
+        return pendingCoinTypeList;
+    }
+
+    /**
+     * Gets errors of failed coins, e.g. {@link CoinRewardRequestorException} with error code of misconfigured endpoint.
+     *
+     * @return map of errors by type of coin
+     */
+    public Map<CoinType, Throwable> getErrorMap() {
+        Map<CoinType, Throwable> errorMap = new EnumMap<>(CoinType.class);
+        errorMap.putAll(this.errorMap);
+        return errorMap;
+    }
+
+}
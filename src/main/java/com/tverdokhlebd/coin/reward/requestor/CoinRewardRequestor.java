@@ -1,8 +1,16 @@
 package com.tverdokhlebd.coin.reward.requestor;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+import com.tverdokhlebd.coin.reward.CalculatorVersion;
 import com.tverdokhlebd.coin.reward.CoinReward;
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.coin.reward.HashrateUnit;
+import com.tverdokhlebd.coin.reward.event.CoinRewardListener;
+import com.tverdokhlebd.coin.reward.event.CoinRewardSubscription;
 import com.tverdokhlebd.mining.commons.coin.CoinType;
 
 /**
@@ -23,4 +31,81 @@ public interface CoinRewardRequestor {
      */
     CoinReward requestCoinReward(CoinType coinType, BigDecimal reportedHashrate) throws CoinRewardRequestorException;
 
+    /**
+     * Requests coin reward with retained version of coin reward calculator, e.g. for reproducing earlier pricing or for
+     * pricing with version, which all nodes have agreed on. Nothing is requested from upstream.
+     *
+     * @param coinType type of coin
+     * @param reportedHashrate reported hashrate in H/s
+     * @param version version of calculator, see {@link #getRetainedVersions(CoinType)}
+     * @return coin reward
+     * @throws IllegalArgumentException if version is not retained
+     */
+    CoinReward requestCoinReward(CoinType coinType, BigDecimal reportedHashrate, CalculatorVersion version);
+
+    /**
+     * Gets retained versions of coin reward calculator of coin.
+     *
+     * @param coinType type of coin
+     * @return list of versions, the newest first
+     */
+    List<CalculatorVersion> getRetainedVersions(CoinType coinType);
+
+    /**
+     * Gets version of cached coin reward calculator of coin. Nothing is requested from upstream.
+     *
+     * @param coinType type of coin
+     * @return version of cached calculator, or null if calculator is not cached
+     */
+    CalculatorVersion getCachedVersion(CoinType coinType);
+
+    /**
+     * Requests coin reward for primitive hashrate in given unit without allocating, see
+     * {@link CoinRewardCalculator#calculateRewards(double, HashrateUnit, double[])}.
+     *
+     * @param coinType type of coin
+     * @param reportedHashrate reported hashrate
+     * @param hashrateUnit unit of reported hashrate
+     * @param rewards array of at least {@link CoinRewardCalculator#REWARD_PERIODS} length for calculated rewards
+     * @throws CoinRewardRequestorException if there is any error in coin reward requesting
+     */
+    void requestCoinReward(CoinType coinType, double reportedHashrate, HashrateUnit hashrateUnit, double[] rewards)
+            throws CoinRewardRequestorException;
+
+    /**
+     * Requests coin reward on refresh executor of requestor.
+     *
+     * @param coinType type of coin
+     * @param reportedHashrate reported hashrate in H/s
+     * @return future of coin reward, completed exceptionally with {@link CoinRewardRequestorException} if there is any
+     *         error in coin reward requesting
+     */
+    CompletableFuture<CoinReward> requestCoinRewardAsync(CoinType coinType, BigDecimal reportedHashrate);
+
+    /**
+     * Requests rewards of many coins in parallel on refresh executor of requestor.
+     *
+     * @param reportedHashrateMap map of reported hashrates in H/s by type of coin
+     * @return map of coin rewards by type of coin
+     * @throws CoinRewardRequestorException if there is any error in coin reward requesting
+     */
+    Map<CoinType, CoinReward> requestCoinRewards(Map<CoinType, BigDecimal> reportedHashrateMap) throws CoinRewardRequestorException;
+
+    /**
+     * Subscribes listener to events of replacing cached coin reward calculators.
+     *
+     * @param coinRewardListener listener of events
+     * @return subscription
+     */
+    CoinRewardSubscription subscribe(CoinRewardListener coinRewardListener);
+
+    /**
+     * Subscribes listener to events of replacing cached coin reward calculators.
+     *
+     * @param coinRewardListener listener of events
+     * @param bufferSize capacity of subscription buffer, the oldest events are dropped on overflow
+     * @return subscription
+     */
+    CoinRewardSubscription subscribe(CoinRewardListener coinRewardListener, int bufferSize);
+
 }
@@ -1,6 +1,11 @@
 package com.tverdokhlebd.coin.reward.requestor;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
 import com.tverdokhlebd.coin.reward.CoinRewardType;
+import com.tverdokhlebd.coin.reward.whattomine.EndpointRegistry;
 import com.tverdokhlebd.coin.reward.whattomine.WhatToMineRequestor;
 import com.tverdokhlebd.mining.commons.http.HttpClientFactory;
 
@@ -9,6 +14,9 @@ import okhttp3.OkHttpClient;
 /**
  * Factory for creating coin reward requestor.
  *
+ * Requestors of the same coin reward type share cache and refreshes, so requestors of tenants with different endpoints
+ * update have their own freshness, while upstream is requested only as often as the strictest of them needs.
+ *
  * @author Dmitry Tverdokhleb
  *
  */
@@ -16,6 +24,8 @@ public class CoinRewardRequestorFactory {
 
     /** Endpoints update. */
     private static final int ENDPOINTS_UPDATE = 4;
+    /** Map of budgets of upstream requests by host, shared by all created requestors. */
+    private static final Map<String, RequestBudget> REQUEST_BUDGET_MAP = new ConcurrentHashMap<>();
 
     /**
      * Creates coin reward requestor.
@@ -48,13 +58,133 @@ public class CoinRewardRequestorFactory {
      * @return coin reward requestor
      */
     public static CoinRewardRequestor create(CoinRewardType coinRewardType, OkHttpClient httpClient, int endpointsUpdate) {
+        return create(coinRewardType, httpClient, endpointsUpdate, RefreshExecutors.getDefault());
+    }
+
+    /**
+     * Creates coin reward requestor.
+     *
+     * @param coinRewardType coin reward type
+     * @param httpClient HTTP client
+     * @param endpointsUpdate endpoints update
+     * @param executor executor for refreshing and parallel requesting, see {@link RefreshExecutors}
+     * @return coin reward requestor
+     */
+    public static CoinRewardRequestor create(CoinRewardType coinRewardType, OkHttpClient httpClient, int endpointsUpdate,
+            Executor executor) {
+        return create(coinRewardType, httpClient, endpointsUpdate, executor, null);
+    }
+
+    /**
+     * Creates coin reward requestor.
+     *
+     * @param coinRewardType coin reward type
+     * @param httpClient HTTP client
+     * @param endpointsUpdate endpoints update
+     * @param bulkRefresh flag of refreshing all coins with one request of aggregated coins listing
+     * @return coin reward requestor
+     */
+    public static CoinRewardRequestor create(CoinRewardType coinRewardType, OkHttpClient httpClient, int endpointsUpdate,
+            boolean bulkRefresh) {
+        return create(coinRewardType, httpClient, endpointsUpdate, RefreshExecutors.getDefault(), null, bulkRefresh);
+    }
+
+    /**
+     * Creates coin reward requestor.
+     *
+     * @param coinRewardType coin reward type
+     * @param httpClient HTTP client
+     * @param endpointsUpdate endpoints update
+     * @param executor executor for refreshing and parallel requesting, see {@link RefreshExecutors}
+     * @param refreshTracer tracer of refreshes, or null if refreshes are not traced
+     * @return coin reward requestor
+     */
+    public static CoinRewardRequestor create(CoinRewardType coinRewardType, OkHttpClient httpClient, int endpointsUpdate,
+            Executor executor, RefreshTracer refreshTracer) {
+        return create(coinRewardType, httpClient, endpointsUpdate, executor, refreshTracer, false);
+    }
+
+    /**
+     * Creates coin reward requestor.
+     *
+     * @param coinRewardType coin reward type
+     * @param httpClient HTTP client
+     * @param endpointsUpdate endpoints update
+     * @param executor executor for refreshing and parallel requesting, see {@link RefreshExecutors}
+     * @param refreshTracer tracer of refreshes, or null if refreshes are not traced
+     * @param bulkRefresh flag of refreshing all coins with one request of aggregated coins listing
+     * @return coin reward requestor
+     */
+    public static CoinRewardRequestor create(CoinRewardType coinRewardType, OkHttpClient httpClient, int endpointsUpdate,
+            Executor executor, RefreshTracer refreshTracer, boolean bulkRefresh) {
         switch (coinRewardType) {
         case WHAT_TO_MINE: {
-            return new WhatToMineRequestor(httpClient, endpointsUpdate);
+            EndpointRegistry endpointRegistry = EndpointRegistry.getDefault();
+            return new WhatToMineRequestor(httpClient,
+                                           endpointsUpdate,
+                                           endpointRegistry,
+                                           bulkRefresh,
+                                           executor,
+                                           getRequestBudget(endpointRegistry.getHost()),
+                                           refreshTracer);
         }
         default:
             throw new IllegalArgumentException(coinRewardType.name());
         }
     }
 
+    /**
+     * Creates coin reward requestor and preloads all coins of coin reward type, see {@link CoinRewardPreload}.
+     *
+     * @param coinRewardType coin reward type
+     * @param httpClient HTTP client
+     * @param deadlineMillis deadline of preloading in milliseconds, preloading continues after it in background
+     * @return preload, which keeps requestor and reports readiness
+     * @throws InterruptedException if current thread is interrupted while waiting for preloading
+     */
+    public static CoinRewardPreload preload(CoinRewardType coinRewardType, OkHttpClient httpClient, long deadlineMillis)
+            throws InterruptedException {
+        return preload(coinRewardType, create(coinRewardType, httpClient), deadlineMillis);
+    }
+
+    /**
+     * Preloads all coins of coin reward type by requestor, see {@link CoinRewardPreload}.
+     *
+     * @param coinRewardType coin reward type
+     * @param coinRewardRequestor coin reward requestor
+     * @param deadlineMillis deadline of preloading in milliseconds, preloading continues after it in background
+     * @return preload, which keeps requestor and reports readiness
+     * @throws InterruptedException if current thread is interrupted while waiting for preloading
+     */
+    public static CoinRewardPreload preload(CoinRewardType coinRewardType, CoinRewardRequestor coinRewardRequestor,
+            long deadlineMillis) throws InterruptedException {
+        CoinRewardPreload coinRewardPreload = new CoinRewardPreload(coinRewardRequestor, coinRewardType.getCoinTypeList());
+        coinRewardPreload.await(deadlineMillis);
+        return coinRewardPreload;
+    }
+
+    /**
+     * Gets budget of upstream requests of host, which is shared by all created requestors. Budget is created with default
+     * capacity and refill rate on the first call, unless it is set by {@link #setRequestBudget(String, RequestBudget)}.
+     *
+     * @param host host, or null if there are no endpoints
+     * @return budget of upstream requests, or null if host is null
+     */
+    public static RequestBudget getRequestBudget(String host) {
+        return host == null ? null : REQUEST_BUDGET_MAP.computeIfAbsent(host, k -> new RequestBudget());
+    }
+
+    /**
+     * Sets budget of upstream requests of host, which is used by requestors created afterwards.
+     *
+     * @param host host
+     * @param requestBudget budget of upstream requests
+     */
+    public static void setRequestBudget(String host, RequestBudget requestBudget) {
+        if (host == null || requestBudget == null) {
+            throw new IllegalArgumentException("Host and budget must be set");
+        }
+        REQUEST_BUDGET_MAP.put(host, requestBudget);
+    }
+
 }
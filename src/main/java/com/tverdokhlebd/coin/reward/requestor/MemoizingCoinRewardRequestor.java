@@ -0,0 +1,388 @@
+package com.tverdokhlebd.coin.reward.requestor;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.tverdokhlebd.coin.reward.CalculatorVersion;
+import com.tverdokhlebd.coin.reward.CoinReward;
+import com.tverdokhlebd.coin.reward.HashrateUnit;
+import com.tverdokhlebd.coin.reward.event.CoinRewardEvent;
+import com.tverdokhlebd.coin.reward.event.CoinRewardListener;
+import com.tverdokhlebd.coin.reward.event.CoinRewardSubscription;
+import com.tverdokhlebd.mining.commons.coin.CoinType;
+
+/**
+ * Requestor, which memoizes coin rewards of another requestor for short time.
+ *
+ * Rewards are keyed by type of coin and reported hashrate. Every hit checks version of memoized reward against version of
+ * cached calculator of requestor, so reward of replaced calculator is never served, even before event of replacing is
+ * delivered. Events only remove rewards of replaced calculators eagerly. Identical concurrent requests are collapsed: the
+ * first caller requests reward, other callers wait for it. Failures are not memoized. Memo is bounded, when it is full, the
+ * oldest rewards are evicted.
+ *
+ * Primitive requests and requests with retained versions are not memoized, they are already cheaper than lookup of memo or
+ * rare.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class MemoizingCoinRewardRequestor implements CoinRewardRequestor, CoinRewardListener, AutoCloseable {
+
+    /** Default maximal count of memoized rewards. */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+    /** Default time to live of memoized rewards in milliseconds. */
+    public static final long DEFAULT_TTL_MILLIS = 1000;
+    /** Requestor of coin rewards. */
+    private final CoinRewardRequestor coinRewardRequestor;
+    /** Maximal count of memoized rewards. */
+    private final int maxSize;
+    /** Time to live of memoized rewards in nanoseconds. */
+    private final long ttlNanos;
+    /** Map of memoized rewards. */
+    private final ConcurrentMap<MemoKey, Memo> memoMap = new ConcurrentHashMap<>();
+    /** Queue of memoized rewards in order of memoizing, it may keep rewards, which are already removed from map. */
+    private final Queue<Memo> memoQueue = new ConcurrentLinkedQueue<>();
+    /** Length of queue of memoized rewards. */
+    private final AtomicInteger memoQueueLength = new AtomicInteger();
+    /** Count of requests served by memo. */
+    private final LongAdder hitCount = new LongAdder();
+    /** Count of requests passed to requestor. */
+    private final LongAdder missCount = new LongAdder();
+    /** Count of evicted rewards. */
+    private final LongAdder evictionCount = new LongAdder();
+    /** Subscription to events of replacing calculators. */
+    private final CoinRewardSubscription subscription;
+
+    /**
+     * Creates instance with {@link #DEFAULT_MAX_SIZE} and {@link #DEFAULT_TTL_MILLIS}.
+     *
+     * @param coinRewardRequestor requestor of coin rewards
+     */
+    public MemoizingCoinRewardRequestor(CoinRewardRequestor coinRewardRequestor) {
+        this(coinRewardRequestor, DEFAULT_MAX_SIZE, DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * Creates instance.
+     *
+     * @param coinRewardRequestor requestor of coin rewards
+     * @param maxSize maximal count of memoized rewards
+     * @param ttlMillis time to live of memoized rewards in milliseconds
+     */
+    public MemoizingCoinRewardRequestor(CoinRewardRequestor coinRewardRequestor, int maxSize, long ttlMillis) {
+        super();
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Maximal size must be positive");
+        }
+        this.coinRewardRequestor = coinRewardRequestor;
+        this.maxSize = maxSize;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.subscription = coinRewardRequestor.subscribe(this);
+    }
+
+    @Override
+    public CoinReward requestCoinReward(CoinType coinType, BigDecimal reportedHashrate) throws CoinRewardRequestorException {
+        try {
+            return memoize(coinType, reportedHashrate, false).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof CoinRewardRequestorException) {
+                throw (CoinRewardRequestorException) e.getCause();
+            }
+            throw (RuntimeException) e.getCause();
+        }
+    }
+
+    @Override
+    public CoinReward requestCoinReward(CoinType coinType, BigDecimal reportedHashrate, CalculatorVersion version) {
+        return coinRewardRequestor.requestCoinReward(coinType, reportedHashrate, version);
+    }
+
+    @Override
+    public List<CalculatorVersion> getRetainedVersions(CoinType coinType) {
+        return coinRewardRequestor.getRetainedVersions(coinType);
+    }
+
+    @Override
+    public CalculatorVersion getCachedVersion(CoinType coinType) {
+        return coinRewardRequestor.getCachedVersion(coinType);
+    }
+
+    @Override
+    public void requestCoinReward(CoinType coinType, double reportedHashrate, HashrateUnit hashrateUnit, double[] rewards)
+            throws CoinRewardRequestorException {
+        coinRewardRequestor.requestCoinReward(coinType, reportedHashrate, hashrateUnit, rewards);
+    }
+
+    @Override
+    public CompletableFuture<CoinReward> requestCoinRewardAsync(CoinType coinType, BigDecimal reportedHashrate) {
+        return memoize(coinType, reportedHashrate, true);
+    }
+
+    @Override
+    public Map<CoinType, CoinReward> requestCoinRewards(Map<CoinType, BigDecimal> reportedHashrateMap)
+            throws CoinRewardRequestorException {
+        Map<CoinType, CompletableFuture<CoinReward>> futureMap = new EnumMap<>(CoinType.class);
+        for (Entry<CoinType, BigDecimal> reportedHashrateEntry : reportedHashrateMap.entrySet()) {
+            futureMap.put(reportedHashrateEntry.getKey(),
+                          requestCoinRewardAsync(reportedHashrateEntry.getKey(), reportedHashrateEntry.getValue()));
+        }
+        Map<CoinType, CoinReward> coinRewardMap = new EnumMap<>(CoinType.class);
+        try {
+            for (Entry<CoinType, CompletableFuture<CoinReward>> futureEntry : futureMap.entrySet()) {
+                coinRewardMap.put(futureEntry.getKey(), futureEntry.getValue().join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof CoinRewardRequestorException) {
+                throw (CoinRewardRequestorException) e.getCause();
+            }
+            throw (RuntimeException) e.getCause();
+        }
+        return coinRewardMap;
+    }
+
+    @Override
+    public CoinRewardSubscription subscribe(CoinRewardListener coinRewardListener) {
+        return coinRewardRequestor.subscribe(coinRewardListener);
+    }
+
+    @Override
+    public CoinRewardSubscription subscribe(CoinRewardListener coinRewardListener, int bufferSize) {
+        return coinRewardRequestor.subscribe(coinRewardListener, bufferSize);
+    }
+
+    @Override
+    public void onCoinRewardChanged(CoinRewardEvent coinRewardEvent) {
+        CoinType coinType = coinRewardEvent.getCoinType();
+        memoMap.keySet().removeIf(memoKey -> memoKey.coinType == coinType);
+    }
+
+    /**
+     * Gets count of requests served by memo, including requests, which waited for identical request in progress.
+     *
+     * @return count of hits
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * Gets count of requests passed to requestor.
+     *
+     * @return count of misses
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Gets count of rewards evicted because memo is full.
+     *
+     * @return count of evictions
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Gets count of memoized rewards.
+     *
+     * @return count of memoized rewards
+     */
+    public int getSize() {
+        return memoMap.size();
+    }
+
+    /**
+     * Cancels subscription to events of requestor and clears memo.
+     */
+    @Override
+    public void close() {
+        subscription.cancel();
+        memoMap.clear();
+        memoQueue.clear();
+        memoQueueLength.set(0);
+    }
+
+    /**
+     * Gets memoized reward, or requests it if it is absent, expired or calculated by replaced calculator.
+     *
+     * @param coinType type of coin
+     * @param reportedHashrate reported hashrate in H/s
+     * @param async true, if reward is requested on executor of requestor, otherwise on current thread
+     * @return future of coin reward
+     */
+    private CompletableFuture<CoinReward> memoize(CoinType coinType, BigDecimal reportedHashrate, boolean async) {
+        MemoKey memoKey = new MemoKey(coinType, reportedHashrate);
+        CalculatorVersion cachedVersion = coinRewardRequestor.getCachedVersion(coinType);
+        long nowNanos = System.nanoTime();
+        Memo memo = memoMap.get(memoKey);
+        while (memo == null || memo.isStale(nowNanos, cachedVersion)) {
+            Memo newMemo = new Memo(memoKey, nowNanos + ttlNanos);
+            if (memo == null) {
+                memo = memoMap.putIfAbsent(memoKey, newMemo);
+            } else {
+                memo = memoMap.replace(memoKey, memo, newMemo) ? null : memoMap.get(memoKey);
+            }
+            if (memo == null) {
+                missCount.increment();
+                memoQueue.add(newMemo);
+                memoQueueLength.incrementAndGet();
+                evict();
+                request(newMemo, async);
+                return newMemo.future;
+            }
+        }
+        hitCount.increment();
+        return memo.future;
+    }
+
+    /**
+     * Requests reward of memo from requestor. Failed memo is removed, so next request is passed to requestor again.
+     *
+     * @param memo memo
+     * @param async true, if reward is requested on executor of requestor, otherwise on current thread
+     */
+    private void request(Memo memo, boolean async) {
+        MemoKey memoKey = memo.memoKey;
+        if (async) {
+            coinRewardRequestor.requestCoinRewardAsync(memoKey.coinType, memoKey.reportedHashrate).whenComplete((coinReward, e) -> {
+                if (e == null) {
+                    memo.future.complete(coinReward);
+                } else {
+                    memoMap.remove(memoKey, memo);
+                    memo.future.completeExceptionally(e instanceof CompletionException ? e.getCause() : e);
+                }
+            });
+            return;
+        }
+        try {
+            memo.future.complete(coinRewardRequestor.requestCoinReward(memoKey.coinType, memoKey.reportedHashrate));
+        } catch (CoinRewardRequestorException | RuntimeException e) {
+            memoMap.remove(memoKey, memo);
+            memo.future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Evicts the oldest rewards while memo is over its maximal size. Queue entries of rewards, which are already replaced or
+     * removed, are dropped on the way, and queue is also trimmed when it grows over twice maximal size, so queue stays
+     * bounded even if memo never fills up.
+     */
+    private void evict() {
+        while (memoMap.size() > maxSize || memoQueueLength.get() > 2 * maxSize) {
+            Memo memo = memoQueue.poll();
+            if (memo == null) {
+                return;
+            }
+            memoQueueLength.decrementAndGet();
+            if (memoMap.remove(memo.memoKey, memo)) {
+                evictionCount.increment();
+            }
+        }
+    }
+
+    /**
+     * Key of memoized reward.
+     *
+     * @author Dmitry Tverdokhleb
+     *
+     */
+    private static class MemoKey {
+
+        /** Type of coin. */
+        private final CoinType coinType;
+        /** Reported hashrate in H/s, its scale is a part of key, because it affects precision of rewards. */
+        private final BigDecimal reportedHashrate;
+
+        /**
+         * Creates instance.
+         *
+         * @param coinType type of coin
+         * @param reportedHashrate reported hashrate in H/s
+         */
+        MemoKey(CoinType coinType, BigDecimal reportedHashrate) {
+            this.coinType = coinType;
+            this.reportedHashrate = reportedHashrate;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof MemoKey)) {
+                return false;
+            }
+            MemoKey other = (MemoKey) obj;
+            return coinType == other.coinType && reportedHashrate.equals(other.reportedHashrate);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * coinType.hashCode() + reportedHashrate.hashCode();
+        }
+
+    }
+
+    /**
+     * Memoized reward.
+     *
+     * @author Dmitry Tverdokhleb
+     *
+     */
+    private static class Memo {
+
+        /** Key of memo. */
+        private final MemoKey memoKey;
+        /** Future of coin reward. */
+        private final CompletableFuture<CoinReward> future = new CompletableFuture<>();
+        /** Expiration time in nanoseconds. */
+        private final long expiresNanos;
+
+        /**
+         * Creates instance.
+         *
+         * @param memoKey key of memo
+         * @param expiresNanos expiration time in nanoseconds
+         */
+        Memo(MemoKey memoKey, long expiresNanos) {
+            this.memoKey = memoKey;
+            this.expiresNanos = expiresNanos;
+        }
+
+        /**
+         * Checks if memo is expired or its reward is calculated by another calculator than cached one. Reward in progress
+         * is never stale, so identical requests keep waiting for it.
+         *
+         * @param nowNanos current time in nanoseconds
+         * @param cachedVersion version of cached calculator, or null if it is unknown
+         * @return true, if memo is stale
+         */
+        boolean isStale(long nowNanos, CalculatorVersion cachedVersion) {
+            if (!future.isDone()) {
+                return false;
+            }
+            if (nowNanos - expiresNanos > 0) {
+                return true;
+            }
+            if (cachedVersion == null || future.isCompletedExceptionally()) {
+                return false;
+            }
+            return !cachedVersion.equals(future.getNow(null).getCalculatorVersion());
+        }
+
+    }
+
+}
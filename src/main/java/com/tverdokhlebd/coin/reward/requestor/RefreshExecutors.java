@@ -0,0 +1,129 @@
+package com.tverdokhlebd.coin.reward.requestor;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory of executors for refreshing coin reward calculators.
+ *
+ * Refreshing blocks on HTTP calls, so on JDK with virtual threads every refresh gets its own virtual thread. On older
+ * JDK, e.g. Java 8, refreshes run on bounded pool of daemon platform threads.
+ *
+ * Executor runs only asynchronous and parallel requests, i.e. {@link CoinRewardRequestor#requestCoinRewardAsync} and
+ * {@link CoinRewardRequestor#requestCoinRewards}. Synchronous {@link CoinRewardRequestor#requestCoinReward} refreshes on
+ * the calling thread, sharing single flight with refreshes on executor, so its blocking is bounded by the caller's own
+ * threads, not by executor.
+ *
+ * OkHttp 3 blocks inside {@code synchronized} sections, e.g. of its connection pool, and on JDK 21 to 23 such blocking
+ * pins virtual thread to its carrier thread. Many concurrent refreshes on virtual threads may therefore occupy all carrier
+ * threads, so on these JDK a bounded pool of {@link #createBoundedExecutor(int)} is safer for heavy refreshing.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class RefreshExecutors {
+
+    /** Default count of threads of bounded pool. */
+    public static final int DEFAULT_THREADS = 16;
+    /** Keep alive time of idle threads of bounded pool in seconds. */
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    /** Factory method of virtual thread executor, or null if virtual threads are not available. */
+    private static final Method VIRTUAL_THREAD_EXECUTOR_METHOD = findVirtualThreadExecutorMethod();
+
+    /**
+     * Gets default executor shared by requestors, see {@link #create()}.
+     *
+     * @return default executor
+     */
+    public static ExecutorService getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Creates executor, which uses virtual threads if they are available, otherwise bounded pool with
+     * {@link #DEFAULT_THREADS} threads.
+     *
+     * @return executor
+     */
+    public static ExecutorService create() {
+        return isVirtualThreadsAvailable() ? createVirtualThreadExecutor() : createBoundedExecutor(DEFAULT_THREADS);
+    }
+
+    /**
+     * Checks if virtual threads are available in running JDK.
+     *
+     * @return true, if virtual threads are available
+     */
+    public static boolean isVirtualThreadsAvailable() {
+        return VIRTUAL_THREAD_EXECUTOR_METHOD != null;
+    }
+
+    /**
+     * Creates executor, which starts new virtual thread for every task.
+     *
+     * @return executor
+     * @throws UnsupportedOperationException if virtual threads are not available
+     */
+    public static ExecutorService createVirtualThreadExecutor() {
+        if (VIRTUAL_THREAD_EXECUTOR_METHOD == null) {
+            throw new UnsupportedOperationException("Virtual threads are not available");
+        }
+        try {
+            return (ExecutorService) VIRTUAL_THREAD_EXECUTOR_METHOD.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Creates bounded pool of daemon threads. Tasks are queued when all threads are busy.
+     *
+     * @param threads count of threads
+     * @return executor
+     */
+    public static ExecutorService createBoundedExecutor(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "coin-reward-refresh-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor =
+                new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Finds factory method of virtual thread executor.
+     *
+     * @return factory method, or null if virtual threads are not available
+     */
+    private static Method findVirtualThreadExecutorMethod() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            // Virtual threads are preview feature before Java 21 and the method throws if preview is not enabled
+            ((ExecutorService) method.invoke(null)).shutdown();
+            return method;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lazy holder of default executor.
+     */
+    private static class DefaultHolder {
+
+        /** Default executor. */
+        private static final ExecutorService INSTANCE = create();
+
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.tverdokhlebd.coin.reward.requestor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.tverdokhlebd.mining.commons.http.RequestException;
+
+/**
+ * Refreshes in progress by key, e.g. name of coin or url of aggregated listing of coins. Concurrent refreshes with the
+ * same key are collapsed into one: the first caller runs it, other callers wait for it and get the same outcome.
+ *
+ * Requestors, which share cache of calculators, must share flights too, so upstream is requested once whatever count of
+ * requestors is.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class RefreshFlights {
+
+    /** Map of refreshes in progress by key. */
+    private final ConcurrentMap<String, CompletableFuture<Void>> flightMap = new ConcurrentHashMap<>();
+
+    /**
+     * Runs refresh, or waits for refresh with the same key, which is already in progress.
+     *
+     * @param key key of refresh
+     * @param refreshTask task of refreshing
+     * @throws RequestException if there is any error in refreshing
+     */
+    public void refresh(String key, RefreshTask refreshTask) throws RequestException {
+        CompletableFuture<Void> flight = new CompletableFuture<>();
+        CompletableFuture<Void> currentFlight = flightMap.putIfAbsent(key, flight);
+        if (currentFlight != null) {
+            await(currentFlight);
+            return;
+        }
+        try {
+            refreshTask.run();
+            flight.complete(null);
+        } catch (RequestException | RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flightMap.remove(key, flight);
+        }
+    }
+
+    /**
+     * Waits for refresh in progress.
+     *
+     * @param flight refresh in progress
+     * @throws RequestException if there is any error in refreshing
+     */
+    private static void await(CompletableFuture<Void> flight) throws RequestException {
+        try {
+            flight.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RequestException) {
+                throw (RequestException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+
+    /**
+     * Task of refreshing.
+     *
+     * @author Dmitry Tverdokhleb
+     *
+     */
+    @FunctionalInterface
+    public interface RefreshTask {
+
+        /**
+         * Runs refreshing.
+         *
+         * @throws RequestException if there is any error in refreshing
+         */
+        void run() throws RequestException;
+
+    }
+
+}
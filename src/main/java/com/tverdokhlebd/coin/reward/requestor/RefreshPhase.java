@@ -0,0 +1,30 @@
+package com.tverdokhlebd.coin.reward.requestor;
+
+/**
+ * Phases of refreshing coin reward calculator, which are timed by {@link RefreshTracer}.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public enum RefreshPhase {
+
+    /** Resolving of host name. */
+    DNS,
+    /** Connecting of socket, without TLS handshake. */
+    CONNECT,
+    /** TLS handshake. */
+    TLS,
+    /** Writing of request. */
+    REQUEST,
+    /** Waiting for response and reading of response headers after request is written. */
+    WAIT,
+    /** Reading of response body. */
+    RESPONSE_BODY,
+    /** Checking of API error in response. */
+    CHECK_API_ERROR,
+    /** Parsing of response. */
+    PARSE_RESPONSE,
+    /** Caching of new calculators and publishing of events. */
+    PUBLISH
+
+}
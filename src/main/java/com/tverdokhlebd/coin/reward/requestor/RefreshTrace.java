@@ -0,0 +1,155 @@
+package com.tverdokhlebd.coin.reward.requestor;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import com.tverdokhlebd.mining.commons.coin.CoinType;
+import com.tverdokhlebd.mining.commons.http.ErrorCode;
+
+/**
+ * Timings of phases of one refresh of coin reward calculator. Phases of several HTTP calls of refresh are summed.
+ *
+ * Trace is filled by refreshing thread and is read only after refresh is finished, see
+ * {@link RefreshTracer#getSlowestRefreshes()}.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class RefreshTrace {
+
+    /** Phases of refreshing. */
+    private static final RefreshPhase[] REFRESH_PHASES = RefreshPhase.values();
+
+    /** Type of coin. */
+    private final CoinType coinType;
+    /** Start date of refresh. */
+    private final Date startDate;
+    /** Start time of refresh in nanoseconds. */
+    private final long startNanos;
+    /** Durations of phases in nanoseconds by ordinal of phase. */
+    private final long[] phaseNanos = new long[REFRESH_PHASES.length];
+    /** Duration of refresh in nanoseconds. */
+    private long totalNanos;
+    /** Count of HTTP calls. */
+    private int callCount;
+    /** Error code of failed refresh, or null if refresh is succeeded. */
+    private ErrorCode errorCode;
+
+    /**
+     * Creates instance.
+     *
+     * @param coinType type of coin
+     */
+    RefreshTrace(CoinType coinType) {
+        this.coinType = coinType;
+        this.startDate = new Date();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Adds duration to phase.
+     *
+     * @param refreshPhase phase of refreshing
+     * @param nanos duration in nanoseconds
+     */
+    public void addPhase(RefreshPhase refreshPhase, long nanos) {
+        phaseNanos[refreshPhase.ordinal()] += nanos;
+    }
+
+    /**
+     * Counts HTTP call.
+     */
+    void addCall() {
+        callCount++;
+    }
+
+    /**
+     * Finishes refresh.
+     *
+     * @param errorCode error code of failed refresh, or null if refresh is succeeded
+     */
+    void finish(ErrorCode errorCode) {
+        this.totalNanos = System.nanoTime() - startNanos;
+        this.errorCode = errorCode;
+    }
+
+    /**
+     * Gets coin type.
+     *
+     * @return coin type
+     */
+    public CoinType getCoinType() {
+        return coinType;
+    }
+
+    /**
+     * Gets start date of refresh.
+     *
+     * @return start date of refresh
+     */
+    public Date getStartDate() {
+        return startDate;
+    }
+
+    /**
+     * Gets duration of phase in nanoseconds.
+     *
+     * @param refreshPhase phase of refreshing
+     * @return duration of phase in nanoseconds
+     */
+    public long getPhaseNanos(RefreshPhase refreshPhase) {
+        return phaseNanos[refreshPhase.ordinal()];
+    }
+
+    /**
+     * Gets duration of refresh in nanoseconds.
+     *
+     * @return duration of refresh in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Gets count of HTTP calls.
+     *
+     * @return count of HTTP calls
+     */
+    public int getCallCount() {
+        return callCount;
+    }
+
+    /**
+     * Gets error code of failed refresh.
+     *
+     * @return error code, or null if refresh is succeeded
+     */
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(coinType).append(' ').append(toMillis(totalNanos)).append(" ms");
+        if (errorCode != null) {
+            builder.append(' ').append(errorCode);
+        }
+        builder.append(" [calls=").append(callCount);
+        for (RefreshPhase refreshPhase : REFRESH_PHASES) {
+            builder.append(", ").append(refreshPhase).append('=').append(toMillis(getPhaseNanos(refreshPhase)));
+        }
+        return builder.append(']').toString();
+    }
+
+    /**
+     * Converts nanoseconds to milliseconds with fraction.
+     *
+     * @param nanos nanoseconds
+     * @return milliseconds
+     */
+    private static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.tverdokhlebd.coin.reward.requestor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.tverdokhlebd.mining.commons.coin.CoinType;
+import com.tverdokhlebd.mining.commons.http.ErrorCode;
+
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+
+/**
+ * Opt-in tracer of refreshes of coin reward calculators. Network phases are timed by listener of HTTP client, see
+ * {@link #instrument(OkHttpClient)}, parsing and publishing are timed by requestor. The slowest refreshes, which are not
+ * faster than threshold, are kept in bounded min-heap by total time, so kept refresh is dropped only by slower one.
+ *
+ * Requestor without tracer does not time anything.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class RefreshTracer {
+
+    /** Default count of kept refreshes. */
+    public static final int DEFAULT_CAPACITY = 32;
+
+    /** Threshold of slow refresh in nanoseconds. */
+    private final long slowThresholdNanos;
+    /** Count of kept refreshes. */
+    private final int capacity;
+    /** Min-heap of the slowest refreshes by total time. */
+    private final PriorityQueue<RefreshTrace> refreshTraceHeap;
+    /** Trace of refresh, which is running on current thread. */
+    private final ThreadLocal<RefreshTrace> currentRefreshTrace = new ThreadLocal<>();
+
+    /**
+     * Creates instance with {@link #DEFAULT_CAPACITY} and without threshold.
+     */
+    public RefreshTracer() {
+        this(DEFAULT_CAPACITY, 0);
+    }
+
+    /**
+     * Creates instance.
+     *
+     * @param capacity count of kept refreshes
+     * @param slowThresholdMillis threshold of slow refresh in milliseconds, faster refreshes are not kept
+     */
+    public RefreshTracer(int capacity, long slowThresholdMillis) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.capacity = capacity;
+        this.refreshTraceHeap = new PriorityQueue<>(capacity, Comparator.comparingLong(RefreshTrace::getTotalNanos));
+    }
+
+    /**
+     * Creates HTTP client, which shares connection pool and dispatcher with given one and times network phases of calls
+     * made by traced refreshes.
+     *
+     * @param httpClient HTTP client
+     * @return instrumented HTTP client
+     */
+    public OkHttpClient instrument(OkHttpClient httpClient) {
+        EventListener.Factory eventListenerFactory = httpClient.eventListenerFactory();
+        return httpClient.newBuilder().eventListenerFactory(call -> {
+            EventListener eventListener = eventListenerFactory.create(call);
+            RefreshTrace refreshTrace = currentRefreshTrace.get();
+            return refreshTrace == null ? eventListener : new TracingEventListener(eventListener, refreshTrace);
+        }).build();
+    }
+
+    /**
+     * Gets the slowest refreshes, the slowest first.
+     *
+     * @return list of traces of refreshes
+     */
+    public synchronized List<RefreshTrace> getSlowestRefreshes() {
+        List<RefreshTrace> refreshTraceList = new ArrayList<>(refreshTraceHeap);
+        refreshTraceList.sort(Comparator.comparingLong(RefreshTrace::getTotalNanos).reversed());
+        return refreshTraceList;
+    }
+
+    /**
+     * Starts trace of refresh on current thread.
+     *
+     * @param coinType type of coin
+     * @return trace of refresh
+     */
+    RefreshTrace start(CoinType coinType) {
+        RefreshTrace refreshTrace = new RefreshTrace(coinType);
+        currentRefreshTrace.set(refreshTrace);
+        return refreshTrace;
+    }
+
+    /**
+     * Gets trace of refresh, which is running on current thread.
+     *
+     * @return trace of refresh, or null if refresh is not traced
+     */
+    RefreshTrace getCurrentRefreshTrace() {
+        return currentRefreshTrace.get();
+    }
+
+    /**
+     * Finishes trace of refresh on current thread and keeps it if refresh is slow and it is slower than the fastest kept
+     * one or there is free place.
+     *
+     * @param refreshTrace trace of refresh
+     * @param errorCode error code of failed refresh, or null if refresh is succeeded
+     */
+    void finish(RefreshTrace refreshTrace, ErrorCode errorCode) {
+        currentRefreshTrace.remove();
+        refreshTrace.finish(errorCode);
+        if (refreshTrace.getTotalNanos() < slowThresholdNanos) {
+            return;
+        }
+        synchronized (this) {
+            if (refreshTraceHeap.size() < capacity) {
+                refreshTraceHeap.add(refreshTrace);
+            } else if (refreshTraceHeap.peek().getTotalNanos() < refreshTrace.getTotalNanos()) {
+                refreshTraceHeap.poll();
+                refreshTraceHeap.add(refreshTrace);
+            }
+        }
+    }
+
+}
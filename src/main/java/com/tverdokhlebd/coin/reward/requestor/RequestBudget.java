@@ -0,0 +1,188 @@
+package com.tverdokhlebd.coin.reward.requestor;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket budget of upstream requests.
+ *
+ * Every refresh takes one token, tokens are refilled at constant rate up to capacity. Keys (e.g. types of coin) which
+ * were denied wait in priority order by their traffic, i.e. count of lookups since their last refresh: a key is granted
+ * a token only if there are enough tokens for all waiting keys with more traffic. Acquiring never blocks, so callers
+ * can fall back to cached values.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class RequestBudget {
+
+    /** Default capacity of bucket. */
+    public static final int DEFAULT_CAPACITY = 20;
+    /** Default count of tokens refilled per second. */
+    public static final double DEFAULT_REFILL_PER_SECOND = 1;
+    /** Milliseconds in second. */
+    private static final double MILLIS_IN_SECOND = 1000;
+    /** Minimal time in milliseconds after which waiting key is forgotten. */
+    private static final long MIN_WAITING_EXPIRY_MILLIS = 1000;
+    /** Capacity of bucket. */
+    private final double capacity;
+    /** Count of tokens refilled per millisecond. */
+    private final double refillPerMilli;
+    /** Time after which waiting key is forgotten, if it does not try to acquire token again. */
+    private final long waitingExpiryMillis;
+    /** Clock in milliseconds. */
+    private final LongSupplier clock;
+    /** Map of traffic by key. */
+    private final Map<String, LongAdder> trafficMap = new ConcurrentHashMap<>();
+    /** Map of waiting keys. */
+    private final Map<String, Waiting> waitingMap = new HashMap<>();
+    /** Count of available tokens. */
+    private double tokens;
+    /** Time of the last refill. */
+    private long lastRefill;
+
+    /**
+     * Creates instance with default capacity and refill rate.
+     */
+    public RequestBudget() {
+        this(DEFAULT_CAPACITY, DEFAULT_REFILL_PER_SECOND);
+    }
+
+    /**
+     * Creates instance.
+     *
+     * @param capacity capacity of bucket, i.e. the biggest burst of requests
+     * @param refillPerSecond count of tokens refilled per second, i.e. sustained rate of requests
+     */
+    public RequestBudget(int capacity, double refillPerSecond) {
+        this(capacity, refillPerSecond, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates instance.
+     *
+     * @param capacity capacity of bucket, i.e. the biggest burst of requests
+     * @param refillPerSecond count of tokens refilled per second, i.e. sustained rate of requests
+     * @param clock clock in milliseconds
+     */
+    public RequestBudget(int capacity, double refillPerSecond, LongSupplier clock) {
+        super();
+        if (capacity < 1 || !(refillPerSecond > 0)) {
+            throw new IllegalArgumentException("Capacity and refill rate must be positive");
+        }
+        this.capacity = capacity;
+        this.refillPerMilli = refillPerSecond / MILLIS_IN_SECOND;
+        this.waitingExpiryMillis = Math.max(MIN_WAITING_EXPIRY_MILLIS, (long) (2 / refillPerMilli));
+        this.clock = clock;
+        this.tokens = capacity;
+        this.lastRefill = clock.getAsLong();
+    }
+
+    /**
+     * Records lookup of key.
+     *
+     * @param key key, e.g. type of coin
+     */
+    public void recordTraffic(String key) {
+        LongAdder trafficAdder = trafficMap.get(key);
+        if (trafficAdder == null) {
+            trafficAdder = trafficMap.computeIfAbsent(key, k -> new LongAdder());
+        }
+        trafficAdder.increment();
+    }
+
+    /**
+     * Gets traffic of key, i.e. count of lookups since its last refresh.
+     *
+     * @param key key, e.g. type of coin
+     * @return traffic of key
+     */
+    public long getTraffic(String key) {
+        LongAdder trafficAdder = trafficMap.get(key);
+        return trafficAdder == null ? 0 : trafficAdder.sum();
+    }
+
+    /**
+     * Tries to acquire token for key without blocking.
+     *
+     * @param key key, e.g. type of coin
+     * @return true, if token is acquired
+     */
+    public synchronized boolean tryAcquire(String key) {
+        long now = clock.getAsLong();
+        refill(now);
+        LongAdder trafficAdder = trafficMap.get(key);
+        long traffic = trafficAdder == null ? 0 : trafficAdder.sum();
+        int higherPriorityCount = 0;
+        Iterator<Map.Entry<String, Waiting>> iterator = waitingMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Waiting> waitingEntry = iterator.next();
+            Waiting waiting = waitingEntry.getValue();
+            if (now - waiting.time > waitingExpiryMillis) {
+                iterator.remove();
+            } else if (!waitingEntry.getKey().equals(key) && waiting.traffic > traffic) {
+                higherPriorityCount++;
+            }
+        }
+        if (tokens >= higherPriorityCount + 1) {
+            tokens -= 1;
+            waitingMap.remove(key);
+            if (trafficAdder != null) {
+                trafficAdder.reset();
+            }
+            return true;
+        }
+        waitingMap.put(key, new Waiting(traffic, now));
+        return false;
+    }
+
+    /**
+     * Gets count of available tokens.
+     *
+     * @return count of available tokens
+     */
+    public synchronized double getAvailableTokens() {
+        refill(clock.getAsLong());
+        return tokens;
+    }
+
+    /**
+     * Refills tokens.
+     *
+     * @param now current time
+     */
+    private void refill(long now) {
+        if (now > lastRefill) {
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerMilli);
+            lastRefill = now;
+        }
+    }
+
+    /**
+     * Key waiting for token.
+     */
+    private static class Waiting {
+
+        /** Traffic of key. */
+        private final long traffic;
+        /** Time of the last try. */
+        private final long time;
+
+        /**
+         * Creates instance.
+         *
+         * @param traffic traffic of key
+         * @param time time of the last try
+         */
+        Waiting(long traffic, long time) {
+            this.traffic = traffic;
+            this.time = time;
+        }
+
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.tverdokhlebd.coin.reward.requestor;
+
+/**
+ * Exception, which is thrown when budget of upstream requests is exhausted and there is no cached coin reward calculator to
+ * fall back to. Upstream is not requested, so exception has no error code.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class RequestBudgetExhaustedException extends CoinRewardRequestorException {
+
+    /** The Constant serialVersionUID. */
+    private static final long serialVersionUID = -3264583141578012760L;
+
+    /**
+     * Creates instance.
+     *
+     * @param message the detail message
+     */
+    public RequestBudgetExhaustedException(String message) {
+        super(null, message);
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.tverdokhlebd.coin.reward.requestor;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Listener of HTTP call, which adds timings of network phases to refresh trace and passes all events to listener of HTTP
+ * client.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+class TracingEventListener extends EventListener {
+
+    /** Listener of HTTP client. */
+    private final EventListener delegate;
+    /** Trace of refresh, which has started call. */
+    private final RefreshTrace refreshTrace;
+    /** Start time of resolving of host name in nanoseconds. */
+    private long dnsStartNanos;
+    /** Start time of connecting in nanoseconds. */
+    private long connectStartNanos;
+    /** Start time of TLS handshake in nanoseconds. */
+    private long secureConnectStartNanos;
+    /** Duration of TLS handshake of current connecting in nanoseconds. */
+    private long secureConnectNanos;
+    /** Start time of writing of request in nanoseconds. */
+    private long requestStartNanos;
+    /** End time of writing of request in nanoseconds. */
+    private long requestEndNanos;
+    /** Start time of reading of response body in nanoseconds. */
+    private long responseBodyStartNanos;
+
+    /**
+     * Creates instance.
+     *
+     * @param delegate listener of HTTP client
+     * @param refreshTrace trace of refresh, which has started call
+     */
+    TracingEventListener(EventListener delegate, RefreshTrace refreshTrace) {
+        this.delegate = delegate;
+        this.refreshTrace = refreshTrace;
+    }
+
+    @Override
+    public void callStart(Call call) {
+        refreshTrace.addCall();
+        delegate.callStart(call);
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStartNanos = System.nanoTime();
+        delegate.dnsStart(call, domainName);
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        refreshTrace.addPhase(RefreshPhase.DNS, System.nanoTime() - dnsStartNanos);
+        delegate.dnsEnd(call, domainName, inetAddressList);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStartNanos = System.nanoTime();
+        secureConnectNanos = 0;
+        delegate.connectStart(call, inetSocketAddress, proxy);
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        secureConnectStartNanos = System.nanoTime();
+        delegate.secureConnectStart(call);
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        secureConnectNanos = System.nanoTime() - secureConnectStartNanos;
+        refreshTrace.addPhase(RefreshPhase.TLS, secureConnectNanos);
+        delegate.secureConnectEnd(call, handshake);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        refreshTrace.addPhase(RefreshPhase.CONNECT, System.nanoTime() - connectStartNanos - secureConnectNanos);
+        delegate.connectEnd(call, inetSocketAddress, proxy, protocol);
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol, IOException ioe) {
+        refreshTrace.addPhase(RefreshPhase.CONNECT, System.nanoTime() - connectStartNanos - secureConnectNanos);
+        delegate.connectFailed(call, inetSocketAddress, proxy, protocol, ioe);
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        delegate.connectionAcquired(call, connection);
+    }
+
+    @Override
+    public void connectionReleased(Call call, Connection connection) {
+        delegate.connectionReleased(call, connection);
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        requestStartNanos = System.nanoTime();
+        delegate.requestHeadersStart(call);
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestEndNanos = System.nanoTime();
+        refreshTrace.addPhase(RefreshPhase.REQUEST, requestEndNanos - requestStartNanos);
+        delegate.requestHeadersEnd(call, request);
+    }
+
+    @Override
+    public void requestBodyStart(Call call) {
+        requestStartNanos = System.nanoTime();
+        delegate.requestBodyStart(call);
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestEndNanos = System.nanoTime();
+        refreshTrace.addPhase(RefreshPhase.REQUEST, requestEndNanos - requestStartNanos);
+        delegate.requestBodyEnd(call, byteCount);
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        delegate.responseHeadersStart(call);
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        // Reading of headers starts right after request is written, so it includes waiting for the first byte
+        refreshTrace.addPhase(RefreshPhase.WAIT, System.nanoTime() - requestEndNanos);
+        delegate.responseHeadersEnd(call, response);
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        responseBodyStartNanos = System.nanoTime();
+        delegate.responseBodyStart(call);
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        refreshTrace.addPhase(RefreshPhase.RESPONSE_BODY, System.nanoTime() - responseBodyStartNanos);
+        delegate.responseBodyEnd(call, byteCount);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        delegate.callEnd(call);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        delegate.callFailed(call, ioe);
+    }
+
+}
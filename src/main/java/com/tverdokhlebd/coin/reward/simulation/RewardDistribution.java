@@ -0,0 +1,133 @@
+package com.tverdokhlebd.coin.reward.simulation;
+
+import com.tverdokhlebd.mining.commons.coin.CoinType;
+
+/**
+ * Simulated distribution of reward for period, kept as histogram of found blocks.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class RewardDistribution {
+
+    /** Type of coin. */
+    private final CoinType coinType;
+    /** Expected count of found blocks. */
+    private final double expectedBlocks;
+    /** Reward per found block. */
+    private final double rewardPerBlock;
+    /** Count of blocks of the first histogram bucket. */
+    private final int minBlocks;
+    /** Histogram, where histogram[i] is count of trials with minBlocks + i found blocks. */
+    private final long[] histogram;
+    /** Count of trials. */
+    private final long trials;
+
+    /**
+     * Creates instance.
+     *
+     * @param coinType type of coin
+     * @param expectedBlocks expected count of found blocks
+     * @param rewardPerBlock reward per found block
+     * @param minBlocks count of blocks of the first histogram bucket
+     * @param histogram histogram of found blocks
+     */
+    RewardDistribution(CoinType coinType, double expectedBlocks, double rewardPerBlock, int minBlocks, long[] histogram) {
+        super();
+        this.coinType = coinType;
+        this.expectedBlocks = expectedBlocks;
+        this.rewardPerBlock = rewardPerBlock;
+        this.minBlocks = minBlocks;
+        this.histogram = histogram;
+        long trials = 0;
+        for (long count : histogram) {
+            trials += count;
+        }
+        this.trials = trials;
+    }
+
+    /**
+     * Gets coin type.
+     *
+     * @return coin type
+     */
+    public CoinType getCoinType() {
+        return coinType;
+    }
+
+    /**
+     * Gets count of trials.
+     *
+     * @return count of trials
+     */
+    public long getTrials() {
+        return trials;
+    }
+
+    /**
+     * Gets expected count of found blocks.
+     *
+     * @return expected count of found blocks
+     */
+    public double getExpectedBlocks() {
+        return expectedBlocks;
+    }
+
+    /**
+     * Gets expected reward.
+     *
+     * @return expected reward
+     */
+    public double getExpectedReward() {
+        return expectedBlocks * rewardPerBlock;
+    }
+
+    /**
+     * Gets mean of simulated rewards.
+     *
+     * @return mean of simulated rewards
+     */
+    public double getMeanReward() {
+        double sum = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            sum += (double) (minBlocks + i) * histogram[i];
+        }
+        return sum / trials * rewardPerBlock;
+    }
+
+    /**
+     * Gets simulated probability of finding at least given count of blocks.
+     *
+     * @param blocks count of blocks
+     * @return simulated probability
+     */
+    public double getProbabilityOfAtLeast(int blocks) {
+        long count = 0;
+        for (int i = Math.max(0, blocks - minBlocks); i < histogram.length; i++) {
+            count += histogram[i];
+        }
+        return (double) count / trials;
+    }
+
+    /**
+     * Gets percentile of simulated rewards, i.e. reward which is not exceeded in given share of trials.
+     *
+     * @param percentile percentile from 0 to 100
+     * @return percentile of simulated rewards
+     */
+    public double getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be from 0 to 100");
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * trials));
+        long count = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            count += histogram[i];
+            if (count >= rank) {
+                return (minBlocks + i) * rewardPerBlock;
+            }
+        }
+        return (minBlocks + histogram.length - 1) * rewardPerBlock;
+    }
+
+}
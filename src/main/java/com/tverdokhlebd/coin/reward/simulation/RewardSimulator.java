@@ -0,0 +1,208 @@
+package com.tverdokhlebd.coin.reward.simulation;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+
+/**
+ * Monte Carlo simulator of reward distribution for solo and pool mining.
+ *
+ * Count of blocks found during period follows Poisson distribution with mean equal to share of network hashrate
+ * multiplied by count of network blocks during period. Trials are split into fixed count of chunks, each of them is
+ * simulated in parallel with its own generator split from seeded one, so results depend only on seed. Blocks are
+ * drawn by inversion over precomputed cumulative distribution, so inner loop does not allocate.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class RewardSimulator {
+
+    /** Default count of trials. */
+    public static final int DEFAULT_TRIALS = 1000000;
+    /** Count of independently simulated chunks of trials. */
+    private static final int CHUNK_COUNT = 64;
+    /** Count of standard deviations covered by distribution table on each side of mean. */
+    private static final int TABLE_DEVIATIONS = 10;
+    /** Seconds in day. */
+    private static final double SECONDS_IN_DAY = 24 * 60 * 60;
+    /** Count of trials. */
+    private final int trials;
+    /** Seed of generator. */
+    private final long seed;
+
+    /**
+     * Creates instance.
+     *
+     * @param trials count of trials
+     * @param seed seed of generator
+     */
+    public RewardSimulator(int trials, long seed) {
+        super();
+        if (trials < 1) {
+            throw new IllegalArgumentException("Count of trials must be positive");
+        }
+        this.trials = trials;
+        this.seed = seed;
+    }
+
+    /**
+     * Simulates reward distribution of solo mining.
+     *
+     * @param coinRewardCalculator coin reward calculator with network hashrate, block time and block reward
+     * @param reportedHashrate reported hashrate in H/s
+     * @param days period in days
+     * @return reward distribution
+     */
+    public RewardDistribution simulateSolo(CoinRewardCalculator coinRewardCalculator, double reportedHashrate, double days) {
+        double rewardPerBlock = getBlockReward(coinRewardCalculator);
+        return simulate(coinRewardCalculator, getExpectedBlocks(coinRewardCalculator, reportedHashrate, days), rewardPerBlock);
+    }
+
+    /**
+     * Simulates reward distribution of mining in pool, which splits rewards of its blocks proportionally to hashrate.
+     *
+     * @param coinRewardCalculator coin reward calculator with network hashrate, block time and block reward
+     * @param reportedHashrate reported hashrate in H/s
+     * @param poolHashrate hashrate of pool in H/s, including reported hashrate
+     * @param poolFee fee of pool, e.g. 0.01 for 1%
+     * @param days period in days
+     * @return reward distribution
+     */
+    public RewardDistribution simulatePool(CoinRewardCalculator coinRewardCalculator, double reportedHashrate, double poolHashrate,
+            double poolFee, double days) {
+        if (reportedHashrate > poolHashrate) {
+            throw new IllegalArgumentException("Reported hashrate exceeds hashrate of pool");
+        }
+        double rewardPerBlock = getBlockReward(coinRewardCalculator) * reportedHashrate / poolHashrate * (1 - poolFee);
+        return simulate(coinRewardCalculator, getExpectedBlocks(coinRewardCalculator, poolHashrate, days), rewardPerBlock);
+    }
+
+    /**
+     * Simulates reward distribution.
+     *
+     * @param coinRewardCalculator coin reward calculator
+     * @param expectedBlocks expected count of found blocks
+     * @param rewardPerBlock reward per found block
+     * @return reward distribution
+     */
+    private RewardDistribution simulate(CoinRewardCalculator coinRewardCalculator, double expectedBlocks, double rewardPerBlock) {
+        double deviation = Math.sqrt(expectedBlocks);
+        int minBlocks = (int) Math.max(0, Math.floor(expectedBlocks - TABLE_DEVIATIONS * deviation - TABLE_DEVIATIONS));
+        int maxBlocks = (int) Math.ceil(expectedBlocks + TABLE_DEVIATIONS * deviation + TABLE_DEVIATIONS);
+        double[] cumulativeProbabilities = createCumulativeProbabilities(expectedBlocks, minBlocks, maxBlocks);
+        SplittableRandom random = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[CHUNK_COUNT];
+        for (int i = 0; i < CHUNK_COUNT; i++) {
+            randoms[i] = random.split();
+        }
+        long[][] histograms = new long[CHUNK_COUNT][cumulativeProbabilities.length];
+        IntStream.range(0, CHUNK_COUNT).parallel().forEach(chunk -> {
+            int chunkTrials = trials / CHUNK_COUNT + (chunk < trials % CHUNK_COUNT ? 1 : 0);
+            simulateChunk(randoms[chunk], cumulativeProbabilities, chunkTrials, histograms[chunk]);
+        });
+        long[] histogram = new long[cumulativeProbabilities.length];
+        for (long[] chunkHistogram : histograms) {
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += chunkHistogram[i];
+            }
+        }
+        return new RewardDistribution(coinRewardCalculator.getCoinType(), expectedBlocks, rewardPerBlock, minBlocks, histogram);
+    }
+
+    /**
+     * Simulates chunk of trials.
+     *
+     * @param random generator of chunk
+     * @param cumulativeProbabilities cumulative distribution of found blocks
+     * @param chunkTrials count of trials of chunk
+     * @param histogram histogram of found blocks
+     */
+    private static void simulateChunk(SplittableRandom random, double[] cumulativeProbabilities, int chunkTrials, long[] histogram) {
+        int last = cumulativeProbabilities.length - 1;
+        for (int trial = 0; trial < chunkTrials; trial++) {
+            double u = random.nextDouble();
+            int low = 0;
+            int high = last;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (cumulativeProbabilities[middle] <= u) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            histogram[low]++;
+        }
+    }
+
+    /**
+     * Creates cumulative Poisson distribution for range of block counts.
+     *
+     * @param mean mean of distribution
+     * @param minBlocks the first count of blocks
+     * @param maxBlocks the last count of blocks
+     * @return cumulative probabilities, where the last one is 1
+     */
+    private static double[] createCumulativeProbabilities(double mean, int minBlocks, int maxBlocks) {
+        double[] cumulativeProbabilities = new double[maxBlocks - minBlocks + 1];
+        double logProbability = mean > 0 ? -mean + minBlocks * Math.log(mean) - logFactorial(minBlocks) : 0;
+        double cumulativeProbability = 0;
+        for (int blocks = minBlocks; blocks <= maxBlocks; blocks++) {
+            cumulativeProbability += Math.exp(logProbability);
+            cumulativeProbabilities[blocks - minBlocks] = cumulativeProbability;
+            logProbability += mean > 0 ? Math.log(mean / (blocks + 1)) : Double.NEGATIVE_INFINITY;
+        }
+        cumulativeProbabilities[cumulativeProbabilities.length - 1] = 1;
+        return cumulativeProbabilities;
+    }
+
+    /**
+     * Calculates natural logarithm of factorial, using Stirling series for big numbers.
+     *
+     * @param n number
+     * @return logarithm of factorial
+     */
+    private static double logFactorial(int n) {
+        if (n < 20) {
+            double result = 0;
+            for (int i = 2; i <= n; i++) {
+                result += Math.log(i);
+            }
+            return result;
+        }
+        double x = n;
+        return x * Math.log(x) - x + 0.5 * Math.log(2 * Math.PI * x) + 1 / (12 * x) - 1 / (360 * x * x * x);
+    }
+
+    /**
+     * Gets expected count of found blocks.
+     *
+     * @param coinRewardCalculator coin reward calculator
+     * @param hashrate hashrate in H/s
+     * @param days period in days
+     * @return expected count of found blocks
+     */
+    private static double getExpectedBlocks(CoinRewardCalculator coinRewardCalculator, double hashrate, double days) {
+        if (coinRewardCalculator.getNetworkHashrate() == null || coinRewardCalculator.getBlockTime() == null) {
+            throw new IllegalArgumentException("Network hashrate and block time of " + coinRewardCalculator.getCoinType().name()
+                    + " are unknown");
+        }
+        double networkBlocks = days * SECONDS_IN_DAY / coinRewardCalculator.getBlockTime().doubleValue();
+        return hashrate / coinRewardCalculator.getNetworkHashrate().doubleValue() * networkBlocks;
+    }
+
+    /**
+     * Gets reward per block.
+     *
+     * @param coinRewardCalculator coin reward calculator
+     * @return reward per block
+     */
+    private static double getBlockReward(CoinRewardCalculator coinRewardCalculator) {
+        if (coinRewardCalculator.getBlockReward() == null) {
+            throw new IllegalArgumentException("Block reward of " + coinRewardCalculator.getCoinType().name() + " is unknown");
+        }
+        return coinRewardCalculator.getBlockReward().doubleValue();
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.tverdokhlebd.coin.reward.tier;
+
+import static com.tverdokhlebd.coin.reward.CoinRewardCalculator.REWARD_PERIODS;
+import static com.tverdokhlebd.coin.reward.CoinRewardCalculator.REWARD_PER_DAY;
+import static com.tverdokhlebd.coin.reward.CoinRewardCalculator.REWARD_PER_HOUR;
+import static com.tverdokhlebd.coin.reward.CoinRewardCalculator.REWARD_PER_MONTH;
+import static com.tverdokhlebd.coin.reward.CoinRewardCalculator.REWARD_PER_WEEK;
+import static com.tverdokhlebd.coin.reward.CoinRewardCalculator.REWARD_PER_YEAR;
+import static java.math.RoundingMode.HALF_UP;
+
+import java.math.BigDecimal;
+
+import com.tverdokhlebd.coin.reward.CoinReward;
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.coin.reward.HashrateUnit;
+
+/**
+ * Immutable table of coin rewards of one coin reward calculator for quantized hashrate tiers.
+ *
+ * Tier i has hashrate {@code minHashrate + i * step}, rounded to whole H/s for calculating. Rewards are calculated once
+ * with precision of calculator and kept in one primitive array, tier by tier, indexed by periods of
+ * {@link CoinRewardCalculator#REWARD_PERIODS}. So lookup of any tier is one array index.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class RewardTierTable {
+
+    /** Size of header of primitive array in bytes. */
+    private static final int ARRAY_HEADER_BYTES = 16;
+    /** Coin reward calculator. */
+    private final CoinRewardCalculator coinRewardCalculator;
+    /** Unit of hashrate of tiers. */
+    private final HashrateUnit hashrateUnit;
+    /** Hashrate of the first tier. */
+    private final double minHashrate;
+    /** Step of hashrate between tiers. */
+    private final double step;
+    /** Count of tiers. */
+    private final int tierCount;
+    /** Rewards of tiers, where reward of period p of tier i has index i * REWARD_PERIODS + p. */
+    private final double[] rewards;
+
+    /**
+     * Creates instance and calculates rewards of all tiers.
+     *
+     * @param coinRewardCalculator coin reward calculator
+     * @param hashrateUnit unit of hashrate of tiers
+     * @param minHashrate hashrate of the first tier
+     * @param maxHashrate hashrate of the last tier
+     * @param tierCount count of tiers
+     */
+    public RewardTierTable(CoinRewardCalculator coinRewardCalculator, HashrateUnit hashrateUnit, double minHashrate,
+            double maxHashrate, int tierCount) {
+        super();
+        if (tierCount < 2) {
+            throw new IllegalArgumentException("Count of tiers must be at least 2");
+        }
+        if (tierCount > Integer.MAX_VALUE / REWARD_PERIODS) {
+            throw new IllegalArgumentException("Count of tiers must be at most " + Integer.MAX_VALUE / REWARD_PERIODS);
+        }
+        if (!(minHashrate >= 0) || !(maxHashrate > minHashrate)) {
+            throw new IllegalArgumentException("Range of hashrate must be non-negative and not empty");
+        }
+        this.coinRewardCalculator = coinRewardCalculator;
+        this.hashrateUnit = hashrateUnit;
+        this.minHashrate = minHashrate;
+        this.step = (maxHashrate - minHashrate) / (tierCount - 1);
+        this.tierCount = tierCount;
+        this.rewards = new double[tierCount * REWARD_PERIODS];
+        for (int tier = 0; tier < tierCount; tier++) {
+            // Whole H/s like reported hashrates, legacy precision depends on scale of hashrate
+            BigDecimal reportedHashrate = BigDecimal.valueOf(getHashrate(tier)).multiply(hashrateUnit.getHashes())
+                                                    .setScale(0, HALF_UP);
+            CoinReward coinReward = coinRewardCalculator.calculateRewards(reportedHashrate);
+            int offset = tier * REWARD_PERIODS;
+            rewards[offset + REWARD_PER_HOUR] = coinReward.getRewardPerHour().doubleValue();
+            rewards[offset + REWARD_PER_DAY] = coinReward.getRewardPerDay().doubleValue();
+            rewards[offset + REWARD_PER_WEEK] = coinReward.getRewardPerWeek().doubleValue();
+            rewards[offset + REWARD_PER_MONTH] = coinReward.getRewardPerMonth().doubleValue();
+            rewards[offset + REWARD_PER_YEAR] = coinReward.getRewardPerYear().doubleValue();
+        }
+    }
+
+    /**
+     * Gets coin reward calculator.
+     *
+     * @return coin reward calculator
+     */
+    public CoinRewardCalculator getCoinRewardCalculator() {
+        return coinRewardCalculator;
+    }
+
+    /**
+     * Gets unit of hashrate of tiers.
+     *
+     * @return unit of hashrate of tiers
+     */
+    public HashrateUnit getHashrateUnit() {
+        return hashrateUnit;
+    }
+
+    /**
+     * Gets count of tiers.
+     *
+     * @return count of tiers
+     */
+    public int getTierCount() {
+        return tierCount;
+    }
+
+    /**
+     * Gets hashrate of tier.
+     *
+     * @param tier index of tier
+     * @return hashrate of tier in unit of table
+     */
+    public double getHashrate(int tier) {
+        return minHashrate + tier * step;
+    }
+
+    /**
+     * Gets index of the nearest tier of hashrate.
+     *
+     * @param hashrate hashrate in unit of table
+     * @return index of tier, or -1 if hashrate is out of range of table
+     */
+    public int getTier(double hashrate) {
+        double position = (hashrate - minHashrate) / step;
+        if (!(position > -0.5) || !(position < tierCount - 0.5)) {
+            return -1;
+        }
+        return (int) (position + 0.5);
+    }
+
+    /**
+     * Gets reward of tier for period.
+     *
+     * @param tier index of tier
+     * @param period index of period, e.g. {@link CoinRewardCalculator#REWARD_PER_DAY}
+     * @return reward
+     */
+    public double getReward(int tier, int period) {
+        return rewards[tier * REWARD_PERIODS + period];
+    }
+
+    /**
+     * Copies rewards of tier for all periods into array of primitive rewards. Nothing is allocated.
+     *
+     * @param tier index of tier
+     * @param rewards array of at least {@link CoinRewardCalculator#REWARD_PERIODS} length for rewards
+     */
+    public void getRewards(int tier, double[] rewards) {
+        System.arraycopy(this.rewards, tier * REWARD_PERIODS, rewards, 0, REWARD_PERIODS);
+    }
+
+    /**
+     * Gets memory used by rewards of table.
+     *
+     * @return size of array of rewards in bytes
+     */
+    public long getMemoryBytes() {
+        return ARRAY_HEADER_BYTES + (long) Double.BYTES * rewards.length;
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.tverdokhlebd.coin.reward.tier;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.coin.reward.HashrateUnit;
+import com.tverdokhlebd.coin.reward.event.CoinRewardEvent;
+import com.tverdokhlebd.coin.reward.event.CoinRewardListener;
+import com.tverdokhlebd.coin.reward.event.CoinRewardSubscription;
+import com.tverdokhlebd.coin.reward.requestor.CoinRewardRequestor;
+import com.tverdokhlebd.mining.commons.coin.CoinType;
+
+/**
+ * Optional tables of coin rewards for quantized hashrate tiers, one table per coin.
+ *
+ * Subscribed tables are rebuilt whenever coin reward calculator is replaced. Events are delivered on executor of
+ * publisher, so building never blocks refreshing. New table replaces old one atomically, readers see either whole old
+ * table or whole new one.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class RewardTierTables implements CoinRewardListener {
+
+    /** Unit of hashrate of tiers. */
+    private final HashrateUnit hashrateUnit;
+    /** Hashrate of the first tier. */
+    private final double minHashrate;
+    /** Hashrate of the last tier. */
+    private final double maxHashrate;
+    /** Count of tiers. */
+    private final int tierCount;
+    /** Map of tables. */
+    private final Map<CoinType, RewardTierTable> tableMap = new ConcurrentHashMap<>();
+
+    /**
+     * Creates instance.
+     *
+     * @param hashrateUnit unit of hashrate of tiers
+     * @param minHashrate hashrate of the first tier
+     * @param maxHashrate hashrate of the last tier
+     * @param tierCount count of tiers
+     */
+    public RewardTierTables(HashrateUnit hashrateUnit, double minHashrate, double maxHashrate, int tierCount) {
+        super();
+        if (tierCount < 2) {
+            throw new IllegalArgumentException("Count of tiers must be at least 2");
+        }
+        if (!(minHashrate >= 0) || !(maxHashrate > minHashrate)) {
+            throw new IllegalArgumentException("Range of hashrate must be non-negative and not empty");
+        }
+        this.hashrateUnit = hashrateUnit;
+        this.minHashrate = minHashrate;
+        this.maxHashrate = maxHashrate;
+        this.tierCount = tierCount;
+    }
+
+    /**
+     * Subscribes tables to events of replacing coin reward calculators of requestor.
+     *
+     * @param coinRewardRequestor coin reward requestor
+     * @return subscription
+     */
+    public CoinRewardSubscription subscribe(CoinRewardRequestor coinRewardRequestor) {
+        return coinRewardRequestor.subscribe(this);
+    }
+
+    @Override
+    public void onCoinRewardChanged(CoinRewardEvent coinRewardEvent) {
+        build(coinRewardEvent.getCoinRewardCalculator());
+    }
+
+    /**
+     * Builds table of coin reward calculator and replaces table of its coin, e.g. for warming up before the first refresh.
+     * Calculator without base values removes table of its coin.
+     *
+     * @param coinRewardCalculator coin reward calculator
+     * @return new table, or null if calculator has no base values
+     */
+    public RewardTierTable build(CoinRewardCalculator coinRewardCalculator) {
+        CoinType coinType = coinRewardCalculator.getCoinType();
+        if (coinRewardCalculator.getBaseHashrate() == null || coinRewardCalculator.getBaseRewardPerDay() == null) {
+            tableMap.remove(coinType);
+            return null;
+        }
+        RewardTierTable table = new RewardTierTable(coinRewardCalculator, hashrateUnit, minHashrate, maxHashrate, tierCount);
+        tableMap.put(coinType, table);
+        return table;
+    }
+
+    /**
+     * Gets table of coin.
+     *
+     * @param coinType type of coin
+     * @return table, or null if it is not built yet
+     */
+    public RewardTierTable getTable(CoinType coinType) {
+        return tableMap.get(coinType);
+    }
+
+    /**
+     * Gets memory used by rewards of all tables.
+     *
+     * @return size of arrays of rewards in bytes
+     */
+    public long getMemoryBytes() {
+        long memoryBytes = 0;
+        for (RewardTierTable table : tableMap.values()) {
+            memoryBytes += table.getMemoryBytes();
+        }
+        return memoryBytes;
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.tverdokhlebd.coin.reward.whattomine;
+
+import java.math.BigDecimal;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Collections;
+import java.util.List;
+
+import com.tverdokhlebd.coin.reward.PrecisionPolicy;
+import com.tverdokhlebd.mining.commons.coin.CoinType;
+
+/**
+ * WhatToMine endpoint of coin.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class Endpoint {
+
+    /** Default name of reward field. */
+    static final String DEFAULT_REWARD_FIELD = "estimated_rewards";
+    /** Default name of timestamp field. */
+    static final String DEFAULT_TIMESTAMP_FIELD = "timestamp";
+    /** Id of coin which is absent. */
+    static final int NO_ID = 0;
+    /** Type of coin. */
+    private final CoinType coinType;
+    /** WhatToMine id of coin. */
+    private final int id;
+    /** Url of endpoint. */
+    private final String url;
+    /** Base hashrate in H/s. */
+    private final BigDecimal baseHashrate;
+    /** Name of reward field. */
+    private final String rewardField;
+    /** Name of timestamp field. */
+    private final String timestampField;
+    /** Precision of calculating rewards. */
+    private final PrecisionPolicy precisionPolicy;
+    /** List of urls for requestor. */
+    private final List<SimpleEntry<String, String>> urlList;
+
+    /**
+     * Creates instance.
+     *
+     * @param coinType type of coin
+     * @param id WhatToMine id of coin, used for matching coins in bulk response
+     * @param url url of endpoint
+     * @param baseHashrate base hashrate in H/s
+     * @param rewardField name of reward field
+     * @param timestampField name of timestamp field
+     */
+    public Endpoint(CoinType coinType, int id, String url, BigDecimal baseHashrate, String rewardField, String timestampField) {
+        this(coinType, id, url, baseHashrate, rewardField, timestampField, PrecisionPolicy.LEGACY);
+    }
+
+    /**
+     * Creates instance.
+     *
+     * @param coinType type of coin
+     * @param id WhatToMine id of coin, used for matching coins in bulk response
+     * @param url url of endpoint
+     * @param baseHashrate base hashrate in H/s
+     * @param rewardField name of reward field
+     * @param timestampField name of timestamp field
+     * @param precisionPolicy precision of calculating rewards of coin
+     */
+    public Endpoint(CoinType coinType, int id, String url, BigDecimal baseHashrate, String rewardField, String timestampField,
+            PrecisionPolicy precisionPolicy) {
+        super();
+        this.coinType = coinType;
+        this.id = id;
+        this.url = url;
+        this.baseHashrate = baseHashrate;
+        this.rewardField = rewardField;
+        this.timestampField = timestampField;
+        this.precisionPolicy = precisionPolicy;
+        this.urlList = Collections.singletonList(new SimpleEntry<>(coinType.name(), url));
+    }
+
+    /**
+     * Gets coin type.
+     *
+     * @return coin type
+     */
+    public CoinType getCoinType() {
+        return coinType;
+    }
+
+    /**
+     * Gets WhatToMine id of coin.
+     *
+     * @return WhatToMine id of coin
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Gets url of endpoint.
+     *
+     * @return url of endpoint
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Gets base hashrate in H/s.
+     *
+     * @return base hashrate in H/s
+     */
+    public BigDecimal getBaseHashrate() {
+        return baseHashrate;
+    }
+
+    /**
+     * Gets name of reward field.
+     *
+     * @return name of reward field
+     */
+    public String getRewardField() {
+        return rewardField;
+    }
+
+    /**
+     * Gets name of timestamp field.
+     *
+     * @return name of timestamp field
+     */
+    public String getTimestampField() {
+        return timestampField;
+    }
+
+    /**
+     * Gets precision of calculating rewards of coin.
+     *
+     * @return precision of calculating rewards
+     */
+    public PrecisionPolicy getPrecisionPolicy() {
+        return precisionPolicy;
+    }
+
+    /**
+     * Gets list of urls for requestor, where request name is name of coin type.
+     *
+     * @return list of urls
+     */
+    List<SimpleEntry<String, String>> getUrlList() {
+        return urlList;
+    }
+
+}
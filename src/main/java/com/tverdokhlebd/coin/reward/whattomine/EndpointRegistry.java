@@ -0,0 +1,243 @@
+package com.tverdokhlebd.coin.reward.whattomine;
+
+import static com.tverdokhlebd.coin.reward.whattomine.Endpoint.DEFAULT_REWARD_FIELD;
+import static com.tverdokhlebd.coin.reward.whattomine.Endpoint.DEFAULT_TIMESTAMP_FIELD;
+import static com.tverdokhlebd.coin.reward.whattomine.Endpoint.NO_ID;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import com.tverdokhlebd.coin.reward.PrecisionPolicy;
+import com.tverdokhlebd.mining.commons.coin.CoinType;
+
+import okhttp3.HttpUrl;
+
+/**
+ * Registry of WhatToMine endpoints, loaded from JSON config.
+ *
+ * Config has the following format, field names are optional:
+ *
+ * <pre>
+ * {"bulk_url": "https://whattomine.com/coins.json",
+ *  "coins": [{"coin": "BTC", "id": 1, "url": "https://whattomine.com/coins/1.json", "base_hashrate": 14000000000000,
+ *             "reward_field": "estimated_rewards", "timestamp_field": "timestamp",
+ *             "precision": {"scale": 8, "digits": 16, "rounding": "DOWN"}}]}
+ * </pre>
+ *
+ * Bulk url and ids of coins are used only for bulk refreshing. Base hashrates must match the hashrates WhatToMine uses
+ * for both urls. Coins without precision are calculated with {@link PrecisionPolicy#LEGACY}, precision without digits
+ * or rounding uses {@link MathContext#DECIMAL64} ones.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class EndpointRegistry {
+
+    /** System property with path to config file, overrides default config. */
+    public static final String CONFIG_PROPERTY = "coin.reward.whattomine.endpoints";
+    /** Classpath resource of default config. */
+    private static final String DEFAULT_CONFIG_RESOURCE = "endpoints.json";
+    /** Url of aggregated coins listing. */
+    private final String bulkUrl;
+    /** Map of endpoints. */
+    private final Map<CoinType, Endpoint> endpointMap;
+    /** Map of endpoints by WhatToMine id. */
+    private final Map<Integer, Endpoint> endpointIdMap;
+    /** Supported list of coin types in order of endpoints. */
+    private final List<CoinType> coinTypeList;
+
+    /**
+     * Creates instance.
+     *
+     * @param endpointList list of endpoints
+     */
+    public EndpointRegistry(List<Endpoint> endpointList) {
+        this(null, endpointList);
+    }
+
+    /**
+     * Creates instance.
+     *
+     * @param bulkUrl url of aggregated coins listing, or null if bulk refreshing is not supported
+     * @param endpointList list of endpoints
+     */
+    public EndpointRegistry(String bulkUrl, List<Endpoint> endpointList) {
+        super();
+        this.bulkUrl = bulkUrl;
+        Map<CoinType, Endpoint> endpointMap = new EnumMap<>(CoinType.class);
+        Map<Integer, Endpoint> endpointIdMap = new HashMap<>();
+        List<CoinType> coinTypeList = new ArrayList<>(endpointList.size());
+        for (Endpoint endpoint : endpointList) {
+            if (endpointMap.put(endpoint.getCoinType(), endpoint) == null) {
+                coinTypeList.add(endpoint.getCoinType());
+            }
+            if (endpoint.getId() != NO_ID) {
+                endpointIdMap.put(endpoint.getId(), endpoint);
+            }
+        }
+        this.endpointMap = Collections.unmodifiableMap(endpointMap);
+        this.endpointIdMap = endpointIdMap;
+        this.coinTypeList = Collections.unmodifiableList(coinTypeList);
+    }
+
+    /**
+     * Gets endpoint of coin.
+     *
+     * @param coinType type of coin
+     * @return endpoint of coin, or null if coin is not supported
+     */
+    public Endpoint getEndpoint(CoinType coinType) {
+        return endpointMap.get(coinType);
+    }
+
+    /**
+     * Gets endpoint of coin by WhatToMine id.
+     *
+     * @param id WhatToMine id of coin
+     * @return endpoint of coin, or null if coin is not supported
+     */
+    public Endpoint getEndpointById(int id) {
+        return endpointIdMap.get(id);
+    }
+
+    /**
+     * Gets url of aggregated coins listing.
+     *
+     * @return url of aggregated coins listing, or null if bulk refreshing is not supported
+     */
+    public String getBulkUrl() {
+        return bulkUrl;
+    }
+
+    /**
+     * Gets host of endpoints, i.e. host of bulk url, or of the first endpoint if bulk url is absent.
+     *
+     * @return host of endpoints, or null if registry is empty
+     */
+    public String getHost() {
+        String url = bulkUrl != null ? bulkUrl : coinTypeList.isEmpty() ? null : endpointMap.get(coinTypeList.get(0)).getUrl();
+        HttpUrl httpUrl = url == null ? null : HttpUrl.parse(url);
+        return httpUrl == null ? null : httpUrl.host();
+    }
+
+    /**
+     * Checks if coin is supported.
+     *
+     * @param coinType type of coin
+     * @return true, if coin is supported
+     */
+    public boolean isSupported(CoinType coinType) {
+        return endpointMap.containsKey(coinType);
+    }
+
+    /**
+     * Gets supported list of coin types in order of endpoints.
+     *
+     * @return supported list of coin types
+     */
+    public List<CoinType> getCoinTypeList() {
+        return coinTypeList;
+    }
+
+    /**
+     * Gets default registry. It is loaded from file of {@link #CONFIG_PROPERTY} system property if it is set, otherwise
+     * from bundled config.
+     *
+     * @return default registry
+     */
+    public static EndpointRegistry getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Loads registry from JSON config.
+     *
+     * @param reader reader of config
+     * @return registry
+     * @throws IllegalArgumentException if config is invalid
+     */
+    public static EndpointRegistry load(Reader reader) {
+        try {
+            JSONObject config = new JSONObject(new JSONTokener(reader));
+            JSONArray coins = config.getJSONArray("coins");
+            List<Endpoint> endpointList = new ArrayList<>(coins.length());
+            for (int i = 0; i < coins.length(); i++) {
+                JSONObject coin = coins.getJSONObject(i);
+                endpointList.add(new Endpoint(CoinType.valueOf(coin.getString("coin")),
+                                              coin.optInt("id", NO_ID),
+                                              coin.getString("url"),
+                                              coin.getBigDecimal("base_hashrate"),
+                                              coin.optString("reward_field", DEFAULT_REWARD_FIELD),
+                                              coin.optString("timestamp_field", DEFAULT_TIMESTAMP_FIELD),
+                                              parsePrecisionPolicy(coin.optJSONObject("precision"))));
+            }
+            return new EndpointRegistry(config.optString("bulk_url", null), endpointList);
+        } catch (JSONException e) {
+            throw new IllegalArgumentException("Invalid endpoints config", e);
+        }
+    }
+
+    /**
+     * Parses precision of calculating rewards of coin.
+     *
+     * @param precision precision JSON, or null
+     * @return precision of calculating rewards
+     * @throws JSONException if precision JSON is invalid
+     */
+    private static PrecisionPolicy parsePrecisionPolicy(JSONObject precision) {
+        if (precision == null) {
+            return PrecisionPolicy.LEGACY;
+        }
+        int digits = precision.optInt("digits", MathContext.DECIMAL64.getPrecision());
+        RoundingMode roundingMode = precision.has("rounding") ? precision.getEnum(RoundingMode.class, "rounding")
+                : MathContext.DECIMAL64.getRoundingMode();
+        return new PrecisionPolicy(precision.getInt("scale"), new MathContext(digits, roundingMode));
+    }
+
+    /**
+     * Loads default registry.
+     *
+     * @return default registry
+     */
+    private static EndpointRegistry loadDefault() {
+        String configPath = System.getProperty(CONFIG_PROPERTY);
+        try (InputStream inputStream = configPath == null ? EndpointRegistry.class.getResourceAsStream(DEFAULT_CONFIG_RESOURCE)
+                : Files.newInputStream(Paths.get(configPath))) {
+            if (inputStream == null) {
+                throw new IllegalStateException(DEFAULT_CONFIG_RESOURCE + " is not found");
+            }
+            return load(new InputStreamReader(inputStream, UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Lazy holder of default registry.
+     */
+    private static class DefaultHolder {
+
+        /** Default registry. */
+        private static final EndpointRegistry INSTANCE = loadDefault();
+
+    }
+
+}
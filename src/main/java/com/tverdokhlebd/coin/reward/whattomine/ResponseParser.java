@@ -0,0 +1,151 @@
+package com.tverdokhlebd.coin.reward.whattomine;
+
+import static com.tverdokhlebd.mining.commons.http.ErrorCode.API_ERROR;
+import static com.tverdokhlebd.mining.commons.http.ErrorCode.PARSE_ERROR;
+
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.mining.commons.http.RequestException;
+
+/**
+ * Parser of WhatToMine responses.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+class ResponseParser {
+
+    /**
+     * Parses coin reward calculator from coin JSON.
+     *
+     * @param jsonCoin coin JSON
+     * @param endpoint endpoint of coin
+     * @param result builder of coin reward calculator
+     * @throws JSONException if coin JSON is invalid
+     */
+    static void parseCoin(JSONObject jsonCoin, Endpoint endpoint, CoinRewardCalculator.Builder result) {
+        result.setCoinType(endpoint.getCoinType());
+        result.setBaseHashrate(endpoint.getBaseHashrate());
+        result.setBaseRewardPerDay(BigDecimal.valueOf(jsonCoin.getDouble(endpoint.getRewardField())));
+        result.setLastUpdated(new Date(jsonCoin.getLong(endpoint.getTimestampField()) * 1000));
+        result.setDifficulty(optBigDecimal(jsonCoin, "difficulty"));
+        result.setWeekAverageDifficulty(optBigDecimal(jsonCoin, "difficulty7"));
+        result.setNetworkHashrate(optBigDecimal(jsonCoin, "nethash"));
+        result.setBlockReward(optBigDecimal(jsonCoin, "block_reward"));
+        result.setBlockTime(optBigDecimal(jsonCoin, "block_time"));
+        result.setPrecisionPolicy(endpoint.getPrecisionPolicy());
+    }
+
+    /**
+     * Parses coin reward calculators of all supported coins from aggregated coins listing. The listing is streamed: only
+     * one coin JSON is kept in memory at a time, and coins which are not in registry are skipped.
+     *
+     * @param reader reader of aggregated coins listing
+     * @param endpointRegistry registry of endpoints
+     * @return list of coin reward calculators
+     * @throws RequestException if listing contains API error or it is invalid
+     */
+    static List<CoinRewardCalculator> parseBulk(Reader reader, EndpointRegistry endpointRegistry) throws RequestException {
+        List<CoinRewardCalculator> coinRewardCalculatorList = new ArrayList<>(endpointRegistry.getCoinTypeList().size());
+        try {
+            JSONTokener tokener = new JSONTokener(reader);
+            expect(tokener, '{');
+            for (String key = nextKey(tokener); key != null; key = nextKey(tokener)) {
+                if ("coins".equals(key)) {
+                    expect(tokener, '{');
+                    for (String name = nextKey(tokener); name != null; name = nextKey(tokener)) {
+                        Object value = tokener.nextValue();
+                        if (!(value instanceof JSONObject)) {
+                            continue;
+                        }
+                        JSONObject jsonCoin = (JSONObject) value;
+                        Endpoint endpoint = endpointRegistry.getEndpointById(jsonCoin.optInt("id"));
+                        if (endpoint != null) {
+                            CoinRewardCalculator.Builder builder = new CoinRewardCalculator.Builder();
+                            parseCoin(jsonCoin, endpoint, builder);
+                            coinRewardCalculatorList.add(builder.build());
+                        }
+                    }
+                } else if ("errors".equals(key)) {
+                    JSONArray errors = (JSONArray) tokener.nextValue();
+                    throw new RequestException(API_ERROR, errors.getString(0));
+                } else {
+                    tokener.nextValue();
+                }
+            }
+        } catch (JSONException | ClassCastException e) {
+            throw new RequestException(PARSE_ERROR, e);
+        }
+        return coinRewardCalculatorList;
+    }
+
+    /**
+     * Gets optional decimal value. Unlike {@link JSONObject#optBigDecimal(String, BigDecimal)}, doubles keep their decimal
+     * representation and numbers in strings are accepted.
+     *
+     * @param jsonObject JSON object
+     * @param key key of value
+     * @return decimal value, or null if value is absent or it is not a number
+     */
+    private static BigDecimal optBigDecimal(JSONObject jsonObject, String key) {
+        Object value = jsonObject.opt(key);
+        if (value instanceof Double) {
+            return BigDecimal.valueOf((Double) value);
+        }
+        if (value instanceof Number || value instanceof String) {
+            try {
+                return new BigDecimal(value.toString());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the next key of object, skipping separator before it.
+     *
+     * @param tokener JSON tokener
+     * @return the next key, or null if the end of object is reached
+     * @throws JSONException if JSON is invalid
+     */
+    private static String nextKey(JSONTokener tokener) {
+        char c = tokener.nextClean();
+        if (c == ',') {
+            c = tokener.nextClean();
+        }
+        if (c == '}') {
+            return null;
+        }
+        if (c != '"') {
+            throw tokener.syntaxError("Expected a key");
+        }
+        String key = tokener.nextString(c);
+        expect(tokener, ':');
+        return key;
+    }
+
+    /**
+     * Reads the next character, which must be equal to expected one.
+     *
+     * @param tokener JSON tokener
+     * @param expected expected character
+     * @throws JSONException if the next character is not expected one
+     */
+    private static void expect(JSONTokener tokener, char expected) {
+        if (tokener.nextClean() != expected) {
+            throw tokener.syntaxError("Expected '" + expected + "'");
+        }
+    }
+
+}
@@ -1,31 +1,19 @@
 package com.tverdokhlebd.coin.reward.whattomine;
 
 import static com.tverdokhlebd.coin.reward.CoinRewardType.WHAT_TO_MINE;
-import static com.tverdokhlebd.coin.reward.whattomine.UrlList.BTC_BASE_HASHRATE;
-import static com.tverdokhlebd.coin.reward.whattomine.UrlList.BTC_REQUEST_NAME;
-import static com.tverdokhlebd.coin.reward.whattomine.UrlList.ETC_BASE_HASHRATE;
-import static com.tverdokhlebd.coin.reward.whattomine.UrlList.ETC_REQUEST_NAME;
-import static com.tverdokhlebd.coin.reward.whattomine.UrlList.ETH_BASE_HASHRATE;
-import static com.tverdokhlebd.coin.reward.whattomine.UrlList.ETH_REQUEST_NAME;
-import static com.tverdokhlebd.coin.reward.whattomine.UrlList.URL_MAP;
-import static com.tverdokhlebd.coin.reward.whattomine.UrlList.XMR_BASE_HASHRATE;
-import static com.tverdokhlebd.coin.reward.whattomine.UrlList.XMR_REQUEST_NAME;
-import static com.tverdokhlebd.coin.reward.whattomine.UrlList.ZEC_BASE_HASHRATE;
-import static com.tverdokhlebd.coin.reward.whattomine.UrlList.ZEC_REQUEST_NAME;
-import static com.tverdokhlebd.mining.commons.coin.CoinType.BTC;
-import static com.tverdokhlebd.mining.commons.coin.CoinType.ETC;
-import static com.tverdokhlebd.mining.commons.coin.CoinType.ETH;
-import static com.tverdokhlebd.mining.commons.coin.CoinType.XMR;
-import static com.tverdokhlebd.mining.commons.coin.CoinType.ZEC;
 import static com.tverdokhlebd.mining.commons.http.ErrorCode.API_ERROR;
+import static com.tverdokhlebd.mining.commons.http.ErrorCode.HTTP_ERROR;
 import static com.tverdokhlebd.mining.commons.http.ErrorCode.PARSE_ERROR;
 
-import java.math.BigDecimal;
+import java.io.IOException;
 import java.util.AbstractMap.SimpleEntry;
+import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -34,12 +22,23 @@ import org.json.JSONObject;
 import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
 import com.tverdokhlebd.coin.reward.CoinRewardCalculator.Builder;
 import com.tverdokhlebd.coin.reward.CoinRewardType;
+import com.tverdokhlebd.coin.reward.event.CoinRewardPublisher;
+import com.tverdokhlebd.coin.reward.requestor.CalculatorVersionRing;
 import com.tverdokhlebd.coin.reward.requestor.CoinRewardBaseRequestor;
+import com.tverdokhlebd.coin.reward.requestor.CoinRewardRequestorFactory;
+import com.tverdokhlebd.coin.reward.requestor.RefreshExecutors;
+import com.tverdokhlebd.coin.reward.requestor.RefreshFlights;
+import com.tverdokhlebd.coin.reward.requestor.RefreshPhase;
+import com.tverdokhlebd.coin.reward.requestor.RefreshTrace;
+import com.tverdokhlebd.coin.reward.requestor.RefreshTracer;
+import com.tverdokhlebd.coin.reward.requestor.RequestBudget;
 import com.tverdokhlebd.mining.commons.coin.CoinType;
 import com.tverdokhlebd.mining.commons.http.RequestException;
-import com.tverdokhlebd.mining.commons.utils.TimeUtils;
 
 import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
 
 /**
  * WhatToMine coin reward requestor.
@@ -51,38 +50,149 @@ public class WhatToMineRequestor extends CoinRewardBaseRequestor {
 
     /** Endpoints update. */
     private final int endpointsUpdate;
-    /** Map of cached coin reward calculators. */
-    private static final Map<CoinType, SimpleEntry<CoinRewardCalculator, Date>> CACHED_COIN_REWARD_CALCULATOR_MAP =
-            new ConcurrentHashMap<>();
+    /** Registry of endpoints. */
+    private final EndpointRegistry endpointRegistry;
+    /** Flag of refreshing all coins from aggregated coins listing. */
+    private final boolean bulkRefresh;
+    /**
+     * Map of cached coin reward calculators with last updated times in milliseconds, replaced as a whole on every update.
+     * Cache is shared by all requestors, but every requestor computes next update by its own endpoints update.
+     */
+    private static volatile Map<CoinType, SimpleEntry<CoinRewardCalculator, Long>> cachedCoinRewardCalculatorMap = Collections.emptyMap();
+    /** Lock for updating map of cached coin reward calculators. */
+    private static final Object CACHE_LOCK = new Object();
+    /** Publisher of coin reward events. */
+    private static final CoinRewardPublisher COIN_REWARD_PUBLISHER = new CoinRewardPublisher();
+    /** Refreshes in progress. */
+    private static final RefreshFlights REFRESH_FLIGHTS = new RefreshFlights();
+    /** Ring of recent versions of calculators. */
+    private static final CalculatorVersionRing CALCULATOR_VERSION_RING = new CalculatorVersionRing();
 
     /**
-     * Creates instance.
+     * Creates instance with default endpoints, executor and budget of upstream requests, without bulk refreshing.
      *
      * @param httpClient HTTP client
      * @param endpointsUpdate endpoints update
      */
     public WhatToMineRequestor(OkHttpClient httpClient, int endpointsUpdate) {
-        super(httpClient);
+        this(httpClient,
+             endpointsUpdate,
+             EndpointRegistry.getDefault(),
+             false,
+             RefreshExecutors.getDefault(),
+             CoinRewardRequestorFactory.getRequestBudget(EndpointRegistry.getDefault().getHost()),
+             null);
+    }
+
+    /**
+     * Creates instance. Requestors with defaults are created by {@link CoinRewardRequestorFactory}.
+     *
+     * @param httpClient HTTP client
+     * @param endpointsUpdate endpoints update
+     * @param endpointRegistry registry of endpoints
+     * @param bulkRefresh flag of refreshing all coins with one request of aggregated coins listing
+     * @param executor executor for refreshing and parallel requesting
+     * @param requestBudget budget of upstream requests, or null if requests are not limited
+     * @param refreshTracer tracer of refreshes, or null if refreshes are not traced
+     */
+    public WhatToMineRequestor(OkHttpClient httpClient, int endpointsUpdate, EndpointRegistry endpointRegistry, boolean bulkRefresh,
+            Executor executor, RequestBudget requestBudget, RefreshTracer refreshTracer) {
+        super(httpClient, executor, requestBudget, refreshTracer);
+        if (bulkRefresh && endpointRegistry.getBulkUrl() == null) {
+            throw new IllegalArgumentException("Bulk url is not configured");
+        }
         this.endpointsUpdate = endpointsUpdate;
+        this.endpointRegistry = endpointRegistry;
+        this.bulkRefresh = bulkRefresh;
     }
 
     @Override
     public Date getCachedNextUpdate(CoinType coinType) {
-        SimpleEntry<CoinRewardCalculator, Date> cachedCoinRewardCalculator = CACHED_COIN_REWARD_CALCULATOR_MAP.get(coinType);
-        return cachedCoinRewardCalculator == null ? new Date(0) : cachedCoinRewardCalculator.getValue();
+        SimpleEntry<CoinRewardCalculator, Long> cachedCoinRewardCalculator = cachedCoinRewardCalculatorMap.get(coinType);
+        return cachedCoinRewardCalculator == null ? new Date(0)
+                : new Date(cachedCoinRewardCalculator.getValue() + TimeUnit.MINUTES.toMillis(endpointsUpdate));
     }
 
     @Override
     public CoinRewardCalculator getCachedCoinRewardCalculator(CoinType coinType) {
-        return CACHED_COIN_REWARD_CALCULATOR_MAP.get(coinType).getKey();
+        SimpleEntry<CoinRewardCalculator, Long> cachedCoinRewardCalculator = cachedCoinRewardCalculatorMap.get(coinType);
+        return cachedCoinRewardCalculator == null ? null : cachedCoinRewardCalculator.getKey();
     }
 
     @Override
     public void setCachedCoinRewardCalculator(CoinType coinType, CoinRewardCalculator coinRewardCalculator) {
-        SimpleEntry<CoinRewardCalculator, Date> cachedCoinRewardCalculator = CACHED_COIN_REWARD_CALCULATOR_MAP.get(coinType);
-        CACHED_COIN_REWARD_CALCULATOR_MAP.replace(coinType,
-                                                  new SimpleEntry<CoinRewardCalculator, Date>(coinRewardCalculator,
-                                                                                              cachedCoinRewardCalculator.getValue()));
+        setCachedCoinRewardCalculators(Collections.singletonList(coinRewardCalculator));
+    }
+
+    @Override
+    public void setCachedCoinRewardCalculators(List<CoinRewardCalculator> coinRewardCalculatorList) {
+        synchronized (CACHE_LOCK) {
+            Map<CoinType, SimpleEntry<CoinRewardCalculator, Long>> updatedMap = new EnumMap<>(CoinType.class);
+            updatedMap.putAll(cachedCoinRewardCalculatorMap);
+            long now = System.currentTimeMillis();
+            for (CoinRewardCalculator coinRewardCalculator : coinRewardCalculatorList) {
+                long lastUpdated = coinRewardCalculator.getLastUpdated() == null ? now : coinRewardCalculator.getLastUpdated().getTime();
+                updatedMap.put(coinRewardCalculator.getCoinType(),
+                               new SimpleEntry<CoinRewardCalculator, Long>(coinRewardCalculator, lastUpdated));
+            }
+            cachedCoinRewardCalculatorMap = updatedMap;
+        }
+    }
+
+    @Override
+    protected void refresh(CoinType coinType) throws RequestException {
+        if (!bulkRefresh) {
+            super.refresh(coinType);
+            return;
+        }
+        Request request = new Request.Builder().url(endpointRegistry.getBulkUrl()).build();
+        List<CoinRewardCalculator> coinRewardCalculatorList;
+        try (Response response = getHttpClient().newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new RequestException(HTTP_ERROR, (response.code() + " " + response.message()).trim());
+            }
+            RefreshTrace refreshTrace = getRefreshTrace();
+            long startNanos = refreshTrace == null ? 0 : System.nanoTime();
+            try (ResponseBody body = response.body()) {
+                // Body is read while it is parsed, so reading is timed as part of parsing
+                coinRewardCalculatorList = ResponseParser.parseBulk(body.charStream(), endpointRegistry);
+            }
+            if (refreshTrace != null) {
+                refreshTrace.addPhase(RefreshPhase.PARSE_RESPONSE, System.nanoTime() - startNanos);
+            }
+        } catch (IOException e) {
+            throw new RequestException(HTTP_ERROR, e);
+        }
+        publish(coinRewardCalculatorList);
+        boolean refreshed = false;
+        for (CoinRewardCalculator coinRewardCalculator : coinRewardCalculatorList) {
+            refreshed |= coinRewardCalculator.getCoinType() == coinType;
+        }
+        if (!refreshed) {
+            // Coin can be absent in listing, e.g. when it is temporarily inactive
+            super.refresh(coinType);
+        }
+    }
+
+    @Override
+    protected CoinRewardPublisher getCoinRewardPublisher() {
+        return COIN_REWARD_PUBLISHER;
+    }
+
+    @Override
+    protected RefreshFlights getRefreshFlights() {
+        return REFRESH_FLIGHTS;
+    }
+
+    @Override
+    protected String getRefreshKey(CoinType coinType) {
+        // All coins are refreshed by one request of aggregated listing, e.g. on preloading of all coins
+        return bulkRefresh ? endpointRegistry.getBulkUrl() : super.getRefreshKey(coinType);
+    }
+
+    @Override
+    protected CalculatorVersionRing getCalculatorVersionRing() {
+        return CALCULATOR_VERSION_RING;
     }
 
     @Override
@@ -90,13 +200,20 @@ public class WhatToMineRequestor extends CoinRewardBaseRequestor {
         return WHAT_TO_MINE;
     }
 
+    @Override
+    protected boolean isSupported(CoinType coinType) {
+        return endpointRegistry.isSupported(coinType);
+    }
+
     @Override
     protected List<SimpleEntry<String, String>> getUrlList(CoinType coinType) {
-        return URL_MAP.get(coinType);
+        return endpointRegistry.getEndpoint(coinType).getUrlList();
     }
 
     @Override
     protected void checkApiError(String responseBody, String requestName) throws RequestException {
+        RefreshTrace refreshTrace = getRefreshTrace();
+        long startNanos = refreshTrace == null ? 0 : System.nanoTime();
         try {
             JSONObject jsonResponse = new JSONObject(responseBody);
             JSONArray errors = jsonResponse.optJSONArray("errors");
@@ -105,50 +222,26 @@ public class WhatToMineRequestor extends CoinRewardBaseRequestor {
             }
         } catch (JSONException e) {
             throw new RequestException(PARSE_ERROR, e);
+        } finally {
+            if (refreshTrace != null) {
+                refreshTrace.addPhase(RefreshPhase.CHECK_API_ERROR, System.nanoTime() - startNanos);
+            }
         }
     }
 
     @Override
     protected void parseResponse(String responseBody, String requestName, Builder result) throws RequestException {
+        RefreshTrace refreshTrace = getRefreshTrace();
+        long startNanos = refreshTrace == null ? 0 : System.nanoTime();
         try {
-            CoinType coinType = null;
-            BigDecimal baseHashrate = null;
-            switch (requestName) {
-            case BTC_REQUEST_NAME: {
-                coinType = BTC;
-                baseHashrate = BTC_BASE_HASHRATE;
-                break;
-            }
-            case ETH_REQUEST_NAME: {
-                coinType = ETH;
-                baseHashrate = ETH_BASE_HASHRATE;
-                break;
-            }
-            case ETC_REQUEST_NAME: {
-                coinType = ETC;
-                baseHashrate = ETC_BASE_HASHRATE;
-                break;
-            }
-            case XMR_REQUEST_NAME: {
-                coinType = XMR;
-                baseHashrate = XMR_BASE_HASHRATE;
-                break;
-            }
-            case ZEC_REQUEST_NAME: {
-                coinType = ZEC;
-                baseHashrate = ZEC_BASE_HASHRATE;
-                break;
-            }
-            }
-            JSONObject jsonResponse = new JSONObject(responseBody);
-            result.setBaseHashrate(baseHashrate);
-            BigDecimal baseRewardPerDay = BigDecimal.valueOf(jsonResponse.getDouble("estimated_rewards"));
-            result.setBaseRewardPerDay(baseRewardPerDay);
-            Date lastUpdated = new Date(jsonResponse.getLong("timestamp") * 1000);
-            Date nextUpdate = TimeUtils.addMinutes(lastUpdated, endpointsUpdate);
-            CACHED_COIN_REWARD_CALCULATOR_MAP.put(coinType, new SimpleEntry<CoinRewardCalculator, Date>(null, nextUpdate));
+            Endpoint endpoint = endpointRegistry.getEndpoint(CoinType.valueOf(requestName));
+            ResponseParser.parseCoin(new JSONObject(responseBody), endpoint, result);
         } catch (JSONException e) {
             throw new RequestException(PARSE_ERROR, e);
+        } finally {
+            if (refreshTrace != null) {
+                refreshTrace.addPhase(RefreshPhase.PARSE_RESPONSE, System.nanoTime() - startNanos);
+            }
         }
     }
 
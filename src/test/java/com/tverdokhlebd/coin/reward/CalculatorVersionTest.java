@@ -0,0 +1,60 @@
+package com.tverdokhlebd.coin.reward;
+
+import static com.tverdokhlebd.mining.commons.coin.CoinType.BTC;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.junit.Test;
+
+/**
+ * Tests of version of coin reward calculator.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class CalculatorVersionTest {
+
+    private static final Date LAST_UPDATED = new Date(1525899632000L);
+
+    @Test
+    public void testContentHash() {
+        CalculatorVersion version = CalculatorVersion.of(LAST_UPDATED, new BigDecimal("14000000000000"), new BigDecimal("0.00088937"));
+        // Scale of base values does not change version
+        assertEquals(version, CalculatorVersion.of(LAST_UPDATED, new BigDecimal("1.4E13"), new BigDecimal("0.000889370")));
+        assertNotEquals(version, CalculatorVersion.of(LAST_UPDATED, new BigDecimal("1.4E13"), new BigDecimal("0.00088938")));
+        assertNotEquals(version, CalculatorVersion.of(LAST_UPDATED, new BigDecimal("0.00088937"), new BigDecimal("1.4E13")));
+        assertEquals(0, CalculatorVersion.of(null, null, null).getTimestamp());
+    }
+
+    @Test
+    public void testOrderAndString() {
+        CalculatorVersion olderVersion = CalculatorVersion.of(LAST_UPDATED, BigDecimal.ONE, BigDecimal.TEN);
+        CalculatorVersion newerVersion = CalculatorVersion.of(new Date(LAST_UPDATED.getTime() + 1000), BigDecimal.ONE, BigDecimal.ONE);
+        assertTrue(olderVersion.compareTo(newerVersion) < 0);
+        assertEquals(newerVersion, CalculatorVersion.parse(newerVersion.toString()));
+        assertEquals(new CalculatorVersion(1, -1L), CalculatorVersion.parse(new CalculatorVersion(1, -1L).toString()));
+    }
+
+    @Test
+    public void testRewardVersion() {
+        CoinRewardCalculator calculator =
+                new CoinRewardCalculator.Builder().setCoinType(BTC)
+                                                  .setBaseHashrate(new BigDecimal("14000000000000"))
+                                                  .setBaseRewardPerDay(new BigDecimal("0.00088937"))
+                                                  .setLastUpdated(LAST_UPDATED)
+                                                  .build();
+        CoinReward coinReward = calculator.calculateRewards(BigDecimal.ONE);
+        assertEquals(calculator.getVersion(), coinReward.getCalculatorVersion());
+        assertEquals(LAST_UPDATED.getTime(), coinReward.getCalculatorVersion().getTimestamp());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongString() {
+        CalculatorVersion.parse("1525899632000");
+    }
+
+}
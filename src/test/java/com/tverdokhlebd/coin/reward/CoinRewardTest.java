@@ -0,0 +1,97 @@
+package com.tverdokhlebd.coin.reward;
+
+import static com.tverdokhlebd.mining.commons.coin.CoinType.BTC;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+/**
+ * Tests of coin reward.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class CoinRewardTest {
+
+    private static final CoinRewardCalculator CALCULATOR =
+            new CoinRewardCalculator(BTC, BigDecimal.valueOf(14000000000000L), new BigDecimal("0.00088937"));
+    private static final BigDecimal HASHRATE = BigDecimal.valueOf(13500000000000L);
+
+    @Test
+    public void testCompactEqualsFull() {
+        CoinReward compactReward = CALCULATOR.calculateRewards(HASHRATE);
+        CoinReward fullReward = createFullReward(compactReward);
+        assertEquals(new BigDecimal("0.00085760"), compactReward.getRewardPerDay());
+        assertEquals(new BigDecimal("0.00003573"), compactReward.getRewardPerHour());
+        assertEquals(new BigDecimal("0.31302400"), compactReward.getRewardPerYear());
+        assertEquals(fullReward, compactReward);
+        assertEquals(compactReward, fullReward);
+        assertEquals(fullReward.hashCode(), compactReward.hashCode());
+        assertTrue(!compactReward.equals(CALCULATOR.calculateRewards(HASHRATE.add(BigDecimal.ONE))));
+    }
+
+    @Test
+    public void testMemoized() {
+        CoinReward memoizedReward = CALCULATOR.calculateRewards(HASHRATE, true);
+        assertSame(memoizedReward.getRewardPerWeek(), memoizedReward.getRewardPerWeek());
+        CoinReward reward = CALCULATOR.calculateRewards(HASHRATE, false);
+        assertNotSame(reward.getRewardPerWeek(), reward.getRewardPerWeek());
+        assertEquals(memoizedReward.getRewardPerWeek(), reward.getRewardPerWeek());
+    }
+
+    @Test
+    public void testFootprint() {
+        CoinReward compactReward = CALCULATOR.calculateRewards(HASHRATE);
+        CoinReward fullReward = createFullReward(CALCULATOR.calculateRewards(HASHRATE));
+        // Shell itself has no slots for derived rewards, so it is not larger than reward with explicit fields only
+        long shellSize = ClassLayout.parseInstance(compactReward).instanceSize();
+        assertTrue(shellSize + " of " + ClassLayout.parseClass(ExplicitReward.class).instanceSize(),
+                   shellSize <= ClassLayout.parseClass(ExplicitReward.class).instanceSize());
+        assertTrue(shellSize < ClassLayout.parseInstance(CALCULATOR.calculateRewards(HASHRATE, true)).instanceSize());
+        // Coin, hashrate and calculator are shared by many rewards, so they are not retained by one of them
+        GraphLayout sharedLayout = GraphLayout.parseInstance(BTC, HASHRATE, CALCULATOR);
+        long compactSize = GraphLayout.parseInstance(compactReward).subtract(sharedLayout).totalSize();
+        long fullSize = GraphLayout.parseInstance(fullReward).subtract(sharedLayout).totalSize();
+        assertEquals(shellSize + GraphLayout.parseInstance(compactReward.getRewardPerDay()).totalSize(), compactSize);
+        assertTrue(compactSize + " of " + fullSize, compactSize * 2 < fullSize);
+        // Default reward is not memoized, so it stays compact after all getters are read
+        createFullReward(compactReward);
+        long readSize = GraphLayout.parseInstance(compactReward).subtract(sharedLayout).totalSize();
+        assertEquals(compactSize, readSize);
+    }
+
+    private static CoinReward createFullReward(CoinReward coinReward) {
+        return new CoinReward.Builder().setCoinType(coinReward.getCoinType())
+                                       .setReportedHashrate(coinReward.getReportedHashrate())
+                                       .setRewardPerHour(coinReward.getRewardPerHour())
+                                       .setRewardPerDay(coinReward.getRewardPerDay())
+                                       .setRewardPerWeek(coinReward.getRewardPerWeek())
+                                       .setRewardPerMonth(coinReward.getRewardPerMonth())
+                                       .setRewardPerYear(coinReward.getRewardPerYear())
+                                       .build();
+    }
+
+    /**
+     * Reward with explicit fields of type, hashrate and rewards of all periods only.
+     */
+    @SuppressWarnings("unused")
+    private static class ExplicitReward {
+
+        private Object coinType;
+        private Object reportedHashrate;
+        private Object rewardPerHour;
+        private Object rewardPerDay;
+        private Object rewardPerWeek;
+        private Object rewardPerMonth;
+        private Object rewardPerYear;
+
+    }
+
+}
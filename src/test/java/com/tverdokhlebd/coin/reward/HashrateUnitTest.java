@@ -0,0 +1,51 @@
+package com.tverdokhlebd.coin.reward;
+
+import static com.tverdokhlebd.coin.reward.CoinRewardCalculator.REWARD_PERIODS;
+import static com.tverdokhlebd.coin.reward.CoinRewardCalculator.REWARD_PER_DAY;
+import static com.tverdokhlebd.coin.reward.CoinRewardCalculator.REWARD_PER_HOUR;
+import static com.tverdokhlebd.coin.reward.CoinRewardCalculator.REWARD_PER_MONTH;
+import static com.tverdokhlebd.coin.reward.CoinRewardCalculator.REWARD_PER_WEEK;
+import static com.tverdokhlebd.coin.reward.CoinRewardCalculator.REWARD_PER_YEAR;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.BTC;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import com.tverdokhlebd.mining.commons.utils.HashrateUtils;
+
+/**
+ * Tests of calculating rewards for primitive hashrate in units.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class HashrateUnitTest {
+
+    private static final double DELTA = 1e-8;
+
+    @Test
+    public void testUnits() {
+        assertEquals(1, HashrateUnit.H_S.toHashes(1), 0);
+        assertEquals(HashrateUtils.MH_S, HashrateUnit.MH_S.getHashes());
+        assertEquals(1.5e12, HashrateUnit.TH_S.toHashes(1.5), 0);
+    }
+
+    @Test
+    public void testCalculateRewards() {
+        CoinRewardCalculator calculator =
+                new CoinRewardCalculator(BTC, BigDecimal.valueOf(14000000000000L), new BigDecimal("0.00088900"));
+        CoinReward coinReward = calculator.calculateRewards(BigDecimal.valueOf(28000000000000L));
+        double[] rewards = new double[REWARD_PERIODS];
+        calculator.calculateRewards(28, HashrateUnit.TH_S, rewards);
+        assertEquals(coinReward.getRewardPerHour().doubleValue(), rewards[REWARD_PER_HOUR], DELTA);
+        assertEquals(coinReward.getRewardPerDay().doubleValue(), rewards[REWARD_PER_DAY], DELTA);
+        assertEquals(coinReward.getRewardPerWeek().doubleValue(), rewards[REWARD_PER_WEEK], DELTA);
+        assertEquals(coinReward.getRewardPerMonth().doubleValue(), rewards[REWARD_PER_MONTH], DELTA);
+        assertEquals(coinReward.getRewardPerYear().doubleValue(), rewards[REWARD_PER_YEAR], DELTA);
+        assertEquals(0.001778, calculator.calculateRewardPerDay(28000, HashrateUnit.GH_S), DELTA);
+        assertEquals(0.001778, calculator.calculateRewardPerDay(28000000000000L, HashrateUnit.H_S), DELTA);
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.tverdokhlebd.coin.reward;
+
+import static com.tverdokhlebd.mining.commons.coin.CoinType.ETH;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+import org.junit.Test;
+
+/**
+ * Tests of precision of calculating rewards.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class PrecisionPolicyTest {
+
+    private static final BigDecimal REPORTED_HASHRATE = new BigDecimal("123456789.123");
+
+    @Test
+    public void testLegacy() {
+        CoinReward coinReward = calculateRewards(PrecisionPolicy.LEGACY);
+        assertEquals(new BigDecimal("0.00128974261855134335"), coinReward.getRewardPerHour());
+        assertEquals(new BigDecimal("0.03095382284523224040"), coinReward.getRewardPerDay());
+        assertEquals(new BigDecimal("0.21667675991662568280"), coinReward.getRewardPerWeek());
+        assertEquals(new BigDecimal("0.92861468535696721200"), coinReward.getRewardPerMonth());
+        assertEquals(new BigDecimal("11.29814533850976774600"), coinReward.getRewardPerYear());
+        assertEquals(coinReward.getRewardPerDay(), calculateRewards(null).getRewardPerDay());
+    }
+
+    @Test
+    public void testDecimal64() {
+        CoinReward coinReward = calculateRewards(new PrecisionPolicy(8, MathContext.DECIMAL64));
+        assertEquals(new BigDecimal("0.00128974"), coinReward.getRewardPerHour());
+        assertEquals(new BigDecimal("0.03095382"), coinReward.getRewardPerDay());
+        assertEquals(new BigDecimal("0.21667674"), coinReward.getRewardPerWeek());
+        assertEquals(new BigDecimal("0.92861460"), coinReward.getRewardPerMonth());
+        assertEquals(new BigDecimal("11.29814430"), coinReward.getRewardPerYear());
+    }
+
+    @Test
+    public void testTruncation() {
+        CoinReward coinReward = calculateRewards(new PrecisionPolicy(12, new MathContext(20, RoundingMode.DOWN)));
+        assertEquals(new BigDecimal("0.001289742618"), coinReward.getRewardPerHour());
+        assertEquals(new BigDecimal("0.030953822845"), coinReward.getRewardPerDay());
+        assertEquals(new BigDecimal("0.216676759915"), coinReward.getRewardPerWeek());
+        assertEquals(new BigDecimal("0.928614685350"), coinReward.getRewardPerMonth());
+        assertEquals(new BigDecimal("11.298145338425"), coinReward.getRewardPerYear());
+    }
+
+    private static CoinReward calculateRewards(PrecisionPolicy precisionPolicy) {
+        CoinRewardCalculator.Builder builder = new CoinRewardCalculator.Builder();
+        builder.setCoinType(ETH)
+               .setBaseHashrate(BigDecimal.valueOf(84000000))
+               .setBaseRewardPerDay(BigDecimal.valueOf(0.02106098123456789))
+               .setPrecisionPolicy(precisionPolicy);
+        return builder.build().calculateRewards(REPORTED_HASHRATE);
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.tverdokhlebd.coin.reward.benchmark;
+
+import static com.tverdokhlebd.mining.commons.coin.CoinType.ETH;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.tverdokhlebd.coin.reward.CoinReward;
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.coin.reward.codec.CoinRewardCodec;
+import com.tverdokhlebd.mining.commons.coin.CoinType;
+
+/**
+ * Benchmark of round trip of batch of coin rewards through {@link CoinRewardCodec} and through org.json.
+ *
+ * Run with {@code java -cp <test classpath> com.tverdokhlebd.coin.reward.benchmark.CoinRewardCodecBenchmark}.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoinRewardCodecBenchmark {
+
+    @Param({ "100" })
+    private int batchSize;
+    @Param({ "true" })
+    private boolean direct;
+    private List<CoinReward> coinRewardList;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setUp() {
+        CoinRewardCalculator calculator = new CoinRewardCalculator(ETH, BigDecimal.valueOf(84000000), new BigDecimal("0.02106098"));
+        coinRewardList = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            coinRewardList.add(calculator.calculateRewards(BigDecimal.valueOf(1000000L * (i + 1))));
+        }
+        buffer = direct ? ByteBuffer.allocateDirect(batchSize * 128) : ByteBuffer.allocate(batchSize * 128);
+    }
+
+    @Benchmark
+    public List<CoinReward> binary() {
+        buffer.clear();
+        CoinRewardCodec.writeCoinRewards(buffer, coinRewardList);
+        buffer.flip();
+        return CoinRewardCodec.readCoinRewards(buffer);
+    }
+
+    @Benchmark
+    public List<CoinReward> json() {
+        JSONArray jsonArray = new JSONArray();
+        for (CoinReward coinReward : coinRewardList) {
+            JSONObject jsonObject = new JSONObject();
+            jsonObject.put("coin", coinReward.getCoinType().name());
+            jsonObject.put("hashrate", coinReward.getReportedHashrate());
+            jsonObject.put("hour", coinReward.getRewardPerHour());
+            jsonObject.put("day", coinReward.getRewardPerDay());
+            jsonObject.put("week", coinReward.getRewardPerWeek());
+            jsonObject.put("month", coinReward.getRewardPerMonth());
+            jsonObject.put("year", coinReward.getRewardPerYear());
+            jsonArray.put(jsonObject);
+        }
+        JSONArray decodedJsonArray = new JSONArray(jsonArray.toString());
+        List<CoinReward> decodedCoinRewardList = new ArrayList<>(decodedJsonArray.length());
+        for (int i = 0; i < decodedJsonArray.length(); i++) {
+            JSONObject jsonObject = decodedJsonArray.getJSONObject(i);
+            CoinReward.Builder builder = new CoinReward.Builder();
+            builder.setCoinType(CoinType.valueOf(jsonObject.getString("coin")))
+                   .setReportedHashrate(new BigDecimal(jsonObject.get("hashrate").toString()))
+                   .setRewardPerHour(new BigDecimal(jsonObject.get("hour").toString()))
+                   .setRewardPerDay(new BigDecimal(jsonObject.get("day").toString()))
+                   .setRewardPerWeek(new BigDecimal(jsonObject.get("week").toString()))
+                   .setRewardPerMonth(new BigDecimal(jsonObject.get("month").toString()))
+                   .setRewardPerYear(new BigDecimal(jsonObject.get("year").toString()));
+            decodedCoinRewardList.add(builder.build());
+        }
+        return decodedCoinRewardList;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(CoinRewardCodecBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.tverdokhlebd.coin.reward.benchmark;
+
+import static com.tverdokhlebd.mining.commons.coin.CoinType.ETH;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.tverdokhlebd.coin.reward.CoinReward;
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.coin.reward.HashrateUnit;
+import com.tverdokhlebd.mining.commons.utils.HashrateUtils;
+
+/**
+ * Benchmark of calculating rewards for hashrate in MH/s by converting it with {@link HashrateUtils} and by passing
+ * primitive hashrate with {@link HashrateUnit}.
+ *
+ * Run with {@code java -cp <test classpath> com.tverdokhlebd.coin.reward.benchmark.HashrateUnitBenchmark -prof gc} to see
+ * allocation rate.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashrateUnitBenchmark {
+
+    private final CoinRewardCalculator calculator =
+            new CoinRewardCalculator(ETH, BigDecimal.valueOf(84000000), new BigDecimal("0.02106098"));
+    private final double[] rewards = new double[CoinRewardCalculator.REWARD_PERIODS];
+    private double megaHashes = 240.5;
+
+    @Benchmark
+    public CoinReward convertThenCalculate() {
+        return calculator.calculateRewards(HashrateUtils.convertMegaHashesToHashes(BigDecimal.valueOf(megaHashes)));
+    }
+
+    @Benchmark
+    public double[] calculateWithUnit() {
+        calculator.calculateRewards(megaHashes, HashrateUnit.MH_S, rewards);
+        return rewards;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(HashrateUnitBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
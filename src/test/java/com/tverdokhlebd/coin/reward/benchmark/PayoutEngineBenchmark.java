@@ -0,0 +1,67 @@
+package com.tverdokhlebd.coin.reward.benchmark;
+
+import static com.tverdokhlebd.mining.commons.coin.CoinType.BTC;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.coin.reward.payout.PayoutEngine;
+import com.tverdokhlebd.coin.reward.payout.PayoutScheme;
+import com.tverdokhlebd.coin.reward.payout.PoolParameters;
+
+/**
+ * Benchmark of calculating PPLNS payouts of one million workers sequentially and in parallel.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayoutEngineBenchmark {
+
+    private final CoinRewardCalculator calculator = new CoinRewardCalculator.Builder().setCoinType(BTC)
+                                                                                      .setBaseHashrate(BigDecimal.valueOf(14000000000000L))
+                                                                                      .setBaseRewardPerDay(new BigDecimal("0.000889"))
+                                                                                      .setNetworkHashrate(new BigDecimal("3E+19"))
+                                                                                      .setBlockTime(new BigDecimal("600"))
+                                                                                      .build();
+    private final PayoutEngine payoutEngine = new PayoutEngine(new PoolParameters(PayoutScheme.PPLNS, 0.01, 2, 0.05));
+    private final double[] workerHashrates = new SplittableRandom(42).doubles(1000000, 1e11, 1e14).toArray();
+    private final double[] payouts = new double[workerHashrates.length];
+
+    @Benchmark
+    public double[] sequential() {
+        payoutEngine.calculatePayouts(calculator, workerHashrates, 7, payouts);
+        return payouts;
+    }
+
+    @Benchmark
+    public double[] parallel() {
+        payoutEngine.calculatePayoutsInParallel(calculator, workerHashrates, 7, payouts);
+        return payouts;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PayoutEngineBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
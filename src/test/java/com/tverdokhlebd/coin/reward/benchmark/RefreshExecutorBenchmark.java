@@ -0,0 +1,115 @@
+package com.tverdokhlebd.coin.reward.benchmark;
+
+import static com.tverdokhlebd.mining.commons.coin.CoinType.BTC;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.tverdokhlebd.coin.reward.CoinReward;
+import com.tverdokhlebd.coin.reward.requestor.CoinRewardRequestor;
+import com.tverdokhlebd.coin.reward.requestor.RefreshExecutors;
+import com.tverdokhlebd.coin.reward.whattomine.EndpointRegistry;
+import com.tverdokhlebd.coin.reward.whattomine.WhatToMineRequestor;
+import com.tverdokhlebd.mining.commons.utils.HttpClientUtils;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Benchmark of concurrent cold lookups on virtual threads and on bounded pool.
+ *
+ * Cached calculator is always stale, so lookups refresh it through HTTP client with simulated latency. Concurrent lookups
+ * are collapsed into one refresh by {@link com.tverdokhlebd.coin.reward.requestor.RefreshFlights}, so benchmark measures
+ * latency of lookups joining refreshes rather than throughput of refreshes: bounded pool runs lookups in waves of its
+ * threads, which need one refresh each, virtual threads let all lookups join one refresh. On JDK without virtual threads
+ * both modes use bounded pool. Run with {@code java -cp <test classpath> com.tverdokhlebd.coin.reward.benchmark.RefreshExecutorBenchmark}.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RefreshExecutorBenchmark {
+
+    private static final String RESPONSE = "{\"estimated_rewards\": \"0.000889\", \"timestamp\": 1525899632}";
+
+    @Param({ "virtual", "bounded" })
+    private String executorType;
+    @Param({ "1000" })
+    private int lookups;
+    @Param({ "20" })
+    private int latencyMillis;
+    private ExecutorService executor;
+    private CoinRewardRequestor requestor;
+
+    @Setup
+    public void setUp() {
+        boolean virtual = "virtual".equals(executorType) && RefreshExecutors.isVirtualThreadsAvailable();
+        executor = virtual ? RefreshExecutors.createVirtualThreadExecutor()
+                : RefreshExecutors.createBoundedExecutor(RefreshExecutors.DEFAULT_THREADS);
+        OkHttpClient httpClient = new OkHttpClient.Builder().addInterceptor(chain -> {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Response.Builder().body(ResponseBody.create(HttpClientUtils.MEDIA_JSON, RESPONSE))
+                                         .request(chain.request())
+                                         .protocol(Protocol.HTTP_1_1)
+                                         .code(200)
+                                         .message("")
+                                         .build();
+        }).build();
+        // Requestor is created without budget of upstream requests, so refreshes are not limited
+        requestor = new WhatToMineRequestor(httpClient, 0, EndpointRegistry.getDefault(), false, executor, null, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public CoinReward[] coldLookups() {
+        CompletableFuture<CoinReward>[] futures = new CompletableFuture[lookups];
+        BigDecimal reportedHashrate = BigDecimal.valueOf(14000000000000L);
+        for (int i = 0; i < lookups; i++) {
+            futures[i] = requestor.requestCoinRewardAsync(BTC, reportedHashrate);
+        }
+        CoinReward[] coinRewards = new CoinReward[lookups];
+        for (int i = 0; i < lookups; i++) {
+            coinRewards[i] = futures[i].join();
+        }
+        return coinRewards;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(RefreshExecutorBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.tverdokhlebd.coin.reward.codec;
+
+import static com.tverdokhlebd.mining.commons.coin.CoinType.ETH;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.tverdokhlebd.coin.reward.CoinReward;
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.coin.reward.PrecisionPolicy;
+
+/**
+ * Tests of binary codec.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class CoinRewardCodecTest {
+
+    @Test
+    public void testCoinReward() {
+        CoinReward coinReward = createCalculator().calculateRewards(new BigDecimal("28000000000000"));
+        for (ByteBuffer buffer : Arrays.asList(ByteBuffer.allocate(256), ByteBuffer.allocateDirect(256))) {
+            CoinRewardCodec.writeCoinReward(buffer, coinReward);
+            buffer.flip();
+            assertCoinReward(coinReward, CoinRewardCodec.readCoinReward(buffer));
+            assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    public void testCoinRewardCalculator() {
+        CoinRewardCalculator calculator = createCalculator();
+        CoinRewardCalculator emptyCalculator = new CoinRewardCalculator(null, null, null);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+        CoinRewardCodec.writeCoinRewardCalculator(buffer, calculator);
+        CoinRewardCodec.writeCoinRewardCalculator(buffer, emptyCalculator);
+        buffer.flip();
+        assertCalculator(calculator, CoinRewardCodec.readCoinRewardCalculator(buffer));
+        CoinRewardCalculator decodedEmptyCalculator = CoinRewardCodec.readCoinRewardCalculator(buffer);
+        assertNull(decodedEmptyCalculator.getCoinType());
+        assertNull(decodedEmptyCalculator.getBaseHashrate());
+        assertNull(decodedEmptyCalculator.getLastUpdated());
+        assertNull(decodedEmptyCalculator.getBlockTime());
+        assertEquals(PrecisionPolicy.LEGACY, decodedEmptyCalculator.getPrecisionPolicy());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    public void testBatch() {
+        CoinRewardCalculator calculator = createCalculator();
+        List<CoinReward> coinRewardList = Arrays.asList(calculator.calculateRewards(BigDecimal.ONE),
+                                                        calculator.calculateRewards(new BigDecimal("-1.5")),
+                                                        calculator.calculateRewards(new BigDecimal("1e40")));
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        CoinRewardCodec.writeCoinRewards(buffer, coinRewardList);
+        buffer.flip();
+        List<ByteBuffer> frameList = CoinRewardCodec.readFrames(buffer.duplicate());
+        assertEquals(3, frameList.size());
+        assertTrue(frameList.get(1).isReadOnly());
+        assertCoinReward(coinRewardList.get(1), CoinRewardCodec.readCoinReward(frameList.get(1)));
+        List<CoinReward> decodedCoinRewardList = CoinRewardCodec.readCoinRewards(buffer);
+        for (int i = 0; i < coinRewardList.size(); i++) {
+            assertCoinReward(coinRewardList.get(i), decodedCoinRewardList.get(i));
+        }
+        buffer.clear();
+        CoinRewardCodec.writeCoinRewardCalculators(buffer, Arrays.asList(calculator, calculator));
+        buffer.flip();
+        List<CoinRewardCalculator> decodedCalculatorList = CoinRewardCodec.readCoinRewardCalculators(buffer);
+        assertEquals(2, decodedCalculatorList.size());
+        assertCalculator(calculator, decodedCalculatorList.get(1));
+    }
+
+    @Test
+    public void testCoinTypeByName() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        CoinRewardCodec.writeCoinReward(buffer, createCalculator().calculateRewards(BigDecimal.ONE));
+        assertEquals(3, buffer.get(0));
+        assertEquals("ETH", new String(buffer.array(), 1, 3, StandardCharsets.US_ASCII));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownCoinType() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        CoinRewardCodec.writeCoinReward(buffer, createCalculator().calculateRewards(BigDecimal.ONE));
+        buffer.put(1, (byte) 'X');
+        buffer.flip();
+        CoinRewardCodec.readCoinReward(buffer);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongFrameLength() {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        CoinRewardCodec.writeCoinRewards(buffer, Arrays.asList(createCalculator().calculateRewards(BigDecimal.ONE)));
+        buffer.putInt(1, buffer.getInt(1) - 1);
+        buffer.flip();
+        CoinRewardCodec.readCoinRewards(buffer);
+    }
+
+    private static CoinRewardCalculator createCalculator() {
+        CoinRewardCalculator.Builder builder = new CoinRewardCalculator.Builder();
+        builder.setCoinType(ETH)
+               .setBaseHashrate(new BigDecimal("84000000"))
+               .setBaseRewardPerDay(new BigDecimal("0.02106098"))
+               .setLastUpdated(new Date(1525899632000L))
+               .setDifficulty(new BigDecimal("3283144439418505"))
+               .setWeekAverageDifficulty(new BigDecimal("3.2e15"))
+               .setNetworkHashrate(new BigDecimal("254532786318295.1234567890123456789"))
+               .setBlockReward(new BigDecimal("3"))
+               .setBlockTime(new BigDecimal("14.12"))
+               .setPrecisionPolicy(new PrecisionPolicy(8, new MathContext(16, RoundingMode.HALF_EVEN)));
+        return builder.build();
+    }
+
+    private static void assertCoinReward(CoinReward expected, CoinReward actual) {
+        assertEquals(expected.getCoinType(), actual.getCoinType());
+        assertEquals(expected.getReportedHashrate(), actual.getReportedHashrate());
+        assertEquals(expected.getRewardPerHour(), actual.getRewardPerHour());
+        assertEquals(expected.getRewardPerDay(), actual.getRewardPerDay());
+        assertEquals(expected.getRewardPerWeek(), actual.getRewardPerWeek());
+        assertEquals(expected.getRewardPerMonth(), actual.getRewardPerMonth());
+        assertEquals(expected.getRewardPerYear(), actual.getRewardPerYear());
+        assertEquals(expected.getCalculatorVersion(), actual.getCalculatorVersion());
+    }
+
+    private static void assertCalculator(CoinRewardCalculator expected, CoinRewardCalculator actual) {
+        assertEquals(expected.getCoinType(), actual.getCoinType());
+        assertEquals(expected.getBaseHashrate(), actual.getBaseHashrate());
+        assertEquals(expected.getBaseRewardPerDay(), actual.getBaseRewardPerDay());
+        assertEquals(expected.getLastUpdated(), actual.getLastUpdated());
+        assertEquals(expected.getDifficulty(), actual.getDifficulty());
+        assertEquals(expected.getWeekAverageDifficulty(), actual.getWeekAverageDifficulty());
+        assertEquals(expected.getNetworkHashrate(), actual.getNetworkHashrate());
+        assertEquals(expected.getBlockReward(), actual.getBlockReward());
+        assertEquals(expected.getBlockTime(), actual.getBlockTime());
+        assertEquals(expected.getPrecisionPolicy(), actual.getPrecisionPolicy());
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.tverdokhlebd.coin.reward.event;
+
+import static com.tverdokhlebd.mining.commons.coin.CoinType.BTC;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+
+/**
+ * Tests of coin reward publisher.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class CoinRewardPublisherTest {
+
+    @Test
+    public void testEvent() {
+        ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        CoinRewardPublisher publisher = new CoinRewardPublisher(tasks::add);
+        List<CoinRewardEvent> events = new ArrayList<>();
+        publisher.subscribe(events::add);
+        publisher.publish(null, createCalculator("0.000800"));
+        publisher.publish(createCalculator("0.000800"), createCalculator("0.000889"));
+        runAll(tasks);
+        assertEquals(2, events.size());
+        assertNull(events.get(0).getOldBaseRewardPerDay());
+        assertNull(events.get(0).getDeltaPercent());
+        assertEquals(BTC, events.get(1).getCoinType());
+        assertEquals(new BigDecimal("0.000800"), events.get(1).getOldBaseRewardPerDay());
+        assertEquals(new BigDecimal("0.000889"), events.get(1).getNewBaseRewardPerDay());
+        assertEquals(new BigDecimal("11.1250"), events.get(1).getDeltaPercent());
+    }
+
+    @Test
+    public void testDropOldest() {
+        ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        CoinRewardPublisher publisher = new CoinRewardPublisher(tasks::add);
+        List<CoinRewardEvent> events = new ArrayList<>();
+        CoinRewardSubscription subscription = publisher.subscribe(events::add, 2);
+        for (int i = 1; i <= 5; i++) {
+            publisher.publish(null, createCalculator(String.valueOf(i)));
+        }
+        assertEquals(1, tasks.size());
+        runAll(tasks);
+        assertEquals(2, events.size());
+        assertEquals(new BigDecimal("4"), events.get(0).getNewBaseRewardPerDay());
+        assertEquals(new BigDecimal("5"), events.get(1).getNewBaseRewardPerDay());
+        assertEquals(3, subscription.getDroppedCount());
+    }
+
+    @Test
+    public void testCancel() {
+        ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        CoinRewardPublisher publisher = new CoinRewardPublisher(tasks::add);
+        List<CoinRewardEvent> events = new ArrayList<>();
+        CoinRewardSubscription subscription = publisher.subscribe(events::add);
+        publisher.publish(null, createCalculator("1"));
+        subscription.cancel();
+        publisher.publish(null, createCalculator("2"));
+        runAll(tasks);
+        assertEquals(0, events.size());
+    }
+
+    @Test
+    public void testRejectedDelivery() {
+        ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        AtomicBoolean rejecting = new AtomicBoolean(true);
+        CoinRewardPublisher publisher = new CoinRewardPublisher(task -> {
+            if (rejecting.get()) {
+                throw new RejectedExecutionException();
+            }
+            tasks.add(task);
+        });
+        List<CoinRewardEvent> events = new ArrayList<>();
+        CoinRewardSubscription subscription = publisher.subscribe(events::add);
+        publisher.publish(null, createCalculator("1"));
+        assertEquals(1, subscription.getRejectedCount());
+        rejecting.set(false);
+        publisher.publish(null, createCalculator("2"));
+        runAll(tasks);
+        assertEquals(2, events.size());
+    }
+
+    private static CoinRewardCalculator createCalculator(String baseRewardPerDay) {
+        return new CoinRewardCalculator(BTC, BigDecimal.valueOf(14000000000000L), new BigDecimal(baseRewardPerDay));
+    }
+
+    private static void runAll(ArrayDeque<Runnable> tasks) {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+}
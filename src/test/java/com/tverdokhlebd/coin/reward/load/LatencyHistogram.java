@@ -0,0 +1,94 @@
+package com.tverdokhlebd.coin.reward.load;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent histogram of latencies with power-of-two buckets of microseconds.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class LatencyHistogram {
+
+    /** Count of buckets, the last one holds latencies above 2^30 microseconds. */
+    private static final int BUCKETS = 32;
+
+    /** Counts of latencies by bucket. */
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+    /**
+     * Creates instance.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records latency.
+     *
+     * @param nanos latency in nanoseconds
+     */
+    public void record(long nanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        int bucket = Math.min(BUCKETS - 1, Long.SIZE - Long.numberOfLeadingZeros(micros));
+        counts[bucket].increment();
+    }
+
+    /**
+     * Gets count of recorded latencies.
+     *
+     * @return count of recorded latencies
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucketCount : counts) {
+            count += bucketCount.sum();
+        }
+        return count;
+    }
+
+    /**
+     * Gets upper bound of percentile of latencies.
+     *
+     * @param percentile percentile from 0 to 100
+     * @return upper bound of latency in microseconds, or 0 if nothing is recorded
+     */
+    public long getPercentileMicros(double percentile) {
+        long count = getCount();
+        long rank = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i].sum();
+            if (seen >= rank && seen > 0) {
+                return getUpperBoundMicros(i);
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = counts[i].sum();
+            if (count > 0) {
+                builder.append(String.format("  <= %,12d us: %,d%n", getUpperBoundMicros(i), count));
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Gets upper bound of bucket.
+     *
+     * @param bucket index of bucket
+     * @return upper bound of bucket in microseconds
+     */
+    private static long getUpperBoundMicros(int bucket) {
+        return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+
+}
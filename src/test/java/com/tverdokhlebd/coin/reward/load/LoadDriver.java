@@ -0,0 +1,152 @@
+package com.tverdokhlebd.coin.reward.load;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.tverdokhlebd.coin.reward.CoinReward;
+import com.tverdokhlebd.coin.reward.requestor.CoinRewardRequestor;
+import com.tverdokhlebd.coin.reward.requestor.CoinRewardRequestorException;
+import com.tverdokhlebd.coin.reward.requestor.RefreshExecutors;
+import com.tverdokhlebd.coin.reward.requestor.RequestBudget;
+import com.tverdokhlebd.coin.reward.requestor.RequestBudgetExhaustedException;
+import com.tverdokhlebd.coin.reward.whattomine.WhatToMineRequestor;
+import com.tverdokhlebd.mining.commons.coin.CoinType;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * Driver of load, which runs many threads calling {@link CoinRewardRequestor#requestCoinReward(CoinType, BigDecimal)}
+ * against {@link WhatToMineSimulator}.
+ *
+ * Soak run: {@code java -cp <test classpath> com.tverdokhlebd.coin.reward.load.LoadDriver [threads] [seconds]
+ * [latencyMillis] [errorRate] [rateLimitPerSecond]}.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class LoadDriver {
+
+    /** Requestor under load. */
+    private final CoinRewardRequestor requestor;
+    /** Simulator of upstream API. */
+    private final WhatToMineSimulator simulator;
+    /** List of requested coins. */
+    private final List<CoinType> coinTypeList;
+    /** Count of threads. */
+    private final int threads;
+
+    /**
+     * Creates instance.
+     *
+     * @param requestor requestor under load
+     * @param simulator simulator of upstream API
+     * @param coinTypeList list of requested coins
+     * @param threads count of threads
+     */
+    public LoadDriver(CoinRewardRequestor requestor, WhatToMineSimulator simulator, List<CoinType> coinTypeList, int threads) {
+        this.requestor = requestor;
+        this.simulator = simulator;
+        this.coinTypeList = coinTypeList;
+        this.threads = threads;
+    }
+
+    /**
+     * Runs load.
+     *
+     * @param durationMillis duration of run in milliseconds
+     * @return report of run
+     * @throws InterruptedException if waiting for threads is interrupted
+     */
+    public LoadReport run(long durationMillis) throws InterruptedException {
+        LatencyHistogram latencyHistogram = new LatencyHistogram();
+        Map<String, Long> errorCountMap = new ConcurrentHashMap<>();
+        CountDownLatch startLatch = new CountDownLatch(1);
+        CountDownLatch finishLatch = new CountDownLatch(threads);
+        long[] deadline = new long[1];
+        for (int i = 0; i < threads; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    startLatch.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline[0]) {
+                        CoinType coinType = coinTypeList.get(random.nextInt(coinTypeList.size()));
+                        BigDecimal reportedHashrate = BigDecimal.valueOf(random.nextLong(1, 100 * WhatToMineSimulator.BASE_HASHRATE));
+                        long startNanos = System.nanoTime();
+                        String error = request(coinType, reportedHashrate);
+                        if (error == null) {
+                            latencyHistogram.record(System.nanoTime() - startNanos);
+                        } else {
+                            errorCountMap.merge(error, 1L, Long::sum);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    finishLatch.countDown();
+                }
+            }, "load-driver-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        long startNanos = System.nanoTime();
+        deadline[0] = startNanos + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        startLatch.countDown();
+        finishLatch.await();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        return new LoadReport(elapsedMillis, latencyHistogram, errorCountMap, simulator);
+    }
+
+    /**
+     * Requests coin reward and checks it.
+     *
+     * @param coinType type of coin
+     * @param reportedHashrate reported hashrate in H/s
+     * @return name of error, or null if request is succeeded
+     */
+    private String request(CoinType coinType, BigDecimal reportedHashrate) {
+        try {
+            CoinReward coinReward = requestor.requestCoinReward(coinType, reportedHashrate);
+            if (coinReward == null || coinReward.getCoinType() != coinType || coinReward.getRewardPerDay() == null) {
+                return "INCONSISTENT_RESULT";
+            }
+            return null;
+        } catch (RequestBudgetExhaustedException e) {
+            // Upstream is not requested, so it is not reported as upstream error
+            return "BUDGET_EXHAUSTED";
+        } catch (CoinRewardRequestorException e) {
+            return e.getErrorCode().name();
+        } catch (RuntimeException e) {
+            // Unexpected exceptions, e.g. NullPointerException on racing with cache, are reported by class
+            return e.getClass().getSimpleName();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        long seconds = args.length > 1 ? Long.parseLong(args[1]) : 300;
+        long latencyMillis = args.length > 2 ? Long.parseLong(args[2]) : 50;
+        double errorRate = args.length > 3 ? Double.parseDouble(args[3]) : 0.01;
+        int rateLimitPerSecond = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+        List<CoinType> coinTypeList = Arrays.asList(CoinType.values());
+        try (WhatToMineSimulator simulator =
+                new WhatToMineSimulator(latencyMillis, latencyMillis, errorRate, errorRate, 60, rateLimitPerSecond)) {
+            simulator.start();
+            WhatToMineRequestor requestor = new WhatToMineRequestor(new OkHttpClient(),
+                                                                    1,
+                                                                    simulator.createEndpointRegistry(coinTypeList),
+                                                                    false,
+                                                                    RefreshExecutors.getDefault(),
+                                                                    new RequestBudget(),
+                                                                    null);
+            LoadReport loadReport = new LoadDriver(requestor, simulator, coinTypeList, threads).run(TimeUnit.SECONDS.toMillis(seconds));
+            System.out.print(loadReport);
+        }
+    }
+
+}
@@ -0,0 +1,133 @@
+package com.tverdokhlebd.coin.reward.load;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+/**
+ * Report of load run.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class LoadReport {
+
+    /** Duration of run in milliseconds. */
+    private final long durationMillis;
+    /** Histogram of latencies of successful requests. */
+    private final LatencyHistogram latencyHistogram;
+    /** Counts of failed requests by error. */
+    private final Map<String, Long> errorCountMap;
+    /** Count of upstream requests. */
+    private final long upstreamRequestCount;
+    /** Count of upstream responses with HTTP error. */
+    private final long upstreamHttpErrorCount;
+    /** Count of upstream responses with API error. */
+    private final long upstreamApiErrorCount;
+    /** Count of rate limited upstream requests. */
+    private final long upstreamRateLimitedCount;
+
+    /**
+     * Creates instance.
+     *
+     * @param durationMillis duration of run in milliseconds
+     * @param latencyHistogram histogram of latencies of successful requests
+     * @param errorCountMap counts of failed requests by error
+     * @param simulator simulator of upstream API
+     */
+    public LoadReport(long durationMillis, LatencyHistogram latencyHistogram, Map<String, Long> errorCountMap,
+            WhatToMineSimulator simulator) {
+        this.durationMillis = durationMillis;
+        this.latencyHistogram = latencyHistogram;
+        this.errorCountMap = new TreeMap<>(errorCountMap);
+        this.upstreamRequestCount = simulator.getRequestCount();
+        this.upstreamHttpErrorCount = simulator.getHttpErrorCount();
+        this.upstreamApiErrorCount = simulator.getApiErrorCount();
+        this.upstreamRateLimitedCount = simulator.getRateLimitedCount();
+    }
+
+    /**
+     * Gets count of successful requests.
+     *
+     * @return count of successful requests
+     */
+    public long getSuccessCount() {
+        return latencyHistogram.getCount();
+    }
+
+    /**
+     * Gets count of failed requests.
+     *
+     * @return count of failed requests
+     */
+    public long getErrorCount() {
+        long errorCount = 0;
+        for (long count : errorCountMap.values()) {
+            errorCount += count;
+        }
+        return errorCount;
+    }
+
+    /**
+     * Gets counts of failed requests by error.
+     *
+     * @return counts of failed requests by error
+     */
+    public Map<String, Long> getErrorCountMap() {
+        return errorCountMap;
+    }
+
+    /**
+     * Gets throughput of requests.
+     *
+     * @return requests per second
+     */
+    public double getThroughput() {
+        return (getSuccessCount() + getErrorCount()) * 1000.0 / Math.max(1, durationMillis);
+    }
+
+    /**
+     * Gets histogram of latencies of successful requests.
+     *
+     * @return histogram of latencies
+     */
+    public LatencyHistogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    /**
+     * Gets count of upstream requests.
+     *
+     * @return count of upstream requests
+     */
+    public long getUpstreamRequestCount() {
+        return upstreamRequestCount;
+    }
+
+    @Override
+    public String toString() {
+        long requestCount = getSuccessCount() + getErrorCount();
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Duration: %,d ms%n", durationMillis));
+        builder.append(String.format("Requests: %,d (%,.1f/s), errors: %,d (%.3f%%)%n",
+                                     requestCount,
+                                     getThroughput(),
+                                     getErrorCount(),
+                                     requestCount == 0 ? 0 : getErrorCount() * 100.0 / requestCount));
+        for (Entry<String, Long> errorCountEntry : errorCountMap.entrySet()) {
+            builder.append(String.format("  %s: %,d%n", errorCountEntry.getKey(), errorCountEntry.getValue()));
+        }
+        builder.append(String.format("Latency p50 <= %,d us, p99 <= %,d us, p99.9 <= %,d us%n",
+                                     latencyHistogram.getPercentileMicros(50),
+                                     latencyHistogram.getPercentileMicros(99),
+                                     latencyHistogram.getPercentileMicros(99.9)));
+        builder.append(latencyHistogram);
+        builder.append(String.format("Upstream: %,d requests, %,d HTTP errors, %,d API errors, %,d rate limited%n",
+                                     upstreamRequestCount,
+                                     upstreamHttpErrorCount,
+                                     upstreamApiErrorCount,
+                                     upstreamRateLimitedCount));
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.tverdokhlebd.coin.reward.load;
+
+import static com.tverdokhlebd.mining.commons.coin.CoinType.BCH;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.DASH;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.tverdokhlebd.coin.reward.requestor.RefreshExecutors;
+import com.tverdokhlebd.coin.reward.whattomine.WhatToMineRequestor;
+import com.tverdokhlebd.mining.commons.coin.CoinType;
+import com.tverdokhlebd.mining.commons.http.ErrorCode;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * Short load runs against local simulator. Longer soak runs are started by {@link LoadDriver#main(String[])}.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class LoadTest {
+
+    private static final int THREADS = 16;
+
+    @Test
+    public void testLoad() throws IOException, InterruptedException {
+        List<CoinType> coinTypeList = Collections.singletonList(BCH);
+        try (WhatToMineSimulator simulator = new WhatToMineSimulator(5, 5, 0, 0, 60, 0)) {
+            simulator.start();
+            LoadReport loadReport = new LoadDriver(createRequestor(simulator, coinTypeList), simulator, coinTypeList, THREADS).run(1000);
+            assertEquals(loadReport.toString(), 0, loadReport.getErrorCount());
+            assertTrue(loadReport.getSuccessCount() > THREADS);
+            // Calculator is cached for 1 minute, so only the first concurrent misses reach upstream
+            assertTrue(loadReport.toString(), loadReport.getUpstreamRequestCount() <= THREADS);
+        }
+    }
+
+    @Test
+    public void testFailures() throws IOException, InterruptedException {
+        List<CoinType> coinTypeList = Collections.singletonList(DASH);
+        try (WhatToMineSimulator simulator = new WhatToMineSimulator(0, 2, 0.5, 1, 60, 100)) {
+            simulator.start();
+            LoadReport loadReport = new LoadDriver(createRequestor(simulator, coinTypeList), simulator, coinTypeList, 4).run(500);
+            assertEquals(0, loadReport.getSuccessCount());
+            assertTrue(loadReport.getErrorCount() > 0);
+            for (String error : loadReport.getErrorCountMap().keySet()) {
+                // Every failure must be reported as error of requestor, not as unexpected exception
+                ErrorCode.valueOf(error);
+            }
+        }
+    }
+
+    private static WhatToMineRequestor createRequestor(WhatToMineSimulator simulator, List<CoinType> coinTypeList) {
+        return new WhatToMineRequestor(new OkHttpClient(), 1, simulator.createEndpointRegistry(coinTypeList), false,
+                RefreshExecutors.getDefault(), null, null);
+    }
+
+}
@@ -0,0 +1,227 @@
+package com.tverdokhlebd.coin.reward.load;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import com.tverdokhlebd.coin.reward.whattomine.EndpointRegistry;
+import com.tverdokhlebd.mining.commons.coin.CoinType;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Local simulator of WhatToMine API with configurable latency, error rates, changing timestamps and rate limiting.
+ *
+ * Coin with id N is served on {@code /coins/N.json}. Every {@code updateIntervalSeconds} its timestamp moves forward and
+ * its reward changes, like on real API.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class WhatToMineSimulator implements Closeable {
+
+    /** Base hashrate of every simulated coin in H/s. */
+    public static final long BASE_HASHRATE = 1000000;
+    /** Reward per day for base hashrate at the first update. */
+    private static final double BASE_REWARD_PER_DAY = 0.01;
+
+    /** Mock server. */
+    private final MockWebServer server = new MockWebServer();
+    /** Minimal latency of response in milliseconds. */
+    private final long latencyMillis;
+    /** Maximal additional random latency of response in milliseconds. */
+    private final long latencyJitterMillis;
+    /** Rate of HTTP errors. */
+    private final double httpErrorRate;
+    /** Rate of API errors. */
+    private final double apiErrorRate;
+    /** Interval of updates of simulated data in seconds. */
+    private final long updateIntervalSeconds;
+    /** Maximal count of requests per second, or 0 if requests are not limited. */
+    private final int rateLimitPerSecond;
+    /** Start time of simulation in seconds. */
+    private final long startSeconds = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+    /** Count of requests. */
+    private final LongAdder requestCount = new LongAdder();
+    /** Count of responses with HTTP error. */
+    private final LongAdder httpErrorCount = new LongAdder();
+    /** Count of responses with API error. */
+    private final LongAdder apiErrorCount = new LongAdder();
+    /** Count of rate limited requests. */
+    private final LongAdder rateLimitedCount = new LongAdder();
+    /** Current second of rate limiting and count of requests in it, packed into one value. */
+    private final AtomicLong rateLimitWindow = new AtomicLong();
+
+    /**
+     * Creates instance.
+     *
+     * @param latencyMillis minimal latency of response in milliseconds
+     * @param latencyJitterMillis maximal additional random latency of response in milliseconds
+     * @param httpErrorRate rate of HTTP errors
+     * @param apiErrorRate rate of API errors
+     * @param updateIntervalSeconds interval of updates of simulated data in seconds
+     * @param rateLimitPerSecond maximal count of requests per second, or 0 if requests are not limited
+     */
+    public WhatToMineSimulator(long latencyMillis, long latencyJitterMillis, double httpErrorRate, double apiErrorRate,
+            long updateIntervalSeconds, int rateLimitPerSecond) {
+        this.latencyMillis = latencyMillis;
+        this.latencyJitterMillis = latencyJitterMillis;
+        this.httpErrorRate = httpErrorRate;
+        this.apiErrorRate = apiErrorRate;
+        this.updateIntervalSeconds = updateIntervalSeconds;
+        this.rateLimitPerSecond = rateLimitPerSecond;
+        server.setDispatcher(new Dispatcher() {
+
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                return respond(request);
+            }
+
+        });
+    }
+
+    /**
+     * Starts simulator on random local port.
+     *
+     * @throws IOException if server is not started
+     */
+    public void start() throws IOException {
+        server.start();
+    }
+
+    /**
+     * Creates registry of endpoints of simulator.
+     *
+     * @param coinTypeList list of simulated coins
+     * @return registry of endpoints
+     */
+    public EndpointRegistry createEndpointRegistry(List<CoinType> coinTypeList) {
+        JSONArray coins = new JSONArray();
+        for (CoinType coinType : coinTypeList) {
+            int id = coinType.ordinal() + 1;
+            coins.put(new JSONObject().put("coin", coinType.name())
+                                      .put("id", id)
+                                      .put("url", server.url("/coins/" + id + ".json").toString())
+                                      .put("base_hashrate", BASE_HASHRATE));
+        }
+        return EndpointRegistry.load(new StringReader(new JSONObject().put("coins", coins).toString()));
+    }
+
+    /**
+     * Gets count of requests.
+     *
+     * @return count of requests
+     */
+    public long getRequestCount() {
+        return requestCount.sum();
+    }
+
+    /**
+     * Gets count of responses with HTTP error.
+     *
+     * @return count of responses with HTTP error
+     */
+    public long getHttpErrorCount() {
+        return httpErrorCount.sum();
+    }
+
+    /**
+     * Gets count of responses with API error.
+     *
+     * @return count of responses with API error
+     */
+    public long getApiErrorCount() {
+        return apiErrorCount.sum();
+    }
+
+    /**
+     * Gets count of rate limited requests.
+     *
+     * @return count of rate limited requests
+     */
+    public long getRateLimitedCount() {
+        return rateLimitedCount.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    /**
+     * Creates response for request.
+     *
+     * @param request request
+     * @return response
+     * @throws InterruptedException if simulated latency is interrupted
+     */
+    private MockResponse respond(RecordedRequest request) throws InterruptedException {
+        requestCount.increment();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long latency = latencyMillis + (latencyJitterMillis > 0 ? random.nextLong(latencyJitterMillis + 1) : 0);
+        if (latency > 0) {
+            Thread.sleep(latency);
+        }
+        if (isRateLimited()) {
+            rateLimitedCount.increment();
+            return new MockResponse().setResponseCode(429).setBody("Too many requests");
+        }
+        if (random.nextDouble() < httpErrorRate) {
+            httpErrorCount.increment();
+            return new MockResponse().setResponseCode(503).setBody("Service unavailable");
+        }
+        if (random.nextDouble() < apiErrorRate) {
+            apiErrorCount.increment();
+            return new MockResponse().setBody("{\"errors\": [\"Simulated error\"]}");
+        }
+        long update = updateIntervalSeconds > 0 ? (currentSeconds() - startSeconds) / updateIntervalSeconds : 0;
+        double rewardPerDay = BASE_REWARD_PER_DAY * (1 + 0.1 * Math.sin(update));
+        JSONObject coin = new JSONObject().put("id", request.getPath())
+                                          .put("estimated_rewards", String.valueOf(rewardPerDay))
+                                          .put("timestamp", startSeconds + update * updateIntervalSeconds);
+        return new MockResponse().setBody(coin.toString());
+    }
+
+    /**
+     * Checks if request exceeds limit of requests per second.
+     *
+     * @return true, if request is rate limited
+     */
+    private boolean isRateLimited() {
+        if (rateLimitPerSecond <= 0) {
+            return false;
+        }
+        long second = currentSeconds();
+        while (true) {
+            long window = rateLimitWindow.get();
+            long count = window >>> 32 == second ? (window & 0xFFFFFFFFL) + 1 : 1;
+            if (count > rateLimitPerSecond) {
+                return true;
+            }
+            if (rateLimitWindow.compareAndSet(window, second << 32 | count)) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Gets current time in seconds.
+     *
+     * @return current time in seconds
+     */
+    private static long currentSeconds() {
+        return TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+    }
+
+}
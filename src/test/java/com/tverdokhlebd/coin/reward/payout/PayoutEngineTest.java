@@ -0,0 +1,170 @@
+package com.tverdokhlebd.coin.reward.payout;
+
+import static com.tverdokhlebd.mining.commons.coin.CoinType.BTC;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.SplittableRandom;
+
+import org.junit.Test;
+
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+
+/**
+ * Tests of payout engine.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class PayoutEngineTest {
+
+    /** BTC with 600 seconds blocks and 30 EH/s network. */
+    private static final CoinRewardCalculator CALCULATOR = createCalculator();
+    /** Math context of exact reference. */
+    private static final MathContext EXACT = MathContext.DECIMAL128;
+    /** Relative tolerance of primitive payouts. */
+    private static final double TOLERANCE = 1e-12;
+
+    @Test
+    public void testPps() {
+        PoolParameters poolParameters = new PoolParameters.Builder().setPayoutScheme(PayoutScheme.PPS)
+                                                                    .setFee(0.02)
+                                                                    .setTransactionFeeShare(0.1)
+                                                                    .build();
+        assertPayouts(poolParameters, 7, BigDecimal.ONE);
+    }
+
+    @Test
+    public void testFpps() {
+        PoolParameters poolParameters = new PoolParameters.Builder().setPayoutScheme(PayoutScheme.FPPS)
+                                                                    .setFee(0.04)
+                                                                    .setTransactionFeeShare(0.1)
+                                                                    .build();
+        assertPayouts(poolParameters, 7, new BigDecimal("1.1"));
+    }
+
+    @Test
+    public void testPplns() {
+        PoolParameters poolParameters = new PoolParameters.Builder().setPayoutScheme(PayoutScheme.PPLNS)
+                                                                    .setFee(0.01)
+                                                                    .setShareWindow(2)
+                                                                    .setTransactionFeeShare(0.1)
+                                                                    .build();
+        double[] workerHashrates = createWorkerHashrates();
+        BigDecimal windowDays = getWindowDays(workerHashrates, BigDecimal.valueOf(2));
+        // Pool has about a third of network, so its blocks take 30 minutes and window takes about an hour
+        assertEquals(1 / 24d, windowDays.doubleValue(), 0.001);
+        BigDecimal days = BigDecimal.ONE;
+        BigDecimal filledWindow = BigDecimal.ONE.subtract(windowDays.divide(days.multiply(BigDecimal.valueOf(2)), EXACT));
+        assertPayouts(poolParameters, days.doubleValue(), new BigDecimal("1.1").multiply(filledWindow));
+        days = new BigDecimal("0.01");
+        BigDecimal fillingWindow = days.divide(windowDays.multiply(BigDecimal.valueOf(2)), EXACT);
+        assertPayouts(poolParameters, days.doubleValue(), new BigDecimal("1.1").multiply(fillingWindow));
+    }
+
+    @Test
+    public void testPplnsFixture() {
+        // 0.001 per TH/s per day, pool of 10 EH/s has a third of network, so its blocks take 1800 s and window is 1/24 day
+        CoinRewardCalculator calculator = new CoinRewardCalculator.Builder().setCoinType(BTC)
+                                                                            .setBaseHashrate(new BigDecimal("1e12"))
+                                                                            .setBaseRewardPerDay(new BigDecimal("0.001"))
+                                                                            .setNetworkHashrate(new BigDecimal("3e19"))
+                                                                            .setBlockTime(new BigDecimal("600"))
+                                                                            .build();
+        PoolParameters.Builder builder = new PoolParameters.Builder().setPayoutScheme(PayoutScheme.PPLNS)
+                                                                     .setFee(0.01)
+                                                                     .setShareWindow(2)
+                                                                     .setTransactionFeeShare(0.1);
+        double[] workerHashrates = { 4e18, 6e18 };
+        double[] payouts = new double[workerHashrates.length];
+        PayoutEngine payoutEngine = new PayoutEngine(builder.build());
+        // One day: 4e18 * 1e-15 * 0.99 * 1.1 * (1 - 1 / 48) = 4265.25
+        payoutEngine.calculatePayouts(calculator, workerHashrates, 1, payouts);
+        assertArrayEquals(new double[] { 4265.25, 6397.875 }, payouts, 1e-9);
+        // Half of window from cold start: 4e18 * 1e-15 / 48 * 0.99 * 1.1 * 1 / 4 = 22.6875
+        payoutEngine.calculatePayouts(calculator, workerHashrates, 1 / 48d, payouts);
+        assertArrayEquals(new double[] { 22.6875, 34.03125 }, payouts, 1e-9);
+        // Half of window in steady state: 4e18 * 1e-15 / 48 * 0.99 * 1.1 = 90.75
+        new PayoutEngine(builder.setSteadyState(true).build()).calculatePayouts(calculator, workerHashrates, 1 / 48d, payouts);
+        assertArrayEquals(new double[] { 90.75, 136.125 }, payouts, 1e-9);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPplnsWithoutNetwork() {
+        PoolParameters poolParameters = new PoolParameters(PayoutScheme.PPLNS, 0.01, 2, 0);
+        CoinRewardCalculator calculator =
+                new CoinRewardCalculator(BTC, BigDecimal.valueOf(14000000000000L), new BigDecimal("0.000889"));
+        new PayoutEngine(poolParameters).calculatePayouts(calculator, new double[] { 1e12 }, 1, new double[1]);
+    }
+
+    /**
+     * Checks sequential and parallel payouts against exact payouts.
+     *
+     * @param poolParameters parameters of pool
+     * @param days period of mining in days
+     * @param schemeFactor exact factor of scheme
+     */
+    private static void assertPayouts(PoolParameters poolParameters, double days, BigDecimal schemeFactor) {
+        double[] workerHashrates = createWorkerHashrates();
+        PayoutEngine payoutEngine = new PayoutEngine(poolParameters);
+        double[] payouts = new double[workerHashrates.length];
+        payoutEngine.calculatePayouts(CALCULATOR, workerHashrates, days, payouts);
+        double[] parallelPayouts = new double[workerHashrates.length];
+        payoutEngine.calculatePayoutsInParallel(CALCULATOR, workerHashrates, days, parallelPayouts);
+        assertArrayEquals(payouts, parallelPayouts, 0);
+        BigDecimal factor = CALCULATOR.getBaseRewardPerDay()
+                                      .divide(CALCULATOR.getBaseHashrate(), EXACT)
+                                      .multiply(new BigDecimal(days))
+                                      .multiply(BigDecimal.ONE.subtract(new BigDecimal(poolParameters.getFee())))
+                                      .multiply(schemeFactor, EXACT);
+        for (int i = 0; i < workerHashrates.length; i++) {
+            double expected = new BigDecimal(workerHashrates[i]).multiply(factor, EXACT).doubleValue();
+            assertEquals(expected, payouts[i], expected * TOLERANCE);
+        }
+    }
+
+    /**
+     * Gets exact duration of share window.
+     *
+     * @param workerHashrates hashrates of workers in H/s
+     * @param shareWindow share window in multiples of shares per block of pool
+     * @return duration of share window in days
+     */
+    private static BigDecimal getWindowDays(double[] workerHashrates, BigDecimal shareWindow) {
+        BigDecimal poolHashrate = BigDecimal.ZERO;
+        for (double workerHashrate : workerHashrates) {
+            poolHashrate = poolHashrate.add(new BigDecimal(workerHashrate));
+        }
+        return shareWindow.multiply(CALCULATOR.getBlockTime())
+                          .multiply(CALCULATOR.getNetworkHashrate())
+                          .divide(poolHashrate.multiply(BigDecimal.valueOf(24 * 60 * 60)), EXACT);
+    }
+
+    /**
+     * Creates 200000 workers from 0.1 to 100 TH/s, about 10 EH/s in total.
+     *
+     * @return hashrates of workers in H/s
+     */
+    private static double[] createWorkerHashrates() {
+        SplittableRandom random = new SplittableRandom(42);
+        double[] workerHashrates = new double[200000];
+        for (int i = 0; i < workerHashrates.length; i++) {
+            workerHashrates[i] = (1 + random.nextInt(1000)) * 1e11;
+        }
+        return workerHashrates;
+    }
+
+    private static CoinRewardCalculator createCalculator() {
+        CoinRewardCalculator.Builder builder = new CoinRewardCalculator.Builder();
+        builder.setCoinType(BTC)
+               .setBaseHashrate(BigDecimal.valueOf(14000000000000L))
+               .setBaseRewardPerDay(new BigDecimal("0.000889"))
+               .setNetworkHashrate(new BigDecimal("30000000000000000000"))
+               .setBlockReward(new BigDecimal("12.5"))
+               .setBlockTime(new BigDecimal("600"));
+        return builder.build();
+    }
+
+}
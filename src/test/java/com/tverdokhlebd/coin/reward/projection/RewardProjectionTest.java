@@ -0,0 +1,126 @@
+package com.tverdokhlebd.coin.reward.projection;
+
+import static com.tverdokhlebd.mining.commons.coin.CoinType.BTC;
+import static java.math.RoundingMode.HALF_UP;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Date;
+
+import org.junit.Test;
+
+import com.tverdokhlebd.coin.reward.CoinReward;
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.coin.reward.PrecisionPolicy;
+
+/**
+ * Tests of reward projection.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class RewardProjectionTest {
+
+    private static final CoinRewardCalculator CALCULATOR =
+            new CoinRewardCalculator(BTC, BigDecimal.valueOf(14000000000000L), new BigDecimal("0.000889"));
+
+    @Test
+    public void testWithoutGrowth() {
+        RewardProjection projection = new RewardProjection(CALCULATOR, 0, 0, 365);
+        BigDecimal reportedHashrate = BigDecimal.valueOf(14000000000000L);
+        CoinReward expected = CALCULATOR.calculateRewards(reportedHashrate);
+        CoinReward projected = projection.projectCoinReward(reportedHashrate);
+        assertEquals(expected.getRewardPerHour(), projected.getRewardPerHour());
+        assertEquals(expected.getRewardPerDay(), projected.getRewardPerDay());
+        assertEquals(expected.getRewardPerWeek(), projected.getRewardPerWeek());
+        assertEquals(expected.getRewardPerMonth(), projected.getRewardPerMonth());
+        assertEquals(expected.getRewardPerYear(), projected.getRewardPerYear());
+    }
+
+    @Test
+    public void testWithGrowthAndDiscount() {
+        RewardProjection projection = new RewardProjection(CALCULATOR, 0.01, 0.001, 365);
+        double q = 1 / (1.01 * 1.001);
+        assertEquals(1, projection.getCumulativeFactor(1), 0);
+        assertEquals((1 - Math.pow(q, 30)) / (1 - q), projection.getCumulativeFactor(30), 1e-9);
+        assertEquals((1 - Math.pow(q, 365)) / (1 - q), projection.getCumulativeFactor(365), 1e-9);
+        assertEquals(0.000889 * (1 - Math.pow(q, 365)) / (1 - q), projection.projectReward(14000000000000d, 365), 1e-12);
+        CoinReward projected = projection.projectCoinReward(BigDecimal.valueOf(14000000000000L));
+        assertEquals(new BigDecimal("0.022856"), projected.getRewardPerMonth());
+        assertTrue(projected.getRewardPerYear().compareTo(new BigDecimal("0.324485")) < 0);
+    }
+
+    @Test
+    public void testPrecisionAndVersion() {
+        CoinRewardCalculator.Builder builder = new CoinRewardCalculator.Builder();
+        builder.setCoinType(BTC)
+               .setBaseHashrate(BigDecimal.valueOf(14000000000000L))
+               .setBaseRewardPerDay(new BigDecimal("0.000889"))
+               .setLastUpdated(new Date(1525899632000L))
+               .setPrecisionPolicy(new PrecisionPolicy(10, new MathContext(20, HALF_UP)));
+        CoinRewardCalculator calculator = builder.build();
+        RewardProjection projection = new RewardProjection(calculator, 0.01, 0.001, 365);
+        CoinReward projected = projection.projectCoinReward(BigDecimal.valueOf(14000000000000L));
+        assertEquals(calculator.getVersion(), projected.getCalculatorVersion());
+        assertEquals(10, projected.getRewardPerMonth().scale());
+        BigDecimal expected = new BigDecimal("0.000889").multiply(BigDecimal.valueOf(projection.getCumulativeFactor(30)))
+                                                       .setScale(10, HALF_UP);
+        assertEquals(expected, projected.getRewardPerMonth());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShortHorizon() {
+        new RewardProjection(CALCULATOR, 0, 0, 364);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeHorizon() {
+        new RewardProjector(new DifficultyHistory(), 0, -1);
+    }
+
+    @Test
+    public void testVectorized() {
+        RewardProjection projection = new RewardProjection(CALCULATOR, 0.005, 0, 365);
+        double[] hashrates = { 1e12, 7e12, 14e12, 1e15 };
+        int[] days = { 1, 7, 30, 365 };
+        double[][] result = new double[days.length][hashrates.length];
+        projection.projectRewards(hashrates, days, result);
+        for (int i = 0; i < days.length; i++) {
+            for (int j = 0; j < hashrates.length; j++) {
+                assertEquals(projection.projectReward(hashrates[j], days[i]), result[i][j], 1e-12);
+            }
+        }
+    }
+
+    @Test
+    public void testFitFromHistory() {
+        DifficultyHistory history = new DifficultyHistory(16);
+        long start = 1525899632000L;
+        assertTrue(Double.isNaN(history.fitDailyGrowthRate(BTC)));
+        for (int hour = 0; hour <= 240; hour += 12) {
+            history.record(BTC, start + hour * 3600000L, 4e12 * Math.pow(1.02, hour / 24.0));
+        }
+        assertEquals(16, history.getSampleCount(BTC));
+        assertEquals(0.02, history.fitDailyGrowthRate(BTC), 1e-9);
+        RewardProjector projector = new RewardProjector(history);
+        assertEquals(0.02, projector.getProjection(CALCULATOR).getDailyGrowthRate(), 1e-9);
+        assertTrue(projector.getProjection(CALCULATOR) == projector.getProjection(CALCULATOR));
+    }
+
+    @Test
+    public void testGrowthFromWeekAverage() {
+        CoinRewardCalculator.Builder builder = new CoinRewardCalculator.Builder();
+        builder.setCoinType(BTC)
+               .setBaseHashrate(BigDecimal.valueOf(14000000000000L))
+               .setBaseRewardPerDay(new BigDecimal("0.000889"))
+               .setLastUpdated(new Date())
+               .setDifficulty(BigDecimal.valueOf(4e12))
+               .setWeekAverageDifficulty(BigDecimal.valueOf(4e12 / Math.pow(1.01, 3.5)));
+        CoinRewardCalculator calculator = builder.build();
+        RewardProjector projector = new RewardProjector(new DifficultyHistory());
+        assertEquals(0.01, projector.estimateDailyGrowthRate(calculator), 1e-9);
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.tverdokhlebd.coin.reward.requestor;
+
+import static com.tverdokhlebd.coin.reward.CoinRewardType.WHAT_TO_MINE;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.BTC;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.ZEC;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.tverdokhlebd.coin.reward.CalculatorVersion;
+import com.tverdokhlebd.coin.reward.CoinReward;
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.coin.reward.whattomine.EndpointRegistry;
+import com.tverdokhlebd.coin.reward.whattomine.WhatToMineRequestor;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * Tests of retained versions of coin reward calculators.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class CalculatorVersionRingTest {
+
+    @Test
+    public void testRetention() {
+        CalculatorVersionRing ring = new CalculatorVersionRing(2);
+        CoinRewardCalculator firstCalculator = createCalculator(1000, "0.1");
+        CoinRewardCalculator secondCalculator = createCalculator(2000, "0.2");
+        CoinRewardCalculator thirdCalculator = createCalculator(3000, "0.3");
+        ring.retain(firstCalculator);
+        ring.retain(secondCalculator);
+        ring.retain(createCalculator(2000, "0.20"));
+        assertEquals(Arrays.asList(secondCalculator.getVersion(), firstCalculator.getVersion()), ring.getVersions(BTC));
+        ring.retain(thirdCalculator);
+        assertEquals(Arrays.asList(thirdCalculator.getVersion(), secondCalculator.getVersion()), ring.getVersions(BTC));
+        assertNull(ring.get(BTC, firstCalculator.getVersion()));
+        assertSame(secondCalculator, ring.get(BTC, secondCalculator.getVersion()));
+        assertEquals(0, ring.getVersions(ZEC).size());
+    }
+
+    @Test
+    public void testRequestWithVersion() throws IOException, CoinRewardRequestorException {
+        MockWebServer server = new MockWebServer();
+        server.enqueue(new MockResponse().setBody("{\"estimated_rewards\": \"0.4\", \"timestamp\": 1525900000}"));
+        server.enqueue(new MockResponse().setBody("{\"estimated_rewards\": \"0.5\", \"timestamp\": 1525900600}"));
+        server.start();
+        try {
+            EndpointRegistry endpointRegistry = EndpointRegistry.load(new StringReader("{\"coins\": ["
+                    + "{\"coin\": \"ZEC\", \"url\": \"" + server.url("/coins/zec.json") + "\", \"base_hashrate\": 42000}]}"));
+            WhatToMineRequestor requestor =
+                    new WhatToMineRequestor(new OkHttpClient(), 0, endpointRegistry, false, RefreshExecutors.getDefault(), null, null);
+            BigDecimal hashrate = BigDecimal.valueOf(84000);
+            CoinReward olderReward = requestor.requestCoinReward(ZEC, hashrate);
+            CoinReward newerReward = requestor.requestCoinReward(ZEC, hashrate);
+            assertEquals(0, new BigDecimal("0.8").compareTo(olderReward.getRewardPerDay()));
+            assertEquals(0, BigDecimal.ONE.compareTo(newerReward.getRewardPerDay()));
+            List<CalculatorVersion> versionList = requestor.getRetainedVersions(ZEC);
+            assertEquals(newerReward.getCalculatorVersion(), versionList.get(0));
+            assertEquals(olderReward.getCalculatorVersion(), versionList.get(1));
+            // Audit reproduces older reward without refetching
+            CalculatorVersion olderVersion = CalculatorVersion.parse(olderReward.getCalculatorVersion().toString());
+            assertEquals(olderReward, requestor.requestCoinReward(ZEC, hashrate, olderVersion));
+            assertEquals(2, server.getRequestCount());
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingVersion() {
+        CoinRewardRequestor requestor = CoinRewardRequestorFactory.create(WHAT_TO_MINE, new OkHttpClient(), 0);
+        requestor.requestCoinReward(ZEC, BigDecimal.ONE, new CalculatorVersion(1, 1));
+    }
+
+    private static CoinRewardCalculator createCalculator(long timestamp, String baseRewardPerDay) {
+        return new CoinRewardCalculator.Builder().setCoinType(BTC)
+                                                 .setBaseHashrate(BigDecimal.ONE)
+                                                 .setBaseRewardPerDay(new BigDecimal(baseRewardPerDay))
+                                                 .setLastUpdated(new Date(timestamp))
+                                                 .build();
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.tverdokhlebd.coin.reward.requestor;
+
+import static com.tverdokhlebd.mining.commons.coin.CoinType.ETC;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.ZEC;
+import static com.tverdokhlebd.mining.commons.http.ErrorCode.API_ERROR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.tverdokhlebd.coin.reward.whattomine.EndpointRegistry;
+import com.tverdokhlebd.coin.reward.whattomine.WhatToMineRequestor;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Tests of eager preloading of coins.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class CoinRewardPreloadTest {
+
+    private static final String RESPONSE = "{\"estimated_rewards\": \"0.3\", \"timestamp\": 1525899632}";
+
+    private MockWebServer server;
+    private WhatToMineRequestor requestor;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (request.getPath().startsWith("/coins/zec")) {
+                    return new MockResponse().setBody(RESPONSE).setBodyDelay(1000, TimeUnit.MILLISECONDS);
+                }
+                return new MockResponse().setBody("{\"errors\": [\"Coin is not found\"]}");
+            }
+
+        });
+        server.start();
+        EndpointRegistry endpointRegistry = EndpointRegistry.load(new StringReader("{\"coins\": ["
+                + "{\"coin\": \"ZEC\", \"url\": \"" + server.url("/coins/zec.json") + "\", \"base_hashrate\": 42000},"
+                + "{\"coin\": \"ETC\", \"url\": \"" + server.url("/coins/etc.json") + "\", \"base_hashrate\": 84000000}]}"));
+        requestor = new WhatToMineRequestor(new OkHttpClient(), 0, endpointRegistry, false, RefreshExecutors.getDefault(), null, null);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void testReady() throws InterruptedException {
+        CoinRewardPreload preload = new CoinRewardPreload(requestor, Collections.singletonList(ZEC));
+        assertTrue(preload.await(5000));
+        assertTrue(preload.isDone());
+        assertEquals(Collections.singletonList(ZEC), preload.getPricedCoinTypeList());
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void testDeadlineAndErrors() throws InterruptedException {
+        CoinRewardPreload preload = new CoinRewardPreload(requestor, Arrays.asList(ZEC, ETC));
+        assertFalse(preload.await(200));
+        assertEquals(Collections.singletonList(ZEC), preload.getPendingCoinTypeList());
+        assertEquals(API_ERROR, ((CoinRewardRequestorException) preload.getErrorMap().get(ETC)).getErrorCode());
+        // Preloading continues after deadline, but readiness requires every coin
+        assertFalse(preload.await(5000));
+        assertTrue(preload.isDone());
+        assertEquals(Collections.singletonList(ZEC), preload.getPricedCoinTypeList());
+        assertTrue(preload.getPendingCoinTypeList().isEmpty());
+    }
+
+}
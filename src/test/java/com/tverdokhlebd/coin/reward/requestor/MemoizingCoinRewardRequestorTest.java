@@ -0,0 +1,194 @@
+package com.tverdokhlebd.coin.reward.requestor;
+
+import static com.tverdokhlebd.mining.commons.coin.CoinType.BTC;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.ETH;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.tverdokhlebd.coin.reward.CalculatorVersion;
+import com.tverdokhlebd.coin.reward.CoinReward;
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.coin.reward.HashrateUnit;
+import com.tverdokhlebd.coin.reward.event.CoinRewardListener;
+import com.tverdokhlebd.coin.reward.event.CoinRewardPublisher;
+import com.tverdokhlebd.coin.reward.event.CoinRewardSubscription;
+import com.tverdokhlebd.mining.commons.coin.CoinType;
+
+/**
+ * Tests of memoizing coin reward requestor.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class MemoizingCoinRewardRequestorTest {
+
+    private static final BigDecimal HASHRATE = BigDecimal.valueOf(14000000000000L);
+
+    @Test
+    public void testMemoAndInvalidation() throws Exception {
+        CountingRequestor requestor = new CountingRequestor(null);
+        try (MemoizingCoinRewardRequestor memoizing = new MemoizingCoinRewardRequestor(requestor, 16, 60000)) {
+            CoinReward coinReward = memoizing.requestCoinReward(BTC, HASHRATE);
+            assertSame(coinReward, memoizing.requestCoinReward(BTC, HASHRATE));
+            assertEquals(new BigDecimal("0.000800"), coinReward.getRewardPerDay());
+            // Event of replacing is delivered asynchronously, so reward must not be served from memo even before it
+            requestor.replace(new BigDecimal("0.000900"));
+            assertEquals(new BigDecimal("0.000900"), memoizing.requestCoinReward(BTC, HASHRATE).getRewardPerDay());
+            assertEquals(2, requestor.callCount.get());
+            assertEquals(1, memoizing.getHitCount());
+            assertEquals(2, memoizing.getMissCount());
+        }
+    }
+
+    @Test
+    public void testCollapse() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountingRequestor requestor = new CountingRequestor(release);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (MemoizingCoinRewardRequestor memoizing = new MemoizingCoinRewardRequestor(requestor)) {
+            List<CompletableFuture<CoinReward>> futureList = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futureList.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return memoizing.requestCoinReward(BTC, HASHRATE);
+                    } catch (CoinRewardRequestorException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, executor));
+            }
+            while (memoizing.getHitCount() + memoizing.getMissCount() < futureList.size()) {
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+            release.countDown();
+            for (CompletableFuture<CoinReward> future : futureList) {
+                assertSame(futureList.get(0).get(), future.get());
+            }
+            assertEquals(1, requestor.callCount.get());
+            assertEquals(7, memoizing.getHitCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBounded() throws Exception {
+        CountingRequestor requestor = new CountingRequestor(null);
+        try (MemoizingCoinRewardRequestor memoizing = new MemoizingCoinRewardRequestor(requestor, 4, 60000)) {
+            for (int i = 1; i <= 10; i++) {
+                memoizing.requestCoinReward(ETH, BigDecimal.valueOf(i));
+            }
+            assertEquals(4, memoizing.getSize());
+            assertEquals(6, memoizing.getEvictionCount());
+            assertEquals(10, memoizing.getMissCount());
+        }
+    }
+
+    @Test
+    public void testOldestEvicted() throws Exception {
+        CountingRequestor requestor = new CountingRequestor(null);
+        try (MemoizingCoinRewardRequestor memoizing = new MemoizingCoinRewardRequestor(requestor, 4, 60000)) {
+            for (int i = 1; i <= 5; i++) {
+                memoizing.requestCoinReward(ETH, BigDecimal.valueOf(i));
+            }
+            for (int i = 2; i <= 5; i++) {
+                memoizing.requestCoinReward(ETH, BigDecimal.valueOf(i));
+            }
+            assertEquals(4, memoizing.getHitCount());
+            memoizing.requestCoinReward(ETH, BigDecimal.valueOf(1));
+            assertEquals(6, memoizing.getMissCount());
+        }
+    }
+
+    /**
+     * Requestor, which counts requests and publishes replacements asynchronously.
+     */
+    private static class CountingRequestor implements CoinRewardRequestor {
+
+        private final CoinRewardPublisher publisher = new CoinRewardPublisher();
+        private final AtomicInteger callCount = new AtomicInteger();
+        private final CountDownLatch release;
+        private volatile CoinRewardCalculator calculator = createCalculator(BTC, new BigDecimal("0.000800"));
+
+        CountingRequestor(CountDownLatch release) {
+            this.release = release;
+        }
+
+        void replace(BigDecimal baseRewardPerDay) {
+            CoinRewardCalculator oldCalculator = calculator;
+            calculator = createCalculator(BTC, baseRewardPerDay);
+            publisher.publish(oldCalculator, calculator);
+        }
+
+        @Override
+        public CoinReward requestCoinReward(CoinType coinType, BigDecimal reportedHashrate) {
+            callCount.incrementAndGet();
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return createCalculator(coinType, calculator.getBaseRewardPerDay()).calculateRewards(reportedHashrate);
+        }
+
+        @Override
+        public CoinReward requestCoinReward(CoinType coinType, BigDecimal reportedHashrate, CalculatorVersion version) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<CalculatorVersion> getRetainedVersions(CoinType coinType) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CalculatorVersion getCachedVersion(CoinType coinType) {
+            return calculator.getVersion();
+        }
+
+        @Override
+        public void requestCoinReward(CoinType coinType, double reportedHashrate, HashrateUnit hashrateUnit, double[] rewards) {
+            calculator.calculateRewards(reportedHashrate, hashrateUnit, rewards);
+        }
+
+        @Override
+        public CompletableFuture<CoinReward> requestCoinRewardAsync(CoinType coinType, BigDecimal reportedHashrate) {
+            return CompletableFuture.supplyAsync(() -> requestCoinReward(coinType, reportedHashrate));
+        }
+
+        @Override
+        public Map<CoinType, CoinReward> requestCoinRewards(Map<CoinType, BigDecimal> reportedHashrateMap) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CoinRewardSubscription subscribe(CoinRewardListener coinRewardListener) {
+            return publisher.subscribe(coinRewardListener);
+        }
+
+        @Override
+        public CoinRewardSubscription subscribe(CoinRewardListener coinRewardListener, int bufferSize) {
+            return publisher.subscribe(coinRewardListener, bufferSize);
+        }
+
+        private static CoinRewardCalculator createCalculator(CoinType coinType, BigDecimal baseRewardPerDay) {
+            return new CoinRewardCalculator(coinType, HASHRATE, baseRewardPerDay);
+        }
+
+    }
+
+}
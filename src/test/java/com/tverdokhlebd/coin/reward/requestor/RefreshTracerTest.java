@@ -0,0 +1,130 @@
+package com.tverdokhlebd.coin.reward.requestor;
+
+import static com.tverdokhlebd.mining.commons.coin.CoinType.LTC;
+import static com.tverdokhlebd.mining.commons.http.ErrorCode.API_ERROR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.tverdokhlebd.coin.reward.whattomine.EndpointRegistry;
+import com.tverdokhlebd.coin.reward.whattomine.WhatToMineRequestor;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * Tests of tracing of refreshes.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class RefreshTracerTest {
+
+    private static final String RESPONSE = "{\"estimated_rewards\": \"0.3\", \"timestamp\": 1525899632}";
+    private static final BigDecimal HASHRATE = BigDecimal.valueOf(504000000);
+
+    private MockWebServer server;
+    private EndpointRegistry endpointRegistry;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        endpointRegistry = EndpointRegistry.load(new StringReader("{\"coins\": [{\"coin\": \"LTC\", \"url\": \""
+                + server.url("/coins/4.json") + "\", \"base_hashrate\": 504000000}]}"));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void testPhases() throws CoinRewardRequestorException {
+        server.enqueue(new MockResponse().setBody(RESPONSE).setBodyDelay(100, TimeUnit.MILLISECONDS));
+        server.enqueue(new MockResponse().setBody(RESPONSE));
+        RefreshTracer refreshTracer = new RefreshTracer();
+        WhatToMineRequestor requestor = createRequestor(refreshTracer);
+        requestor.requestCoinReward(LTC, HASHRATE);
+        requestor.requestCoinReward(LTC, HASHRATE);
+        List<RefreshTrace> refreshTraceList = refreshTracer.getSlowestRefreshes();
+        assertEquals(2, refreshTraceList.size());
+        RefreshTrace slowestRefreshTrace = refreshTraceList.get(0);
+        assertEquals(LTC, slowestRefreshTrace.getCoinType());
+        assertEquals(1, slowestRefreshTrace.getCallCount());
+        assertNull(slowestRefreshTrace.getErrorCode());
+        long responseNanos = slowestRefreshTrace.getPhaseNanos(RefreshPhase.WAIT)
+                + slowestRefreshTrace.getPhaseNanos(RefreshPhase.RESPONSE_BODY);
+        assertTrue(responseNanos >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertTrue(slowestRefreshTrace.getPhaseNanos(RefreshPhase.CONNECT) > 0);
+        assertTrue(slowestRefreshTrace.getPhaseNanos(RefreshPhase.CHECK_API_ERROR) > 0);
+        assertTrue(slowestRefreshTrace.getPhaseNanos(RefreshPhase.PARSE_RESPONSE) > 0);
+        assertTrue(slowestRefreshTrace.getPhaseNanos(RefreshPhase.PUBLISH) > 0);
+        assertTrue(slowestRefreshTrace.getTotalNanos() >= responseNanos);
+        assertTrue(refreshTraceList.get(1).getTotalNanos() < slowestRefreshTrace.getTotalNanos());
+        // Connection is reused
+        assertEquals(0, refreshTraceList.get(1).getPhaseNanos(RefreshPhase.CONNECT));
+    }
+
+    @Test
+    public void testFailedRefresh() {
+        server.enqueue(new MockResponse().setBody("{\"errors\": [\"Coin is not found\"]}"));
+        RefreshTracer refreshTracer = new RefreshTracer();
+        try {
+            createRequestor(refreshTracer).requestCoinReward(LTC, HASHRATE);
+            fail("Refresh must fail");
+        } catch (CoinRewardRequestorException e) {
+            assertEquals(API_ERROR, e.getErrorCode());
+        }
+        assertEquals(API_ERROR, refreshTracer.getSlowestRefreshes().get(0).getErrorCode());
+    }
+
+    @Test
+    public void testCapacityAndThreshold() throws CoinRewardRequestorException {
+        RefreshTracer refreshTracer = new RefreshTracer(2, 0);
+        RefreshTracer slowRefreshTracer = new RefreshTracer(2, 60000);
+        WhatToMineRequestor requestor = createRequestor(refreshTracer);
+        WhatToMineRequestor slowRequestor = createRequestor(slowRefreshTracer);
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setBody(RESPONSE));
+            requestor.requestCoinReward(LTC, HASHRATE);
+            server.enqueue(new MockResponse().setBody(RESPONSE));
+            slowRequestor.requestCoinReward(LTC, HASHRATE);
+        }
+        assertEquals(2, refreshTracer.getSlowestRefreshes().size());
+        assertEquals(0, slowRefreshTracer.getSlowestRefreshes().size());
+    }
+
+    @Test
+    public void testSlowestAreKept() throws CoinRewardRequestorException {
+        RefreshTracer refreshTracer = new RefreshTracer(1, 0);
+        WhatToMineRequestor requestor = createRequestor(refreshTracer);
+        server.enqueue(new MockResponse().setBody(RESPONSE).setBodyDelay(100, TimeUnit.MILLISECONDS));
+        requestor.requestCoinReward(LTC, HASHRATE);
+        for (int i = 0; i < 2; i++) {
+            server.enqueue(new MockResponse().setBody(RESPONSE));
+            requestor.requestCoinReward(LTC, HASHRATE);
+        }
+        // Later fast refreshes do not push out the slow one
+        List<RefreshTrace> refreshTraceList = refreshTracer.getSlowestRefreshes();
+        assertEquals(1, refreshTraceList.size());
+        assertTrue(refreshTraceList.get(0).getTotalNanos() >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    private WhatToMineRequestor createRequestor(RefreshTracer refreshTracer) {
+        return new WhatToMineRequestor(new OkHttpClient(), 0, endpointRegistry, false, RefreshExecutors.getDefault(), null, refreshTracer);
+    }
+
+}
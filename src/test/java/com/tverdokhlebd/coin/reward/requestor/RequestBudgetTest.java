@@ -0,0 +1,140 @@
+package com.tverdokhlebd.coin.reward.requestor;
+
+import static com.tverdokhlebd.mining.commons.coin.CoinType.DASH;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.LTC;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.tverdokhlebd.coin.reward.whattomine.EndpointRegistry;
+import com.tverdokhlebd.coin.reward.whattomine.WhatToMineRequestor;
+import com.tverdokhlebd.mining.commons.utils.HttpClientUtils;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Tests of budget of upstream requests.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class RequestBudgetTest {
+
+    @Test
+    public void testRefill() {
+        AtomicLong clock = new AtomicLong();
+        RequestBudget requestBudget = new RequestBudget(2, 0.5, clock::get);
+        assertTrue(requestBudget.tryAcquire("BTC"));
+        assertTrue(requestBudget.tryAcquire("BTC"));
+        assertFalse(requestBudget.tryAcquire("BTC"));
+        clock.addAndGet(1999);
+        assertFalse(requestBudget.tryAcquire("BTC"));
+        clock.addAndGet(1);
+        assertTrue(requestBudget.tryAcquire("BTC"));
+        clock.addAndGet(60000);
+        assertEquals(2, requestBudget.getAvailableTokens(), 0);
+    }
+
+    @Test
+    public void testPriority() {
+        AtomicLong clock = new AtomicLong();
+        RequestBudget requestBudget = new RequestBudget(1, 1, clock::get);
+        assertTrue(requestBudget.tryAcquire("XMR"));
+        for (int i = 0; i < 5; i++) {
+            requestBudget.recordTraffic("BTC");
+        }
+        requestBudget.recordTraffic("ETH");
+        assertFalse(requestBudget.tryAcquire("ETH"));
+        assertFalse(requestBudget.tryAcquire("BTC"));
+        clock.addAndGet(1000);
+        // Token is reserved for BTC, which has more traffic
+        assertFalse(requestBudget.tryAcquire("ETH"));
+        assertTrue(requestBudget.tryAcquire("BTC"));
+        clock.addAndGet(1000);
+        assertTrue(requestBudget.tryAcquire("ETH"));
+    }
+
+    @Test
+    public void testExpiredWaiting() {
+        AtomicLong clock = new AtomicLong();
+        RequestBudget requestBudget = new RequestBudget(1, 1, clock::get);
+        assertTrue(requestBudget.tryAcquire("XMR"));
+        requestBudget.recordTraffic("BTC");
+        assertFalse(requestBudget.tryAcquire("BTC"));
+        clock.addAndGet(2001);
+        // BTC did not try again, so it does not hold token anymore
+        assertTrue(requestBudget.tryAcquire("ETH"));
+    }
+
+    @Test
+    public void testCachedFallback() throws CoinRewardRequestorException {
+        EndpointRegistry endpointRegistry = createEndpointRegistry();
+        AtomicInteger requestCount = new AtomicInteger();
+        OkHttpClient httpClient = new OkHttpClient.Builder().addInterceptor(chain -> {
+            requestCount.incrementAndGet();
+            String body = "{\"estimated_rewards\": \"0.3\", \"timestamp\": 1525899632}";
+            return new Response.Builder().body(ResponseBody.create(HttpClientUtils.MEDIA_JSON, body))
+                                         .request(chain.request())
+                                         .protocol(Protocol.HTTP_1_1)
+                                         .code(200)
+                                         .message("")
+                                         .build();
+        }).build();
+        RequestBudget requestBudget = new RequestBudget(1, 1, () -> 0);
+        WhatToMineRequestor requestor =
+                new WhatToMineRequestor(httpClient, 0, endpointRegistry, false, RefreshExecutors.getDefault(), requestBudget, null);
+        assertEquals(new BigDecimal("0.3"), requestor.requestCoinReward(LTC, BigDecimal.valueOf(504000000)).getRewardPerDay());
+        assertEquals(new BigDecimal("0.3"), requestor.requestCoinReward(LTC, BigDecimal.valueOf(504000000)).getRewardPerDay());
+        assertEquals(1, requestCount.get());
+        try {
+            requestor.requestCoinReward(DASH, BigDecimal.valueOf(1000000000));
+            fail("Budget must be exhausted");
+        } catch (RequestBudgetExhaustedException e) {
+            assertNull(e.getErrorCode());
+            assertEquals("Request budget is exhausted and DASH is not cached", e.getMessage());
+        }
+        assertEquals(1, requestCount.get());
+    }
+
+    @Test
+    public void testTrafficOfCachedLookups() throws CoinRewardRequestorException {
+        String body = "{\"estimated_rewards\": \"0.3\", \"timestamp\": " + System.currentTimeMillis() / 1000 + "}";
+        OkHttpClient httpClient = HttpClientUtils.createHttpClient(body, 200);
+        RequestBudget requestBudget = new RequestBudget(1, 1, () -> 0);
+        WhatToMineRequestor requestor =
+                new WhatToMineRequestor(httpClient, 4, createEndpointRegistry(), false, RefreshExecutors.getDefault(), requestBudget, null);
+        for (int i = 0; i < 4; i++) {
+            requestor.requestCoinReward(LTC, BigDecimal.valueOf(504000000));
+        }
+        // The first lookup refreshes LTC, the next ones are served by cache, but they are traffic too
+        assertEquals(3, requestBudget.getTraffic("LTC"));
+    }
+
+    @Test
+    public void testFactoryBudget() {
+        RequestBudget requestBudget = new RequestBudget(5, 2);
+        CoinRewardRequestorFactory.setRequestBudget("budget.example.com", requestBudget);
+        assertSame(requestBudget, CoinRewardRequestorFactory.getRequestBudget("budget.example.com"));
+        assertNull(CoinRewardRequestorFactory.getRequestBudget(null));
+    }
+
+    private static EndpointRegistry createEndpointRegistry() {
+        return EndpointRegistry.load(new StringReader("{\"coins\": [" +
+                "{\"coin\": \"LTC\", \"url\": \"https://whattomine.com/coins/4.json\", \"base_hashrate\": 504000000}," +
+                "{\"coin\": \"DASH\", \"url\": \"https://whattomine.com/coins/34.json\", \"base_hashrate\": 1000000000}]}"));
+    }
+
+}
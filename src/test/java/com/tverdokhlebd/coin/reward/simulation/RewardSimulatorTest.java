@@ -0,0 +1,71 @@
+package com.tverdokhlebd.coin.reward.simulation;
+
+import static com.tverdokhlebd.mining.commons.coin.CoinType.BTC;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+
+/**
+ * Tests of reward simulator.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class RewardSimulatorTest {
+
+    /** BTC with 600 seconds blocks, 12.5 BTC per block and 30 EH/s network. */
+    private static final CoinRewardCalculator CALCULATOR = createCalculator();
+
+    @Test
+    public void testDeterministic() {
+        RewardDistribution first = new RewardSimulator(200000, 42).simulateSolo(CALCULATOR, 1e17, 7);
+        RewardDistribution second = new RewardSimulator(200000, 42).simulateSolo(CALCULATOR, 1e17, 7);
+        assertEquals(first.getMeanReward(), second.getMeanReward(), 0);
+        assertEquals(first.getPercentile(5), second.getPercentile(5), 0);
+        assertEquals(first.getPercentile(95), second.getPercentile(95), 0);
+        assertEquals(first.getProbabilityOfAtLeast(1), second.getProbabilityOfAtLeast(1), 0);
+    }
+
+    @Test
+    public void testSolo() {
+        // 1 PH/s of 30 EH/s network finds 1008 / 30000 blocks per week
+        RewardDistribution distribution = new RewardSimulator(RewardSimulator.DEFAULT_TRIALS, 7).simulateSolo(CALCULATOR, 1e15, 7);
+        double expectedBlocks = 1008 / 30000d;
+        assertEquals(RewardSimulator.DEFAULT_TRIALS, distribution.getTrials());
+        assertEquals(expectedBlocks, distribution.getExpectedBlocks(), 1e-12);
+        assertEquals(-Math.expm1(-expectedBlocks), distribution.getProbabilityOfAtLeast(1), 0.001);
+        assertEquals(0, distribution.getPercentile(50), 0);
+        assertEquals(12.5, distribution.getPercentile(99), 0);
+        assertEquals(distribution.getExpectedReward(), distribution.getMeanReward(), 0.01);
+    }
+
+    @Test
+    public void testPool() {
+        // Pool with a third of network finds 336 blocks per week on average
+        RewardDistribution distribution = new RewardSimulator(100000, 7).simulatePool(CALCULATOR, 1e15, 1e19, 0.02, 7);
+        double rewardPerBlock = 12.5 * 1e15 / 1e19 * 0.98;
+        assertEquals(336, distribution.getExpectedBlocks(), 1e-9);
+        assertEquals(336 * rewardPerBlock, distribution.getMeanReward(), 336 * rewardPerBlock * 0.001);
+        assertTrue(distribution.getPercentile(5) < distribution.getPercentile(50));
+        assertTrue(distribution.getPercentile(50) < distribution.getPercentile(95));
+        assertEquals((336 - 1.645 * Math.sqrt(336)) * rewardPerBlock, distribution.getPercentile(5), 3 * rewardPerBlock);
+        assertEquals(1, distribution.getProbabilityOfAtLeast(1), 0);
+    }
+
+    private static CoinRewardCalculator createCalculator() {
+        CoinRewardCalculator.Builder builder = new CoinRewardCalculator.Builder();
+        builder.setCoinType(BTC)
+               .setBaseHashrate(BigDecimal.valueOf(14000000000000L))
+               .setBaseRewardPerDay(new BigDecimal("0.000889"))
+               .setNetworkHashrate(new BigDecimal("30000000000000000000"))
+               .setBlockReward(new BigDecimal("12.5"))
+               .setBlockTime(new BigDecimal("600"));
+        return builder.build();
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.tverdokhlebd.coin.reward.tier;
+
+import static com.tverdokhlebd.coin.reward.CoinRewardCalculator.REWARD_PERIODS;
+import static com.tverdokhlebd.coin.reward.CoinRewardCalculator.REWARD_PER_DAY;
+import static com.tverdokhlebd.coin.reward.CoinRewardCalculator.REWARD_PER_HOUR;
+import static com.tverdokhlebd.coin.reward.CoinRewardCalculator.REWARD_PER_YEAR;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.BTC;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+
+import org.junit.Test;
+
+import com.tverdokhlebd.coin.reward.CoinReward;
+import com.tverdokhlebd.coin.reward.CoinRewardCalculator;
+import com.tverdokhlebd.coin.reward.HashrateUnit;
+import com.tverdokhlebd.coin.reward.event.CoinRewardPublisher;
+
+/**
+ * Tests of reward tier tables.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class RewardTierTablesTest {
+
+    @Test
+    public void testLookup() {
+        RewardTierTables tables = new RewardTierTables(HashrateUnit.TH_S, 10, 100, 91);
+        CoinRewardCalculator calculator = createCalculator("0.000800");
+        RewardTierTable table = tables.build(calculator);
+        assertEquals(-1, table.getTier(9.4));
+        assertEquals(0, table.getTier(9.6));
+        assertEquals(4, table.getTier(14.2));
+        assertEquals(90, table.getTier(100.4));
+        assertEquals(-1, table.getTier(100.6));
+        CoinReward coinReward = calculator.calculateRewards(new BigDecimal("14000000000000"));
+        double[] rewards = new double[REWARD_PERIODS];
+        table.getRewards(table.getTier(14), rewards);
+        assertEquals(coinReward.getRewardPerHour().doubleValue(), rewards[REWARD_PER_HOUR], 0);
+        assertEquals(coinReward.getRewardPerDay().doubleValue(), rewards[REWARD_PER_DAY], 0);
+        assertEquals(coinReward.getRewardPerYear().doubleValue(), table.getReward(4, REWARD_PER_YEAR), 0);
+        assertEquals(16 + 91 * REWARD_PERIODS * Double.BYTES, tables.getMemoryBytes());
+    }
+
+    @Test
+    public void testRebuildOnEvent() {
+        ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+        CoinRewardPublisher publisher = new CoinRewardPublisher(tasks::add);
+        RewardTierTables tables = new RewardTierTables(HashrateUnit.TH_S, 1, 100, 100);
+        publisher.subscribe(tables);
+        CoinRewardCalculator calculator = createCalculator("0.000800");
+        publisher.publish(null, calculator);
+        assertNull(tables.getTable(BTC));
+        tasks.poll().run();
+        RewardTierTable oldTable = tables.getTable(BTC);
+        assertSame(calculator, oldTable.getCoinRewardCalculator());
+        publisher.publish(calculator, createCalculator("0.001600"));
+        tasks.poll().run();
+        RewardTierTable newTable = tables.getTable(BTC);
+        int tier = newTable.getTier(14);
+        assertEquals(2 * oldTable.getReward(tier, REWARD_PER_DAY), newTable.getReward(tier, REWARD_PER_DAY), 1e-12);
+        assertEquals(16 + 100 * REWARD_PERIODS * Double.BYTES, tables.getMemoryBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyRange() {
+        new RewardTierTables(HashrateUnit.TH_S, 10, 10, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyTiers() {
+        new RewardTierTable(createCalculator("0.000889"), HashrateUnit.TH_S, 10, 100, Integer.MAX_VALUE / REWARD_PERIODS + 1);
+    }
+
+    private static CoinRewardCalculator createCalculator(String baseRewardPerDay) {
+        return new CoinRewardCalculator(BTC, BigDecimal.valueOf(14000000000000L), new BigDecimal(baseRewardPerDay));
+    }
+
+}
@@ -0,0 +1,162 @@
+package com.tverdokhlebd.coin.reward.whattomine;
+
+import static com.tverdokhlebd.coin.reward.CoinRewardType.WHAT_TO_MINE;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.BTC;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.ETC;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.ETH;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.XMR;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.ZEC;
+import static com.tverdokhlebd.mining.commons.http.ErrorCode.API_ERROR;
+import static com.tverdokhlebd.mining.commons.http.ErrorCode.HTTP_ERROR;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.tverdokhlebd.coin.reward.CoinReward;
+import com.tverdokhlebd.coin.reward.requestor.CoinRewardPreload;
+import com.tverdokhlebd.coin.reward.requestor.CoinRewardRequestorException;
+import com.tverdokhlebd.coin.reward.requestor.CoinRewardRequestorFactory;
+import com.tverdokhlebd.coin.reward.requestor.RefreshExecutors;
+import com.tverdokhlebd.mining.commons.utils.HttpClientUtils;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Tests of refreshing all WhatToMine coins from aggregated coins listing.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class BulkRefreshTest {
+
+    @Test
+    public void testBulkRefresh() throws CoinRewardRequestorException, IOException {
+        AtomicInteger requestCount = new AtomicInteger();
+        OkHttpClient httpClient = createHttpClient(readFixture("coins.json"), requestCount);
+        WhatToMineRequestor requestor = createRequestor(httpClient);
+        CoinReward coinReward = requestor.requestCoinReward(BTC, BigDecimal.valueOf(14000000000000L));
+        assertEquals(1, requestCount.get());
+        assertEquals(new BigDecimal("0.000889"), coinReward.getRewardPerDay());
+        assertEquals(new BigDecimal("0.010512"), requestor.getCachedCoinRewardCalculator(ETH).getBaseRewardPerDay());
+        assertEquals(new BigDecimal("0.355441"), requestor.getCachedCoinRewardCalculator(ETC).getBaseRewardPerDay());
+        assertEquals(new BigDecimal("0.026415"), requestor.getCachedCoinRewardCalculator(XMR).getBaseRewardPerDay());
+        assertEquals(new BigDecimal("0.027049"), requestor.getCachedCoinRewardCalculator(ZEC).getBaseRewardPerDay());
+        assertEquals(1525899632000L, requestor.getCachedCoinRewardCalculator(ZEC).getLastUpdated().getTime());
+    }
+
+    @Test
+    public void testFactoryBulkRefresh() throws CoinRewardRequestorException, IOException {
+        AtomicInteger requestCount = new AtomicInteger();
+        OkHttpClient httpClient = createHttpClient(readFixture("coins.json"), requestCount);
+        WhatToMineRequestor requestor = (WhatToMineRequestor) CoinRewardRequestorFactory.create(WHAT_TO_MINE, httpClient, 0, true);
+        requestor.requestCoinReward(ETH, BigDecimal.valueOf(14000000000000L));
+        assertEquals(1, requestCount.get());
+        assertEquals(new BigDecimal("0.000889"), requestor.getCachedCoinRewardCalculator(BTC).getBaseRewardPerDay());
+    }
+
+    @Test
+    public void testPreload() throws IOException, InterruptedException {
+        AtomicInteger requestCount = new AtomicInteger();
+        String body = readFixture("coins.json");
+        OkHttpClient httpClient = new OkHttpClient.Builder().addInterceptor(chain -> {
+            requestCount.incrementAndGet();
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new Response.Builder().body(ResponseBody.create(HttpClientUtils.MEDIA_JSON, body))
+                                         .request(chain.request())
+                                         .protocol(Protocol.HTTP_1_1)
+                                         .code(200)
+                                         .message("")
+                                         .build();
+        }).build();
+        ExecutorService executor = RefreshExecutors.createBoundedExecutor(8);
+        try {
+            WhatToMineRequestor requestor =
+                    new WhatToMineRequestor(httpClient, 0, EndpointRegistry.getDefault(), true, executor, null, null);
+            CoinRewardPreload preload = new CoinRewardPreload(requestor, Arrays.asList(BTC, ETH, ETC, XMR, ZEC));
+            assertTrue(preload.await(5000));
+            // Concurrent refreshes of all coins are collapsed into one request of listing
+            assertEquals(1, requestCount.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = CoinRewardRequestorException.class)
+    public void testApiError() throws CoinRewardRequestorException {
+        OkHttpClient httpClient = HttpClientUtils.createHttpClient("{\"errors\": [\"Too many requests\"]}", 200);
+        WhatToMineRequestor requestor = createRequestor(httpClient);
+        try {
+            requestor.requestCoinReward(BTC, BigDecimal.valueOf(0));
+        } catch (CoinRewardRequestorException e) {
+            assertEquals(API_ERROR, e.getErrorCode());
+            assertEquals("Too many requests", e.getMessage());
+            throw e;
+        }
+    }
+
+    @Test(expected = CoinRewardRequestorException.class)
+    public void testHttpError() throws CoinRewardRequestorException {
+        OkHttpClient httpClient = HttpClientUtils.createHttpClient("", 429);
+        try {
+            createRequestor(httpClient).requestCoinReward(BTC, BigDecimal.valueOf(0));
+        } catch (CoinRewardRequestorException e) {
+            assertEquals(HTTP_ERROR, e.getErrorCode());
+            assertTrue(e.getMessage(), e.getMessage().startsWith("429"));
+            throw e;
+        }
+    }
+
+    /**
+     * Creates requestor with bulk refresh.
+     */
+    private static WhatToMineRequestor createRequestor(OkHttpClient httpClient) {
+        return new WhatToMineRequestor(httpClient, 0, EndpointRegistry.getDefault(), true, RefreshExecutors.getDefault(), null, null);
+    }
+
+    /**
+     * Creates HTTP client which counts requests and responds with given body.
+     */
+    private static OkHttpClient createHttpClient(String body, AtomicInteger requestCount) {
+        return new OkHttpClient.Builder().addInterceptor(chain -> {
+            requestCount.incrementAndGet();
+            return new Response.Builder().body(ResponseBody.create(HttpClientUtils.MEDIA_JSON, body))
+                                         .request(chain.request())
+                                         .protocol(Protocol.HTTP_1_1)
+                                         .code(200)
+                                         .message("")
+                                         .build();
+        }).build();
+    }
+
+    /**
+     * Reads recorded fixture.
+     */
+    private static String readFixture(String name) throws IOException {
+        try (InputStream inputStream = BulkRefreshTest.class.getResourceAsStream(name)) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int read = inputStream.read(buffer); read != -1; read = inputStream.read(buffer)) {
+                outputStream.write(buffer, 0, read);
+            }
+            return new String(outputStream.toByteArray(), UTF_8);
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.tverdokhlebd.coin.reward.whattomine;
+
+import static com.tverdokhlebd.coin.reward.CoinRewardType.WHAT_TO_MINE;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.BTC;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.ETC;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.ETH;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.LTC;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.XMR;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.ZEC;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+import org.json.JSONObject;
+import org.junit.Test;
+
+import com.tverdokhlebd.coin.reward.CoinReward;
+import com.tverdokhlebd.coin.reward.PrecisionPolicy;
+import com.tverdokhlebd.coin.reward.requestor.CoinRewardRequestorException;
+import com.tverdokhlebd.coin.reward.requestor.RefreshExecutors;
+import com.tverdokhlebd.mining.commons.utils.HttpClientUtils;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * Tests of WhatToMine endpoint registry.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class EndpointRegistryTest {
+
+    @Test
+    public void testDefaultRegistry() {
+        EndpointRegistry endpointRegistry = EndpointRegistry.getDefault();
+        assertEquals(WHAT_TO_MINE.getCoinTypeList(), endpointRegistry.getCoinTypeList());
+        assertEquals(Arrays.asList(BTC, ETH, ETC, XMR, ZEC), WHAT_TO_MINE.getCoinTypeList());
+        assertEquals("https://whattomine.com/coins/1.json", endpointRegistry.getEndpoint(BTC).getUrl());
+        assertEquals(BigDecimal.valueOf(14000000000000L), endpointRegistry.getEndpoint(BTC).getBaseHashrate());
+        assertFalse(endpointRegistry.isSupported(LTC));
+        assertEquals(PrecisionPolicy.LEGACY, endpointRegistry.getEndpoint(BTC).getPrecisionPolicy());
+    }
+
+    @Test
+    public void testCustomRegistry() throws CoinRewardRequestorException {
+        EndpointRegistry endpointRegistry = EndpointRegistry.load(new StringReader("{\"coins\": [{\n" +
+                "  \"coin\": \"LTC\",\n" +
+                "  \"url\": \"https://whattomine.com/coins/4.json\",\n" +
+                "  \"base_hashrate\": 504000000,\n" +
+                "  \"reward_field\": \"estimated_rewards24\",\n" +
+                "  \"timestamp_field\": \"last_updated\"\n" +
+                "}]}"));
+        assertTrue(endpointRegistry.isSupported(LTC));
+        JSONObject response = new JSONObject("{\"estimated_rewards24\": \"0.3\", \"last_updated\": 1525899632}");
+        OkHttpClient httpClient = HttpClientUtils.createHttpClient(response.toString(), 200);
+        WhatToMineRequestor requestor =
+                new WhatToMineRequestor(httpClient, 0, endpointRegistry, false, RefreshExecutors.getDefault(), null, null);
+        CoinReward coinReward = requestor.requestCoinReward(LTC, BigDecimal.valueOf(1008000000));
+        assertEquals(new BigDecimal("0.6"), coinReward.getRewardPerDay());
+    }
+
+    @Test
+    public void testPrecision() throws CoinRewardRequestorException {
+        EndpointRegistry endpointRegistry = EndpointRegistry.load(new StringReader("{\"coins\": [{\n" +
+                "  \"coin\": \"LTC\",\n" +
+                "  \"url\": \"https://whattomine.com/coins/4.json\",\n" +
+                "  \"base_hashrate\": 504000000,\n" +
+                "  \"precision\": {\"scale\": 8, \"digits\": 16, \"rounding\": \"HALF_UP\"}\n" +
+                "}]}"));
+        assertEquals(new PrecisionPolicy(8, new MathContext(16, RoundingMode.HALF_UP)),
+                     endpointRegistry.getEndpoint(LTC).getPrecisionPolicy());
+        JSONObject response = new JSONObject("{\"estimated_rewards\": \"0.000889\", \"timestamp\": 1525899632}");
+        OkHttpClient httpClient = HttpClientUtils.createHttpClient(response.toString(), 200);
+        WhatToMineRequestor requestor =
+                new WhatToMineRequestor(httpClient, 0, endpointRegistry, false, RefreshExecutors.getDefault(), null, null);
+        CoinReward coinReward = requestor.requestCoinReward(LTC, BigDecimal.valueOf(1008000000));
+        assertEquals(new BigDecimal("0.00007408"), coinReward.getRewardPerHour());
+        assertEquals(new BigDecimal("0.00177800"), coinReward.getRewardPerDay());
+        assertEquals(new BigDecimal("0.01244600"), coinReward.getRewardPerWeek());
+        assertEquals(new BigDecimal("0.05334000"), coinReward.getRewardPerMonth());
+        assertEquals(new BigDecimal("0.64897000"), coinReward.getRewardPerYear());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPrecision() {
+        EndpointRegistry.load(new StringReader("{\"coins\": [{\"coin\": \"LTC\", \"url\": \"https://whattomine.com/coins/4.json\", "
+                + "\"base_hashrate\": 504000000, \"precision\": {\"scale\": 8, \"rounding\": \"NEAREST\"}}]}"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidConfig() {
+        EndpointRegistry.load(new StringReader("{\"coins\": [{\"coin\": \"BTC\"}]}"));
+    }
+
+}
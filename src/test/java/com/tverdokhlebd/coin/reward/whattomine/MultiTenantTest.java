@@ -0,0 +1,106 @@
+package com.tverdokhlebd.coin.reward.whattomine;
+
+import static com.tverdokhlebd.mining.commons.coin.CoinType.ETC;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.XMR;
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.tverdokhlebd.coin.reward.CoinReward;
+import com.tverdokhlebd.coin.reward.requestor.CoinRewardRequestorException;
+import com.tverdokhlebd.coin.reward.requestor.RefreshExecutors;
+import com.tverdokhlebd.mining.commons.utils.HttpClientUtils;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * Tests of requestors of tenants with different endpoints update.
+ *
+ * @author Dmitry Tverdokhleb
+ *
+ */
+public class MultiTenantTest {
+
+    private static final BigDecimal HASHRATE = BigDecimal.valueOf(84000000);
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final EndpointRegistry endpointRegistry = EndpointRegistry.load(new StringReader(
+            "{\"coins\": [{\"coin\": \"ETC\", \"url\": \"https://whattomine.com/coins/162.json\", \"base_hashrate\": 84000000},"
+                    + "{\"coin\": \"XMR\", \"url\": \"https://whattomine.com/coins/101.json\", \"base_hashrate\": 84000000}]}"));
+
+    @Test
+    public void testOwnFreshness() throws CoinRewardRequestorException {
+        // Upstream data is 2 minutes old
+        OkHttpClient httpClient = createHttpClient(TimeUnit.MINUTES.toMillis(2), 0);
+        WhatToMineRequestor strictRequestor = createRequestor(httpClient, 1);
+        WhatToMineRequestor looseRequestor = createRequestor(httpClient, 5);
+        strictRequestor.requestCoinReward(ETC, HASHRATE);
+        assertEquals(1, requestCount.get());
+        // Refresh of strict tenant satisfies loose one
+        looseRequestor.requestCoinReward(ETC, HASHRATE);
+        assertEquals(1, requestCount.get());
+        strictRequestor.requestCoinReward(ETC, HASHRATE);
+        assertEquals(2, requestCount.get());
+        looseRequestor.requestCoinReward(ETC, HASHRATE);
+        assertEquals(2, requestCount.get());
+    }
+
+    @Test
+    public void testSharedRefresh() {
+        OkHttpClient httpClient = createHttpClient(TimeUnit.MINUTES.toMillis(10), 200);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<CoinReward>> futureList = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            WhatToMineRequestor requestor = createRequestor(httpClient, 1 + i);
+            futureList.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return requestor.requestCoinReward(XMR, HASHRATE);
+                } catch (CoinRewardRequestorException e) {
+                    throw new IllegalStateException(e);
+                }
+            }, executor));
+        }
+        for (CompletableFuture<CoinReward> future : futureList) {
+            assertEquals(new BigDecimal("0.3"), future.join().getRewardPerDay());
+        }
+        executor.shutdown();
+        assertEquals(1, requestCount.get());
+    }
+
+    private OkHttpClient createHttpClient(long ageMillis, long latencyMillis) {
+        return new OkHttpClient.Builder().addInterceptor(chain -> {
+            requestCount.incrementAndGet();
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            long timestamp = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - ageMillis);
+            String body = "{\"estimated_rewards\": \"0.3\", \"timestamp\": " + timestamp + "}";
+            return new Response.Builder().body(ResponseBody.create(HttpClientUtils.MEDIA_JSON, body))
+                                         .request(chain.request())
+                                         .protocol(Protocol.HTTP_1_1)
+                                         .code(200)
+                                         .message("")
+                                         .build();
+        }).build();
+    }
+
+    private WhatToMineRequestor createRequestor(OkHttpClient httpClient, int endpointsUpdate) {
+        return new WhatToMineRequestor(httpClient, endpointsUpdate, endpointRegistry, false, RefreshExecutors.getDefault(), null, null);
+    }
+
+}
@@ -3,14 +3,23 @@ package com.tverdokhlebd.coin.reward.whattomine;
 import static com.tverdokhlebd.coin.reward.CoinRewardType.WHAT_TO_MINE;
 import static com.tverdokhlebd.mining.commons.coin.CoinType.BCH;
 import static com.tverdokhlebd.mining.commons.coin.CoinType.BTC;
+import static com.tverdokhlebd.mining.commons.coin.CoinType.ETH;
+import static org.junit.Assert.assertEquals;
 
 import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
 
 import org.json.JSONObject;
 import org.junit.Test;
 
+import com.tverdokhlebd.coin.reward.CoinReward;
 import com.tverdokhlebd.coin.reward.Utils;
+import com.tverdokhlebd.coin.reward.requestor.CoinRewardRequestor;
 import com.tverdokhlebd.coin.reward.requestor.CoinRewardRequestorException;
+import com.tverdokhlebd.coin.reward.requestor.CoinRewardRequestorFactory;
+import com.tverdokhlebd.coin.reward.requestor.RefreshExecutors;
+import com.tverdokhlebd.mining.commons.coin.CoinType;
 import com.tverdokhlebd.mining.commons.utils.HttpClientUtils;
 
 import okhttp3.OkHttpClient;
@@ -97,6 +106,40 @@ public class WhatToMineRequestorTest {
         Utils.testEmptyResponse(WHAT_TO_MINE, BTC);
     }
 
+    @Test
+    public void testCoinRewards() throws CoinRewardRequestorException {
+        JSONObject response = new JSONObject("{\"estimated_rewards\": \"0.000889\", \"timestamp\": 1525899632}");
+        OkHttpClient httpClient = HttpClientUtils.createHttpClient(response.toString(), 200);
+        CoinRewardRequestor coinRewardRequestor =
+                CoinRewardRequestorFactory.create(WHAT_TO_MINE, httpClient, 0, RefreshExecutors.createBoundedExecutor(2));
+        Map<CoinType, BigDecimal> reportedHashrateMap = new EnumMap<>(CoinType.class);
+        reportedHashrateMap.put(BTC, BigDecimal.valueOf(28000000000000L));
+        reportedHashrateMap.put(ETH, BigDecimal.valueOf(84000000));
+        Map<CoinType, CoinReward> coinRewardMap = coinRewardRequestor.requestCoinRewards(reportedHashrateMap);
+        assertEquals(new BigDecimal("0.001778"), coinRewardMap.get(BTC).getRewardPerDay());
+        assertEquals(new BigDecimal("0.000889"), coinRewardMap.get(ETH).getRewardPerDay());
+    }
+
+    @Test
+    public void testDefaultConstructor() throws CoinRewardRequestorException {
+        JSONObject response = new JSONObject("{\"estimated_rewards\": \"0.000889\", \"timestamp\": 1525899632}");
+        OkHttpClient httpClient = HttpClientUtils.createHttpClient(response.toString(), 200);
+        CoinRewardRequestor coinRewardRequestor = new WhatToMineRequestor(httpClient, 0);
+        CoinReward coinReward = coinRewardRequestor.requestCoinReward(BTC, BigDecimal.valueOf(14000000000000L));
+        assertEquals(new BigDecimal("0.000889"), coinReward.getRewardPerDay());
+    }
+
+    @Test(expected = CoinRewardRequestorException.class)
+    public void testCoinRewardsError() throws CoinRewardRequestorException {
+        CoinRewardRequestor coinRewardRequestor = CoinRewardRequestorFactory.create(WHAT_TO_MINE,
+                                                                                    HttpClientUtils.createHttpClient("{}", 500),
+                                                                                    0,
+                                                                                    RefreshExecutors.createBoundedExecutor(2));
+        Map<CoinType, BigDecimal> reportedHashrateMap = new EnumMap<>(CoinType.class);
+        reportedHashrateMap.put(BTC, BigDecimal.valueOf(0));
+        coinRewardRequestor.requestCoinRewards(reportedHashrateMap);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testUnsupportedCoin() throws CoinRewardRequestorException {
         Utils.testUnsupportedCoin(WHAT_TO_MINE, BCH);